@@ -0,0 +1,110 @@
+package com.fy20047.tireordering.backend;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+// 下單壓測：對「已經啟動」的後端打 POST /api/orders，比較 platform thread / virtual thread 兩種模式
+// 1. 一般模式啟動後端 → 跑一次；2. SPRING_PROFILES_ACTIVE=virtual-threads 啟動 → 再跑一次
+// mvn -Pbenchmarks test-compile exec:exec -Djmh.args="OrderIntakeLoadBenchmark -p baseUrl=http://localhost:8080 -p tireId=1"
+// 注意：每次呼叫都會真的寫入一筆訂單，請對測試用資料庫執行；預設的 jmh.args 會排除這個 benchmark
+// 新輪胎庫存為 0（下單會被擋成 409），setup 先用後台帳號把庫存設成 stock（帳密預設讀 ADMIN_USERNAME / ADMIN_PASSWORD）
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Threads(64)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OrderIntakeLoadBenchmark {
+
+    @Param("http://localhost:8080")
+    public String baseUrl;
+
+    @Param("1")
+    public long tireId;
+
+    @Param("1000000")
+    public int stock;
+
+    @Param("")
+    public String adminUser;
+
+    @Param("")
+    public String adminPass;
+
+    private HttpClient client;
+    private HttpRequest request;
+
+    @Setup
+    public void setUp() throws IOException, InterruptedException {
+        client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        seedStock();
+        String body = """
+                {"tireId":%d,"quantity":4,"customerName":"壓測","phone":"0912345678",
+                 "installationOption":"INSTALL","carModel":"Benchmark"}
+                """.formatted(tireId);
+        request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/orders"))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    // 登入後台 → PATCH /api/admin/tires/{id}/stock
+    private void seedStock() throws IOException, InterruptedException {
+        String username = adminUser.isBlank() ? System.getenv("ADMIN_USERNAME") : adminUser;
+        String password = adminPass.isBlank() ? System.getenv("ADMIN_PASSWORD") : adminPass;
+        if (username == null || username.isBlank() || password == null || password.isBlank()) {
+            throw new IllegalStateException("Set -p adminUser=... -p adminPass=... (or ADMIN_USERNAME / ADMIN_PASSWORD) to seed stock");
+        }
+        ObjectMapper mapper = new ObjectMapper();
+        HttpResponse<String> login = client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/admin/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(mapper.writeValueAsString(
+                        Map.of("username", username, "password", password))))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        if (login.statusCode() != 200) {
+            throw new IllegalStateException("Admin login failed with status " + login.statusCode());
+        }
+        String token = mapper.readTree(login.body()).get("token").asText();
+        HttpResponse<Void> seeded = client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/admin/tires/" + tireId + "/stock"))
+                .header("Content-Type", "application/json")
+                .header("Authorization", "Bearer " + token)
+                .method("PATCH", HttpRequest.BodyPublishers.ofString("{\"stock\":" + stock + "}"))
+                .build(), HttpResponse.BodyHandlers.discarding());
+        if (seeded.statusCode() != 200) {
+            throw new IllegalStateException("Failed to seed stock, status " + seeded.statusCode());
+        }
+    }
+
+    @Benchmark
+    public int createOrder() throws IOException, InterruptedException {
+        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() != 201) {
+            throw new IllegalStateException("Unexpected status " + response.statusCode());
+        }
+        return response.statusCode();
+    }
+}
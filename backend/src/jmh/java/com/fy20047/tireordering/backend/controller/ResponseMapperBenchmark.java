@@ -0,0 +1,88 @@
+package com.fy20047.tireordering.backend.controller;
+
+import com.fy20047.tireordering.backend.dto.AdminOrderResponse;
+import com.fy20047.tireordering.backend.dto.AdminTireResponse;
+import com.fy20047.tireordering.backend.dto.TireResponse;
+import com.fy20047.tireordering.backend.entity.Order;
+import com.fy20047.tireordering.backend.entity.Tire;
+import com.fy20047.tireordering.backend.enums.InstallationOption;
+import com.fy20047.tireordering.backend.enums.OrderStatus;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Entity -> DTO 的轉換（每筆輪胎 / 訂單回應都會跑一次）
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ResponseMapperBenchmark {
+
+    private TireController tireController;
+    private AdminTireController adminTireController;
+    private AdminOrderController adminOrderController;
+    private Tire tire;
+    private Order order;
+
+    @Setup
+    public void setUp() {
+        // 只測 toResponse，不需要 service
+        tireController = new TireController(null, null, null, "no-cache");
+        adminTireController = new AdminTireController(null, null);
+        adminOrderController = new AdminOrderController(null, null, null);
+
+        LocalDateTime createdAt = LocalDateTime.of(2025, 1, 15, 10, 30);
+        tire = Tire.builder()
+                .id(42L)
+                .brand("Bridgestone")
+                .series("ALENZA 001")
+                .origin("日本")
+                .size("225/60R18")
+                .price(3850)
+                .isActive(true)
+                .createdAt(createdAt)
+                .updatedAt(createdAt)
+                .build();
+        order = Order.builder()
+                .id(1001L)
+                .tire(tire)
+                .quantity(4)
+                .customerName("王小明")
+                .phone("0912345678")
+                .email("ming@example.com")
+                .installationOption(InstallationOption.DELIVERY)
+                .deliveryAddress("台北市信義區松仁路 100 號")
+                .status(OrderStatus.PENDING)
+                .carModel("Toyota RAV4")
+                .notes("下午送達")
+                .createdAt(createdAt)
+                .updatedAt(createdAt)
+                .build();
+    }
+
+    @Benchmark
+    public TireResponse tireResponse() {
+        return tireController.toResponse(tire);
+    }
+
+    @Benchmark
+    public AdminTireResponse adminTireResponse() {
+        return adminTireController.toResponse(tire);
+    }
+
+    @Benchmark
+    public AdminOrderResponse adminOrderResponse() {
+        return adminOrderController.toResponse(order);
+    }
+}
@@ -0,0 +1,116 @@
+package com.fy20047.tireordering.backend.dto;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fy20047.tireordering.backend.enums.InstallationOption;
+import com.fy20047.tireordering.backend.enums.OrderStatus;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+// 列表回應的 JSON 序列化成本（10 / 1k / 100k 筆）
+// toBytes：整份轉成 byte[]（輪胎目錄快照的做法）；toStream：直接寫出（Spring MVC 回應的做法）
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonSerializationBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    private int items;
+
+    private ObjectMapper objectMapper;
+    private TireListResponse tires;
+    private AdminOrderListResponse orders;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build(); // 與 Spring Boot 預設相同的設定
+        tires = tireFixture(items);
+        orders = orderFixture(items);
+    }
+
+    @Benchmark
+    public byte[] tireListToBytes() throws IOException {
+        return objectMapper.writeValueAsBytes(tires);
+    }
+
+    @Benchmark
+    public void tireListToStream() throws IOException {
+        objectMapper.writeValue(OutputStream.nullOutputStream(), tires);
+    }
+
+    @Benchmark
+    public byte[] orderListToBytes() throws IOException {
+        return objectMapper.writeValueAsBytes(orders);
+    }
+
+    @Benchmark
+    public void orderListToStream() throws IOException {
+        objectMapper.writeValue(OutputStream.nullOutputStream(), orders);
+    }
+
+    static TireListResponse tireFixture(int count) {
+        String[] brands = {"Bridgestone", "Michelin", "Continental", "Yokohama", "Pirelli"};
+        List<TireResponse> list = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            list.add(new TireResponse(
+                    (long) i + 1,
+                    brands[i % brands.length],
+                    "SERIES " + (i % 50),
+                    i % 3 == 0 ? "日本" : null,
+                    (195 + (i % 8) * 10) + "/" + (45 + (i % 5) * 5) + "R" + (15 + i % 5),
+                    2500 + (i % 40) * 50,
+                    true
+            ));
+        }
+        return new TireListResponse(list);
+    }
+
+    static AdminOrderListResponse orderFixture(int count) {
+        LocalDateTime base = LocalDateTime.of(2025, 1, 1, 9, 0);
+        OrderStatus[] statuses = OrderStatus.values();
+        List<AdminOrderResponse> list = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            boolean delivery = i % 2 == 0;
+            LocalDateTime createdAt = base.plusMinutes(i);
+            list.add(new AdminOrderResponse(
+                    (long) i + 1,
+                    statuses[i % statuses.length],
+                    1 + i % 4,
+                    "客戶" + i,
+                    "09" + String.format("%08d", i),
+                    i % 3 == 0 ? "customer" + i + "@example.com" : null,
+                    delivery ? InstallationOption.DELIVERY : InstallationOption.INSTALL,
+                    delivery ? "台北市信義區松仁路 " + (i % 300) + " 號" : null,
+                    "Toyota RAV4",
+                    i % 5 == 0 ? "請先電話聯絡" : null,
+                    createdAt,
+                    createdAt,
+                    (long) (i % 200) + 1,
+                    "Bridgestone",
+                    "ALENZA 001",
+                    "日本",
+                    "225/60R18",
+                    3850
+            ));
+        }
+        return new AdminOrderListResponse(list, "MjAyNS0wMS0wMVQwOTowMHwx");
+    }
+}
@@ -0,0 +1,88 @@
+package com.fy20047.tireordering.backend.dto;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+// 回應壓縮的每個請求 CPU 成本（100 / 1k / 10k 筆）
+// catalogPrecompressed：上架目錄送出預先壓好的 bytes；catalogGzipPerRequest：每個請求重新壓（servlet 壓縮的做法）
+// orderListGzipPerRequest：後台訂單列表每次內容不同，只能每個請求壓
+// 原文 / gzip 大小在 setup 時印出
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ResponseCompressionBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    private int items;
+
+    private byte[] catalogJson;
+    private byte[] catalogGzip;
+    private byte[] orderJson;
+
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        catalogJson = objectMapper.writeValueAsBytes(JsonSerializationBenchmark.tireFixture(items));
+        orderJson = objectMapper.writeValueAsBytes(JsonSerializationBenchmark.orderFixture(items));
+        catalogGzip = gzip(catalogJson, Deflater.BEST_COMPRESSION);
+        System.out.printf("%n[items=%d] catalog %,d -> %,d bytes (precompressed), %,d bytes (per request); orders %,d -> %,d bytes%n",
+                items, catalogJson.length, catalogGzip.length, gzip(catalogJson, Deflater.DEFAULT_COMPRESSION).length,
+                orderJson.length, gzip(orderJson, Deflater.DEFAULT_COMPRESSION).length);
+    }
+
+    @Benchmark
+    public void catalogUncompressed() throws IOException {
+        OutputStream.nullOutputStream().write(catalogJson);
+    }
+
+    @Benchmark
+    public void catalogPrecompressed() throws IOException {
+        OutputStream.nullOutputStream().write(catalogGzip);
+    }
+
+    @Benchmark
+    public void catalogGzipPerRequest() throws IOException {
+        try (GZIPOutputStream out = new GZIPOutputStream(OutputStream.nullOutputStream())) {
+            out.write(catalogJson);
+        }
+    }
+
+    @Benchmark
+    public void orderListGzipPerRequest() throws IOException {
+        try (GZIPOutputStream out = new GZIPOutputStream(OutputStream.nullOutputStream())) {
+            out.write(orderJson);
+        }
+    }
+
+    private static byte[] gzip(byte[] data, int level) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes) {
+            {
+                def.setLevel(level);
+            }
+        }) {
+            out.write(data);
+        }
+        return bytes.toByteArray();
+    }
+}
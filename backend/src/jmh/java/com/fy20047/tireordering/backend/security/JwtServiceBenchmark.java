@@ -0,0 +1,101 @@
+package com.fy20047.tireordering.backend.security;
+
+import com.fy20047.tireordering.backend.config.JwtProperties;
+import com.fy20047.tireordering.backend.entity.Admin;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import jakarta.servlet.FilterChain;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import javax.crypto.SecretKey;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+// 登入簽發 token 的成本（generateToken）
+// 每個後台請求的驗證成本：改版前（每次 new parser + 驗 HMAC）vs 共用 parser vs 已驗證 token 快取
+// 以及 JWT filter 整段：後台路徑（有快取）/ 公開路徑（直接略過）
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtServiceBenchmark {
+
+    private static final String SECRET = "benchmark-secret-benchmark-secret-0123456789";
+    private static final FilterChain NOOP_CHAIN = (request, response) -> { };
+
+    private SecretKey legacyKey;
+    private JwtService uncachedService;
+    private JwtService cachedService;
+    private JwtAuthenticationFilter filter;
+    private String token;
+    private Admin admin;
+
+    @Setup
+    public void setUp() {
+        legacyKey = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+        uncachedService = new JwtService(properties(0));
+        cachedService = new JwtService(properties(10_000));
+        filter = new JwtAuthenticationFilter(cachedService, properties(10_000));
+        admin = Admin.builder().username("admin").build();
+        token = cachedService.generateToken(admin);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return cachedService.generateToken(admin);
+    }
+
+    // 改版前的 parseToken：每次呼叫都重新建 parser
+    @Benchmark
+    public Claims legacyParserPerCall() {
+        return Jwts.parser().verifyWith(legacyKey).build().parseSignedClaims(token).getPayload();
+    }
+
+    @Benchmark
+    public Claims sharedParserWithoutCache() {
+        return uncachedService.parseToken(token);
+    }
+
+    @Benchmark
+    public Claims sharedParserWithCache() {
+        return cachedService.parseToken(token);
+    }
+
+    @Benchmark
+    public Object filterAdminPath() throws Exception {
+        return runFilter("/api/admin/orders");
+    }
+
+    @Benchmark
+    public Object filterPublicPath() throws Exception {
+        return runFilter("/api/tires");
+    }
+
+    private Object runFilter(String path) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), NOOP_CHAIN);
+        Object authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+
+    private static JwtProperties properties(int cacheMaxSize) {
+        return new JwtProperties(SECRET, 3600, cacheMaxSize, List.of("/api/tires/**", "/api/orders/**"));
+    }
+}
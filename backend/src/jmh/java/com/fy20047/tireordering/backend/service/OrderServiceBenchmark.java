@@ -0,0 +1,64 @@
+package com.fy20047.tireordering.backend.service;
+
+import com.fy20047.tireordering.backend.enums.InstallationOption;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+// 收單前的驗證與資料清洗（每筆訂單都會跑），不需要 DB
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OrderServiceBenchmark {
+
+    private OrderService orderService;
+    private OrderService.CreateOrderCommand installCommand;
+    private OrderService.CreateOrderCommand deliveryCommand;
+
+    @Setup
+    public void setUp() {
+        orderService = new OrderService(null, null, null, null, null, null, null); // validate / normalize 不會用到 repository
+        installCommand = new OrderService.CreateOrderCommand(
+                1L, 4, "  王小明 ", "0912-345-678", "ming@example.com",
+                InstallationOption.INSTALL, null, "Toyota RAV4", "  "
+        );
+        deliveryCommand = new OrderService.CreateOrderCommand(
+                1L, 2, "陳大華", "0987654321", null,
+                InstallationOption.DELIVERY, "  台北市信義區松仁路 100 號 ", "Honda CR-V", "下午送達"
+        );
+    }
+
+    @Benchmark
+    public void validateInstall() {
+        orderService.validate(installCommand);
+    }
+
+    @Benchmark
+    public void validateDelivery() {
+        orderService.validate(deliveryCommand);
+    }
+
+    // 一筆訂單要清洗的欄位
+    @Benchmark
+    public void normalizeOrderFields(Blackhole blackhole) {
+        OrderService.CreateOrderCommand command = deliveryCommand;
+        blackhole.consume(orderService.normalize(command.customerName()));
+        blackhole.consume(orderService.normalize(command.phone()));
+        blackhole.consume(orderService.normalize(command.email()));
+        blackhole.consume(orderService.normalize(command.deliveryAddress()));
+        blackhole.consume(orderService.normalize(command.carModel()));
+        blackhole.consume(orderService.normalize(command.notes()));
+    }
+}
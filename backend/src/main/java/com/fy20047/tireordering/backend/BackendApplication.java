@@ -1,12 +1,17 @@
 package com.fy20047.tireordering.backend;
 
 import com.fy20047.tireordering.backend.config.JwtProperties;
+import com.fy20047.tireordering.backend.config.OrderIntakeProperties;
+import com.fy20047.tireordering.backend.config.OutboxProperties;
+import com.fy20047.tireordering.backend.config.ReadReplicaProperties;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
-@EnableConfigurationProperties(JwtProperties.class)
+@EnableScheduling
+@EnableConfigurationProperties({JwtProperties.class, OrderIntakeProperties.class, OutboxProperties.class, ReadReplicaProperties.class})
 public class BackendApplication {
 
 	public static void main(String[] args) {
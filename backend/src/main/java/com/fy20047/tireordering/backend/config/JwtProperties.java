@@ -1,11 +1,20 @@
 package com.fy20047.tireordering.backend.config;
 
+import java.util.List;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
 
 // 讀取 JWT 設定（secret、過期時間）
 // 把 secret / expirationSeconds 集中管理
 // secret 必須至少 32 字元
 // 用環境變數注入
+// cacheMaxSize：已驗證 token 的快取上限（0 表示不快取）
+// publicPaths：公開 API，JWT filter 直接略過不解析 token
 @ConfigurationProperties(prefix = "security.jwt")
-public record JwtProperties(String secret, long expirationSeconds) {
+public record JwtProperties(
+        String secret,
+        long expirationSeconds,
+        @DefaultValue("10000") int cacheMaxSize,
+        @DefaultValue({"/api/tires/**", "/api/orders/**", "/api/admin/login", "/health/**"}) List<String> publicPaths
+) {
 }
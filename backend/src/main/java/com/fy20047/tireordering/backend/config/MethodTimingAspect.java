@@ -0,0 +1,57 @@
+package com.fy20047.tireordering.backend.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+// 計時（Prometheus 的 p50 / p95 / p99 由 application.yaml 的 histogram 設定產生）
+// service.transactional：有 @Transactional 的 service 方法，包含拿連線與 commit 的時間（排在交易攔截器外層）
+// repository.invocations：自己寫的 @Repository 類別（例如 JDBC 批次寫入）
+// Spring Data 的 repository 介面由 Spring Boot 自動計時（spring.data.repository.invocations）
+// Controller 由 Spring MVC 自動計時（http.server.requests）
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class MethodTimingAspect {
+
+    private final MeterRegistry meterRegistry;
+
+    public MethodTimingAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("execution(public * com.fy20047.tireordering.backend.service..*(..))"
+            + " && (@within(org.springframework.transaction.annotation.Transactional)"
+            + " || @annotation(org.springframework.transaction.annotation.Transactional))")
+    public Object timeTransactional(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time("service.transactional", joinPoint);
+    }
+
+    @Around("execution(public * com.fy20047.tireordering.backend.repository..*(..))"
+            + " && @within(org.springframework.stereotype.Repository)")
+    public Object timeRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time("repository.invocations", joinPoint);
+    }
+
+    private Object time(String name, ProceedingJoinPoint joinPoint) throws Throwable {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String exception = "none";
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            sample.stop(Timer.builder(name)
+                    .tag("class", joinPoint.getSignature().getDeclaringType().getSimpleName())
+                    .tag("method", joinPoint.getSignature().getName())
+                    .tag("exception", exception)
+                    .register(meterRegistry));
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.fy20047.tireordering.backend.config;
+
+import com.fy20047.tireordering.backend.enums.OrderIntakeMode;
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+// 下單寫入模式設定（orders.intake.*）
+// mode：direct（預設）/ journal
+// journalDir：journal 與 checkpoint 檔案的目錄，需是本機磁碟且重啟後還在
+// segmentBytes：單一 journal 檔的大小上限，超過就換新檔，寫完 DB 的舊檔會刪掉
+// queueCapacity：等待寫入 journal 的上限，滿了回 429
+// groupCommitMaxEntries：一次 fsync 最多包含幾筆
+// drainBatchSize / drainInterval：背景寫入 DB 的批次大小與間隔
+// maxEntryAttempts：單獨重試一筆仍寫不進 DB 幾次後放棄，移到 dead-letter 檔，journal 繼續往下寫
+@ConfigurationProperties(prefix = "orders.intake")
+public record OrderIntakeProperties(
+        @DefaultValue("direct") OrderIntakeMode mode,
+        @DefaultValue("data/order-journal") String journalDir,
+        @DefaultValue("67108864") long segmentBytes,
+        @DefaultValue("10000") int queueCapacity,
+        @DefaultValue("512") int groupCommitMaxEntries,
+        @DefaultValue("200") int drainBatchSize,
+        @DefaultValue("200ms") Duration drainInterval,
+        @DefaultValue("5") int maxEntryAttempts
+) {
+}
@@ -0,0 +1,26 @@
+package com.fy20047.tireordering.backend.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+// 訂單事件 outbox 設定（orders.outbox.*）
+// batchSize：一次領取幾筆（一個 SELECT ... FOR UPDATE SKIP LOCKED + 一個 UPDATE）
+// concurrency：同時執行 handler 的執行緒數
+// pollInterval：沒有事件時多久再查一次
+// lease：領取後多久沒回報結果就視為當機，讓其他機器重新領取；要比最慢的 handler 長
+// maxAttempts：超過就標成 FAILED 不再重試
+// initialBackoff / maxBackoff：失敗後等待時間，每次加倍，最多 maxBackoff
+// retention：已處理的事件保存多久
+@ConfigurationProperties(prefix = "orders.outbox")
+public record OutboxProperties(
+        @DefaultValue("100") int batchSize,
+        @DefaultValue("8") int concurrency,
+        @DefaultValue("500ms") Duration pollInterval,
+        @DefaultValue("5m") Duration lease,
+        @DefaultValue("10") int maxAttempts,
+        @DefaultValue("5s") Duration initialBackoff,
+        @DefaultValue("1h") Duration maxBackoff,
+        @DefaultValue("7d") Duration retention
+) {
+}
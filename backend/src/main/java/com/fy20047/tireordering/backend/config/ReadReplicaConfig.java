@@ -0,0 +1,72 @@
+package com.fy20047.tireordering.backend.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+// 讀寫分離（datasource.read-replicas.enabled=true 才生效，否則沿用 Spring Boot 預設的單一連線池）
+// 對外的 DataSource 是 LazyConnectionDataSourceProxy：交易開始時先不拿實體連線，
+// 等第一個 SQL 時才看交易是不是 readOnly，readOnly 走 ReplicaRoutingDataSource，其餘走主庫
+@Configuration
+@ConditionalOnProperty(prefix = "datasource.read-replicas", name = "enabled", havingValue = "true")
+public class ReadReplicaConfig {
+
+    private static final long REPLICA_CONNECTION_TIMEOUT_MILLIS = 2000;
+
+    // 主庫連線池：沿用 spring.datasource.*（含 hikari.*）
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        HikariDataSource dataSource = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(
+            HikariDataSource primaryDataSource,
+            DataSourceProperties dataSourceProperties,
+            ReadReplicaProperties properties,
+            ObjectProvider<MeterRegistry> meterRegistry
+    ) {
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (int i = 0; i < properties.replicas().size(); i++) {
+            ReadReplicaProperties.Replica replica = properties.replicas().get(i);
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setPoolName("replica-" + i);
+            dataSource.setJdbcUrl(replica.url());
+            dataSource.setUsername(replica.username() == null ? dataSourceProperties.determineUsername() : replica.username());
+            dataSource.setPassword(replica.password() == null ? dataSourceProperties.determinePassword() : replica.password());
+            dataSource.setDriverClassName(dataSourceProperties.determineDriverClassName());
+            dataSource.setMaximumPoolSize(properties.poolSize());
+            dataSource.setReadOnly(true);
+            dataSource.setConnectionTimeout(REPLICA_CONNECTION_TIMEOUT_MILLIS); // 拿不到就改走主庫，不要讓讀取卡住
+            dataSource.setInitializationFailTimeout(-1); // 啟動時 replica 連不上不影響啟動，等健康檢查放行
+            meterRegistry.ifAvailable(registry -> dataSource.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry)));
+            replicas.add(dataSource);
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas, properties);
+    }
+
+    // JPA / JdbcTemplate 用的 DataSource
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, ReplicaRoutingDataSource replicaRoutingDataSource) {
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(primaryDataSource);
+        proxy.setReadOnlyDataSource(replicaRoutingDataSource);
+        return proxy;
+    }
+}
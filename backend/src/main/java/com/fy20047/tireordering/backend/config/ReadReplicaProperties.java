@@ -0,0 +1,28 @@
+package com.fy20047.tireordering.backend.config;
+
+import java.time.Duration;
+import java.util.List;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+// 讀寫分離設定（datasource.read-replicas.*）
+// enabled：開啟後 readOnly 交易改走 replica，其餘（下單、後台修改）照舊走 spring.datasource 主庫
+// replicas：replica 連線；username / password 沒填就沿用主庫的
+// maxLag：落後主庫超過這個時間的 replica 暫停使用，全部不能用時讀取退回主庫
+// lagQuery / lagColumn：查複寫延遲（秒）的 SQL 與欄位；查不到資料或值為 NULL（複寫停了）視為不能用
+//   lagQuery 留空表示只檢查連線（例如本機用兩個內嵌 DB 測試）
+// checkInterval：背景檢查間隔；poolSize：每個 replica 的連線池大小
+@ConfigurationProperties(prefix = "datasource.read-replicas")
+public record ReadReplicaProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue List<Replica> replicas,
+        @DefaultValue("5s") Duration maxLag,
+        @DefaultValue("SHOW REPLICA STATUS") String lagQuery,
+        @DefaultValue("Seconds_Behind_Master") String lagColumn,
+        @DefaultValue("2s") Duration checkInterval,
+        @DefaultValue("10") int poolSize
+) {
+
+    public record Replica(String url, String username, String password) {
+    }
+}
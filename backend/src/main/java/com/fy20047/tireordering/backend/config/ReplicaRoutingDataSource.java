@@ -0,0 +1,131 @@
+package com.fy20047.tireordering.backend.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+
+// readOnly 交易拿連線的地方：在健康的 replica 之間輪流（round-robin），都不能用時退回主庫
+// 健康狀態由背景檢查更新（連得上、複寫延遲不超過 maxLag）；拿連線失敗也會立刻標成不能用，等下次檢查恢復
+public class ReplicaRoutingDataSource extends AbstractDataSource implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+    private static final int CHECK_TIMEOUT_SECONDS = 2;
+
+    private final DataSource primary;
+    private final List<Node> nodes;
+    private final long maxLagSeconds;
+    private final String lagQuery;
+    private final String lagColumn;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(DataSource primary, List<HikariDataSource> replicas, ReadReplicaProperties properties) {
+        this.primary = primary;
+        this.nodes = replicas.stream().map(Node::new).toList();
+        this.maxLagSeconds = properties.maxLag().toSeconds();
+        this.lagQuery = properties.lagQuery();
+        this.lagColumn = properties.lagColumn();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        int start = Math.floorMod(next.getAndIncrement(), Math.max(nodes.size(), 1));
+        for (int i = 0; i < nodes.size(); i++) {
+            Node node = nodes.get((start + i) % nodes.size());
+            if (!node.healthy) {
+                continue;
+            }
+            try {
+                return node.dataSource.getConnection();
+            } catch (SQLException e) {
+                node.markDown(e.getMessage());
+            }
+        }
+        return primary.getConnection();
+    }
+
+    // 指定帳密的連線交給主庫（replica 連線池固定用設定的帳密）；主庫支不支援由主庫自己決定
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return primary.getConnection(username, password);
+    }
+
+    // 背景檢查每個 replica：連得上、延遲在 maxLag 內才放行
+    @Scheduled(fixedDelayString = "${datasource.read-replicas.check-interval:2s}")
+    public void checkReplicas() {
+        for (Node node : nodes) {
+            try (Connection connection = node.dataSource.getConnection()) {
+                String problem = lagProblem(connection);
+                if (problem == null) {
+                    node.markUp();
+                } else {
+                    node.markDown(problem);
+                }
+            } catch (SQLException e) {
+                node.markDown(e.getMessage());
+            }
+        }
+    }
+
+    // 目前可以用的 replica 數量
+    public int healthyReplicas() {
+        return (int) nodes.stream().filter(node -> node.healthy).count();
+    }
+
+    private String lagProblem(Connection connection) throws SQLException {
+        if (lagQuery == null || lagQuery.isBlank()) {
+            return connection.isValid(CHECK_TIMEOUT_SECONDS) ? null : "Connection is not valid";
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.setQueryTimeout(CHECK_TIMEOUT_SECONDS);
+            try (ResultSet rs = statement.executeQuery(lagQuery)) {
+                if (!rs.next()) {
+                    return "Replication is not configured";
+                }
+                long lag = rs.getLong(lagColumn);
+                if (rs.wasNull()) {
+                    return "Replication is not running";
+                }
+                return lag > maxLagSeconds ? "Lagging " + lag + "s behind primary" : null;
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        nodes.forEach(node -> node.dataSource.close());
+    }
+
+    private static final class Node {
+
+        private final HikariDataSource dataSource;
+        private volatile boolean healthy; // 第一次檢查通過前先不用
+
+        private Node(HikariDataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+
+        private void markUp() {
+            if (!healthy) {
+                log.info("Read replica {} is back in rotation", dataSource.getPoolName());
+            }
+            healthy = true;
+        }
+
+        private void markDown(String reason) {
+            if (healthy) {
+                log.warn("Read replica {} taken out of rotation: {}", dataSource.getPoolName(), reason);
+            }
+            healthy = false;
+        }
+    }
+}
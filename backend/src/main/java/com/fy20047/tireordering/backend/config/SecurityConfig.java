@@ -15,6 +15,7 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 // 設定 /api/admin/** 需要 ROLE_ADMIN
 // /api/admin/login 允許匿名
 // /api/tires、/api/orders 允許公開
+// /health、/health/live、/health/ready 允許公開（負載平衡 / Kubernetes 探針）
 // JWT filter 必須放在 UsernamePasswordAuthenticationFilter 之前
 @Configuration
 public class SecurityConfig {
@@ -31,7 +32,8 @@ public class SecurityConfig {
                                 "/api/admin/login",
                                 "/api/tires/**",
                                 "/api/orders/**",
-                                "/api/health"
+                                "/health",
+                                "/health/**"
                         ).permitAll()
                         .requestMatchers("/api/admin/**").hasRole("ADMIN")
                         .anyRequest().permitAll()
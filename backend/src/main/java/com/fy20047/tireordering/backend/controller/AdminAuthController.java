@@ -4,7 +4,9 @@ import com.fy20047.tireordering.backend.config.JwtProperties;
 import com.fy20047.tireordering.backend.dto.AdminLoginRequest;
 import com.fy20047.tireordering.backend.dto.AdminLoginResponse;
 import com.fy20047.tireordering.backend.service.AdminService;
+import com.fy20047.tireordering.backend.service.LoginExecutor;
 import jakarta.validation.Valid;
+import java.util.concurrent.CompletableFuture;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
@@ -17,17 +19,21 @@ import org.springframework.web.bind.annotation.RestController;
 public class AdminAuthController {
 
     private final AdminService adminService;
+    private final LoginExecutor loginExecutor;
     private final JwtProperties jwtProperties;
 
-    public AdminAuthController(AdminService adminService, JwtProperties jwtProperties) {
+    public AdminAuthController(AdminService adminService, LoginExecutor loginExecutor, JwtProperties jwtProperties) {
         this.adminService = adminService;
+        this.loginExecutor = loginExecutor;
         this.jwtProperties = jwtProperties;
     }
 
+    // 密碼比對丟到登入專用的執行緒池，Tomcat 執行緒先放回去處理其他請求（非同步回應）
+    // 登入池滿了會直接回 429
     @PostMapping("/login")
-    public ResponseEntity<AdminLoginResponse> login(@Valid @RequestBody AdminLoginRequest request) {
-        String token = adminService.login(request.username(), request.password());
-        AdminLoginResponse response = new AdminLoginResponse(token, jwtProperties.expirationSeconds());
-        return ResponseEntity.ok(response);
+    public CompletableFuture<ResponseEntity<AdminLoginResponse>> login(@Valid @RequestBody AdminLoginRequest request) {
+        return loginExecutor.submit(() -> adminService.login(request.username(), request.password()))
+                .thenApply(token -> ResponseEntity.ok(
+                        new AdminLoginResponse(token, jwtProperties.expirationSeconds())));
     }
 }
@@ -0,0 +1,24 @@
+package com.fy20047.tireordering.backend.controller;
+
+import com.fy20047.tireordering.backend.dto.ThreadDiagnosticsResponse;
+import com.fy20047.tireordering.backend.service.VirtualThreadDiagnostics;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+// 後台診斷 API（執行緒狀態）
+@RestController
+@RequestMapping("/api/admin/diagnostics")
+public class AdminDiagnosticsController {
+
+    private final VirtualThreadDiagnostics virtualThreadDiagnostics;
+
+    public AdminDiagnosticsController(VirtualThreadDiagnostics virtualThreadDiagnostics) {
+        this.virtualThreadDiagnostics = virtualThreadDiagnostics;
+    }
+
+    @GetMapping("/threads")
+    public ThreadDiagnosticsResponse threads() {
+        return virtualThreadDiagnostics.snapshot();
+    }
+}
@@ -1,40 +1,120 @@
 package com.fy20047.tireordering.backend.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fy20047.tireordering.backend.dto.AdminOrderListResponse;
 import com.fy20047.tireordering.backend.dto.AdminOrderResponse;
+import com.fy20047.tireordering.backend.dto.AdminOrderSummaryListResponse;
+import com.fy20047.tireordering.backend.dto.AdminOrderSummaryResponse;
+import com.fy20047.tireordering.backend.dto.BulkUpdateOrderStatusRequest;
+import com.fy20047.tireordering.backend.dto.BulkUpdateOrderStatusResponse;
 import com.fy20047.tireordering.backend.dto.UpdateOrderStatusRequest;
 import com.fy20047.tireordering.backend.entity.Order;
+import com.fy20047.tireordering.backend.enums.ExportFormat;
 import com.fy20047.tireordering.backend.enums.OrderStatus;
+import com.fy20047.tireordering.backend.service.OrderCursor;
+import com.fy20047.tireordering.backend.service.OrderEventFeed;
 import com.fy20047.tireordering.backend.service.OrderService;
 import jakarta.validation.Valid;
-import java.util.List;
-import java.util.stream.Collectors;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Locale;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-// 後台訂單管理 API（列表 + 狀態更新），把請求轉成 Service 的操作，回傳 DTO
+// 後台訂單管理 API（列表 + 明細 + 匯出 + 狀態更新（單筆 / 批次） + 即時串流），把請求轉成 Service 的操作，回傳 DTO
 @RestController
 @RequestMapping("/api/admin/orders")
 public class AdminOrderController {
 
     private final OrderService orderService;
+    private final ObjectMapper objectMapper;
+    private final OrderEventFeed orderEventFeed;
 
-    public AdminOrderController(OrderService orderService) {
+    public AdminOrderController(OrderService orderService, ObjectMapper objectMapper, OrderEventFeed orderEventFeed) {
         this.orderService = orderService;
+        this.objectMapper = objectMapper;
+        this.orderEventFeed = orderEventFeed;
     }
 
+    // 分頁列表：limit 預設 50、上限 200；cursor 為上一頁回傳的 next
     @GetMapping
-    public AdminOrderListResponse list(@RequestParam(required = false) OrderStatus status) {
-        List<Order> orders = orderService.listOrders(status);
-        List<AdminOrderResponse> items = orders.stream()
-                .map(this::toResponse)
-                .collect(Collectors.toList());
-        return new AdminOrderListResponse(items);
+    public AdminOrderListResponse list(
+            @RequestParam(required = false) OrderStatus status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit
+    ) {
+        OrderService.OrderPage<AdminOrderResponse> page = orderService.listOrders(status, toCursor(cursor), limit);
+        return new AdminOrderListResponse(page.items(), encode(page.next()));
+    }
+
+    // 精簡列表：不含地址、備註，參數與分頁方式同 list
+    @GetMapping("/summaries")
+    public AdminOrderSummaryListResponse listSummaries(
+            @RequestParam(required = false) OrderStatus status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit
+    ) {
+        OrderService.OrderPage<AdminOrderSummaryResponse> page =
+                orderService.listOrderSummaries(status, toCursor(cursor), limit);
+        return new AdminOrderSummaryListResponse(page.items(), encode(page.next()));
+    }
+
+    // 匯出訂單（給會計對帳）：format=ndjson | csv，可依狀態與建立日期（含頭含尾）篩選
+    // 邊查邊寫到 response，不會把全部訂單載進記憶體
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) OrderStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        ExportFormat exportFormat = parseFormat(format);
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new IllegalArgumentException("from must not be after to"); // 開始串流前先擋，才能回 400
+        }
+        StreamingResponseBody body = out -> {
+            try (OrderExportWriter writer = new OrderExportWriter(exportFormat, out, objectMapper)) {
+                orderService.exportOrders(status, from, to, writer::write);
+            }
+        };
+
+        String extension = exportFormat == ExportFormat.CSV ? "csv" : "ndjson";
+        MediaType contentType = exportFormat == ExportFormat.CSV
+                ? new MediaType("text", "csv", StandardCharsets.UTF_8)
+                : MediaType.APPLICATION_NDJSON;
+        return ResponseEntity.ok()
+                .contentType(contentType)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("orders." + extension)
+                        .build()
+                        .toString())
+                .body(body);
+    }
+
+    // 即時串流（SSE）：order-created / order-status-changed，data 與列表的單筆格式相同
+    // 重連時帶 Last-Event-ID 會補送漏掉的事件；收到 reset 表示接不上，需重新載入列表
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@RequestHeader(name = "Last-Event-ID", required = false) String lastEventId) {
+        return orderEventFeed.subscribe(lastEventId);
+    }
+
+    // 單筆訂單明細
+    @GetMapping("/{id}")
+    public AdminOrderResponse get(@PathVariable Long id) {
+        return orderService.getOrderDetail(id);
     }
 
     // 更新訂單狀態
@@ -47,7 +127,37 @@ public class AdminOrderController {
         return toResponse(updated);
     }
 
-    private AdminOrderResponse toResponse(Order order) {
+    // 批次更新訂單狀態：ids 與 filter 擇一，每筆訂單各回傳一個結果
+    @PatchMapping("/status")
+    public BulkUpdateOrderStatusResponse updateStatuses(@Valid @RequestBody BulkUpdateOrderStatusRequest request) {
+        boolean hasIds = request.ids() != null && !request.ids().isEmpty();
+        if (hasIds == (request.filter() != null)) {
+            throw new IllegalArgumentException("Exactly one of ids or filter is required");
+        }
+        if (hasIds) {
+            return orderService.updateOrderStatuses(request.status(), request.ids());
+        }
+        BulkUpdateOrderStatusRequest.Filter filter = request.filter();
+        return orderService.updateOrderStatuses(request.status(), filter.status(), filter.from(), filter.to());
+    }
+
+    private ExportFormat parseFormat(String format) {
+        try {
+            return ExportFormat.valueOf(format.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unsupported export format: " + format);
+        }
+    }
+
+    private OrderCursor toCursor(String cursor) {
+        return cursor == null || cursor.isBlank() ? null : OrderCursor.decode(cursor);
+    }
+
+    private String encode(OrderCursor cursor) {
+        return cursor == null ? null : cursor.encode();
+    }
+
+    AdminOrderResponse toResponse(Order order) {
         return new AdminOrderResponse(
                 order.getId(),
                 order.getStatus(),
@@ -0,0 +1,40 @@
+package com.fy20047.tireordering.backend.controller;
+
+import com.fy20047.tireordering.backend.dto.AdminStatsResponse;
+import com.fy20047.tireordering.backend.dto.OrderRollupRebuildResponse;
+import com.fy20047.tireordering.backend.service.OrderRollupService;
+import java.time.LocalDate;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+// 後台統計 API：只讀訂單彙總（order_rollups），不掃訂單表
+@RestController
+@RequestMapping("/api/admin/stats")
+public class AdminStatsController {
+
+    private final OrderRollupService rollupService;
+
+    public AdminStatsController(OrderRollupService rollupService) {
+        this.rollupService = rollupService;
+    }
+
+    // 依建立日期區間（含頭含尾，預設最近 30 天）；limit 為熱銷輪胎的筆數，預設 20、上限 200
+    @GetMapping
+    public AdminStatsResponse stats(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Integer limit
+    ) {
+        return rollupService.stats(from, to, limit);
+    }
+
+    // 依訂單表重建彙總（上線後回填一次）
+    @PostMapping("/rebuild")
+    public OrderRollupRebuildResponse rebuild() {
+        return rollupService.rebuild();
+    }
+}
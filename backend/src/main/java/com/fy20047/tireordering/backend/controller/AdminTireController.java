@@ -3,13 +3,19 @@ package com.fy20047.tireordering.backend.controller;
 import com.fy20047.tireordering.backend.dto.AdminTireListResponse;
 import com.fy20047.tireordering.backend.dto.AdminTireRequest;
 import com.fy20047.tireordering.backend.dto.AdminTireResponse;
+import com.fy20047.tireordering.backend.dto.TireImportResponse;
 import com.fy20047.tireordering.backend.dto.UpdateTireStatusRequest;
+import com.fy20047.tireordering.backend.dto.UpdateTireStockRequest;
 import com.fy20047.tireordering.backend.entity.Tire;
+import com.fy20047.tireordering.backend.service.TireImportService;
 import com.fy20047.tireordering.backend.service.TireService;
 import jakarta.validation.Valid;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.stream.Collectors;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -21,15 +27,17 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
-// 後台輪胎 CRUD API（搜尋/新增/編輯/上下架）
+// 後台輪胎 CRUD API（搜尋/新增/編輯/上下架/CSV 匯入）
 @RestController
 @RequestMapping("/api/admin/tires")
 public class AdminTireController {
 
     private final TireService tireService;
+    private final TireImportService tireImportService;
 
-    public AdminTireController(TireService tireService) {
+    public AdminTireController(TireService tireService, TireImportService tireImportService) {
         this.tireService = tireService;
+        this.tireImportService = tireImportService;
     }
 
     @GetMapping
@@ -37,9 +45,11 @@ public class AdminTireController {
             @RequestParam(required = false) String brand,
             @RequestParam(required = false) String series,
             @RequestParam(required = false) String size,
-            @RequestParam(required = false) Boolean active
+            @RequestParam(required = false) Boolean active,
+            @RequestParam(defaultValue = "0") int offset,
+            @RequestParam(required = false) Integer limit
     ) {
-        List<Tire> tires = tireService.searchTires(brand, series, size, active);
+        List<Tire> tires = tireService.searchTires(brand, series, size, active, offset, limit);
         List<AdminTireResponse> items = tires.stream().map(this::toResponse).collect(Collectors.toList());
         return new AdminTireListResponse(items);
     }
@@ -65,6 +75,22 @@ public class AdminTireController {
         return toResponse(updated);
     }
 
+    // 盤點：直接設定庫存數量
+    @PatchMapping("/{id}/stock")
+    public AdminTireResponse updateStock(
+            @PathVariable Long id,
+            @Valid @RequestBody UpdateTireStockRequest request
+    ) {
+        Tire updated = tireService.updateStock(id, request.stock());
+        return toResponse(updated);
+    }
+
+    // 匯入供應商價目表：request body 直接是 CSV（UTF-8），邊讀邊寫，不經過 multipart 暫存
+    @PostMapping(value = "/import", consumes = {"text/csv", MediaType.TEXT_PLAIN_VALUE})
+    public TireImportResponse importTires(InputStream body) throws IOException {
+        return tireImportService.importCsv(body);
+    }
+
     private Tire toEntity(AdminTireRequest request) {
         return Tire.builder()
                 .brand(request.brand().trim())
@@ -73,10 +99,11 @@ public class AdminTireController {
                 .size(request.size().trim())
                 .price(request.price())
                 .isActive(request.isActive())
+                .stock(request.stock() == null ? 0 : request.stock())
                 .build();
     }
 
-    private AdminTireResponse toResponse(Tire tire) {
+    AdminTireResponse toResponse(Tire tire) {
         return new AdminTireResponse(
                 tire.getId(),
                 tire.getBrand(),
@@ -85,6 +112,7 @@ public class AdminTireController {
                 tire.getSize(),
                 tire.getPrice(),
                 tire.isActive(),
+                tire.getStock(),
                 tire.getCreatedAt(),
                 tire.getUpdatedAt()
         );
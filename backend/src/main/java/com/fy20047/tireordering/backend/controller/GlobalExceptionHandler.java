@@ -1,14 +1,20 @@
 package com.fy20047.tireordering.backend.controller;
 
 import com.fy20047.tireordering.backend.dto.ErrorResponse;
+import com.fy20047.tireordering.backend.service.IdempotencyKeyReusedException;
+import com.fy20047.tireordering.backend.service.OrderIntakeUnavailableException;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.context.request.async.AsyncRequestTimeoutException;
 import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
 @RestControllerAdvice
@@ -50,6 +56,44 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.CONFLICT).body(response); // 回傳 409 Conflict (衝突)
     }
 
+    // 同一個 Idempotency-Key 送了不同內容
+    @ExceptionHandler(IdempotencyKeyReusedException.class)
+    public ResponseEntity<ErrorResponse> handleIdempotencyKeyReused(IdempotencyKeyReusedException ex) {
+        ErrorResponse response = new ErrorResponse(ex.getMessage(), null);
+        return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(response); // 回傳 422 Unprocessable Entity
+    }
+
+    // 忙碌中，拒絕執行（例如登入驗證的執行緒池已滿）
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<ErrorResponse> handleRejected(RejectedExecutionException ex) {
+        ErrorResponse response = new ErrorResponse("Too many requests, please retry later", null);
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(response); // 回傳 429 Too Many Requests，請前端稍後重試
+    }
+
+    // journal 收單暫時無法完成（寫入失敗 / 等 fsync 逾時）：伺服器端的問題，回 503 請稍後重試
+    // outcome=unknown 表示這筆可能已經成立，請用 reference 查詢結果（或帶同一個 Idempotency-Key 重送），避免重複下單
+    @ExceptionHandler(OrderIntakeUnavailableException.class)
+    public ResponseEntity<ErrorResponse> handleIntakeUnavailable(OrderIntakeUnavailableException ex) {
+        Map<String, String> details = new LinkedHashMap<>();
+        details.put("outcome", ex.isOutcomeUnknown() ? "unknown" : "not_accepted");
+        if (ex.isOutcomeUnknown()) {
+            details.put("reference", ex.getReference());
+            details.put("statusUrl", "/api/orders/intake/" + ex.getReference());
+        }
+        ErrorResponse response = new ErrorResponse(ex.getMessage(), details);
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(response);
+    }
+
+    // 長連線（後台即時串流）逾時：串流已經開始送，不能再寫 JSON 錯誤內容；結束連線即可，瀏覽器會自動重連
+    @ExceptionHandler(AsyncRequestTimeoutException.class)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public void handleAsyncTimeout() {
+    }
+
     // 其他例外狀況，可能是程式有 Bug（NullPointerException）、資料庫連不上、或是其他沒想到的錯誤
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErrorResponse> handleUnexpected(Exception ex) {
@@ -1,41 +1,78 @@
 package com.fy20047.tireordering.backend.controller;
 
+import com.fy20047.tireordering.backend.service.HealthChecker;
+import com.fy20047.tireordering.backend.service.TireCatalogCache;
+import com.fy20047.tireordering.backend.service.TireSearchIndex;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
 
-import javax.sql.DataSource;
-import java.sql.Connection;
 import java.time.Instant;
 import java.util.LinkedHashMap;
 import java.util.Map;
 
+// 健康檢查：只讀 HealthChecker 背景檢查的結果，不會向連線池要連線
+// /health/live：程序還活著（Kubernetes liveness，失敗會重啟）
+// /health/ready：DB 正常且快取已預熱，可以接流量（readiness / 負載平衡）
+// /health：整體狀態（DB 狀態，與舊版相容）
 @RestController
 public class HealthController {
 
-    private final DataSource dataSource;
+    private final HealthChecker healthChecker;
+    private final TireCatalogCache catalogCache;
+    private final TireSearchIndex searchIndex;
 
-    // 1) 建構子注入：Spring 會把已建立好的 DataSource 傳進來
-    public HealthController(DataSource dataSource) {
-        this.dataSource = dataSource;
+    // 1) 建構子注入
+    public HealthController(HealthChecker healthChecker, TireCatalogCache catalogCache, TireSearchIndex searchIndex) {
+        this.healthChecker = healthChecker;
+        this.catalogCache = catalogCache;
+        this.searchIndex = searchIndex;
     }
 
     @GetMapping("/health")
     public ResponseEntity<Map<String, Object>> health() {
+        HealthChecker.DbStatus db = healthChecker.current();
         Map<String, Object> body = new LinkedHashMap<>();
         body.put("timestamp", Instant.now().toString());
+        body.put("status", db.up() ? "UP" : "DOWN");
+        putDb(body, db);
+        return respond(db.up(), body);
+    }
+
+    @GetMapping("/health/live")
+    public ResponseEntity<Map<String, Object>> live() {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("status", "UP");
+        return ResponseEntity.ok(body);
+    }
+
+    @GetMapping("/health/ready")
+    public ResponseEntity<Map<String, Object>> ready() {
+        HealthChecker.DbStatus db = healthChecker.current();
+        boolean catalogWarm = catalogCache.isWarm();
+        boolean searchIndexReady = searchIndex.isReady();
+        boolean ready = db.up() && catalogWarm && searchIndexReady;
 
-        // 2) 嘗試取得 DB 連線：成功代表 driver/url/帳密/DB 都 OK
-        try (Connection conn = dataSource.getConnection()) {
-            body.put("status", "UP");
-            body.put("db", "UP");
-            return ResponseEntity.ok(body);
-        } catch (Exception e) {
-            body.put("status", "DOWN");
-            body.put("db", "DOWN");
-            body.put("message", e.getMessage()); // 開發期方便除錯
-            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(body);
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("status", ready ? "UP" : "DOWN");
+        putDb(body, db);
+        body.put("catalogCache", catalogWarm ? "UP" : "DOWN");
+        body.put("searchIndex", searchIndexReady ? "UP" : "DOWN");
+        return respond(ready, body);
+    }
+
+    // 2) DB 檢查結果：checkedAt 是背景檢查的時間，latencyMs 是那次檢查花的時間
+    private void putDb(Map<String, Object> body, HealthChecker.DbStatus db) {
+        body.put("db", db.up() ? "UP" : "DOWN");
+        body.put("dbCheckedAt", db.checkedAt() == null ? null : db.checkedAt().toString());
+        body.put("dbLatencyMs", db.latencyMillis());
+        if (db.message() != null) {
+            body.put("message", db.message()); // 開發期方便除錯
         }
     }
+
+    private ResponseEntity<Map<String, Object>> respond(boolean up, Map<String, Object> body) {
+        return up ? ResponseEntity.ok(body) : ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(body);
+    }
 }
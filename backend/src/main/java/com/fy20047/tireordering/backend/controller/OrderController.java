@@ -1,18 +1,39 @@
 package com.fy20047.tireordering.backend.controller;
 
+import com.fy20047.tireordering.backend.dto.CreateOrderBatchItemResponse;
+import com.fy20047.tireordering.backend.dto.CreateOrderBatchRequest;
+import com.fy20047.tireordering.backend.dto.CreateOrderBatchResponse;
 import com.fy20047.tireordering.backend.dto.CreateOrderRequest;
 import com.fy20047.tireordering.backend.dto.CreateOrderResponse;
+import com.fy20047.tireordering.backend.dto.OrderIntakeResponse;
+import com.fy20047.tireordering.backend.entity.IdempotencyRecord;
 import com.fy20047.tireordering.backend.entity.Order;
+import com.fy20047.tireordering.backend.enums.OrderStatus;
+import com.fy20047.tireordering.backend.service.IdempotencyService;
+import com.fy20047.tireordering.backend.service.JournaledOrder;
+import com.fy20047.tireordering.backend.service.OrderIntakeService;
 import com.fy20047.tireordering.backend.service.OrderService;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
 
 @RestController
 @RequestMapping("/api/orders")
@@ -20,20 +41,121 @@ import jakarta.validation.Valid;
 // 處理資料接收與驗證、輸入 DTO -> Service -> 資料庫、指定 201 Created
 public class OrderController {
 
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
     private final OrderService orderService;
+    private final OrderIntakeService orderIntake; // journal 模式才有，direct 模式為 null
+    private final IdempotencyService idempotencyService;
+    private final Validator validator;
 
-    public OrderController(OrderService orderService) {
+    public OrderController(
+            OrderService orderService,
+            ObjectProvider<OrderIntakeService> orderIntake,
+            IdempotencyService idempotencyService,
+            Validator validator
+    ) {
         this.orderService = orderService;
+        this.orderIntake = orderIntake.getIfAvailable();
+        this.idempotencyService = idempotencyService;
+        this.validator = validator;
     }
 
     // 寫入/提交 請求
     // Spring 解析 JSON → 封裝成 CreateOrderRequest
     // @Valid 先跑 DTO 驗證（例如 customerName 是否空白）
     // 驗證成功 → 進 Service
+    // journal 模式：寫進 journal 就回 202 + 暫時編號，訂單由背景寫入 DB
+    // 帶 Idempotency-Key：同一個 key 重送會拿到第一次的結果，不會再成立一筆訂單
     @PostMapping
-    public ResponseEntity<CreateOrderResponse> createOrder(@Valid @RequestBody CreateOrderRequest request) {
+    public ResponseEntity<?> createOrder(
+            @RequestHeader(name = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+            @Valid @RequestBody CreateOrderRequest request
+    ) {
         // 把 DTO (前端資料) 轉成 Command (Service 專用指令)
-        OrderService.CreateOrderCommand command = new OrderService.CreateOrderCommand(
+        OrderService.CreateOrderCommand command = toCommand(request);
+        if (orderIntake != null) {
+            JournaledOrder accepted = idempotencyKey == null
+                    ? orderIntake.accept(command)
+                    : idempotencyService.acceptOrder(idempotencyKey, command, orderIntake);
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/orders/intake/" + accepted.reference()))
+                    .body(new OrderIntakeResponse(
+                            accepted.reference(),
+                            OrderStatus.PENDING,
+                            "訂單已受理，客服將與您聯繫確認。"
+                    ));
+        }
+
+        CreateOrderResponse response;
+        if (idempotencyKey == null) {
+            Order order = orderService.createOrder(command);
+            response = toResponse(order.getId(), order.getStatus());
+        } else {
+            IdempotencyRecord record = idempotencyService.createOrder(idempotencyKey, command);
+            response = toResponse(record.getOrderId(), record.getOrderStatus());
+        }
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    }
+
+    // 用暫時編號查 journal 收單的結果：已寫入回 200 + 訂單編號，還在排隊回 202
+    @GetMapping("/intake/{reference}")
+    public ResponseEntity<?> getIntakeStatus(@PathVariable String reference) {
+        return orderService.findByIntakeRef(reference)
+                .<ResponseEntity<?>>map(order -> ResponseEntity.ok(new CreateOrderResponse(
+                        order.getId(),
+                        order.getStatus(),
+                        "訂單已建立。"
+                )))
+                .orElseGet(() -> ResponseEntity.accepted().body(new OrderIntakeResponse(
+                        reference,
+                        OrderStatus.PENDING,
+                        "訂單處理中。"
+                )));
+    }
+
+    // 批次提交：一次送多筆訂單，每筆各自回報成功或失敗原因
+    // DTO 驗證逐筆做（不用 @Valid 串到清單元素），不合格的筆直接標記，其餘交給 Service
+    @PostMapping("/batch")
+    public ResponseEntity<CreateOrderBatchResponse> createOrders(
+            @Valid @RequestBody CreateOrderBatchRequest request
+    ) {
+        List<OrderService.CreateOrderCommand> commands = new ArrayList<>(request.orders().size());
+        Map<Integer, String> rejected = new HashMap<>();
+        for (int i = 0; i < request.orders().size(); i++) {
+            CreateOrderRequest item = request.orders().get(i);
+            if (item == null) {
+                commands.add(null);
+                rejected.put(i, "Order is required");
+                continue;
+            }
+            Set<ConstraintViolation<CreateOrderRequest>> violations = validator.validate(item);
+            if (!violations.isEmpty()) {
+                ConstraintViolation<CreateOrderRequest> violation = violations.iterator().next();
+                rejected.put(i, violation.getPropertyPath() + ": " + violation.getMessage());
+            }
+            commands.add(toCommand(item));
+        }
+
+        List<CreateOrderBatchItemResponse> results = orderService.createOrders(commands, rejected).stream()
+                .map(result -> result.order() == null
+                        ? new CreateOrderBatchItemResponse(result.index(), false, null, null, result.error())
+                        : new CreateOrderBatchItemResponse(
+                                result.index(), true, result.order().getId(), result.order().getStatus(), null))
+                .toList();
+        int created = (int) results.stream().filter(CreateOrderBatchItemResponse::success).count();
+        CreateOrderBatchResponse response = new CreateOrderBatchResponse(created, results.size() - created, results);
+
+        // 有任何一筆成立就回 201；全部失敗回 200，由 results 說明原因
+        HttpStatus status = created > 0 ? HttpStatus.CREATED : HttpStatus.OK;
+        return ResponseEntity.status(status).body(response);
+    }
+
+    private CreateOrderResponse toResponse(Long orderId, OrderStatus status) {
+        return new CreateOrderResponse(orderId, status, "訂單已送出，客服將與您聯繫確認。");
+    }
+
+    private OrderService.CreateOrderCommand toCommand(CreateOrderRequest request) {
+        return new OrderService.CreateOrderCommand(
                 request.tireId(),
                 request.quantity(),
                 request.customerName(),
@@ -44,14 +166,5 @@ public class OrderController {
                 request.carModel(),
                 request.notes()
         );
-
-        Order order = orderService.createOrder(command);
-        CreateOrderResponse response = new CreateOrderResponse(
-                order.getId(),
-                order.getStatus(),
-                "訂單已送出，客服將與您聯繫確認。"
-        );
-
-        return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 }
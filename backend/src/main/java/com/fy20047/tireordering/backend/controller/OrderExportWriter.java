@@ -0,0 +1,99 @@
+package com.fy20047.tireordering.backend.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fy20047.tireordering.backend.dto.AdminOrderResponse;
+import com.fy20047.tireordering.backend.enums.ExportFormat;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+// 把訂單逐筆寫到 response 的 OutputStream（NDJSON / CSV），只用固定大小的緩衝區
+// 第一筆寫完就 flush，客戶端馬上開始收到資料
+final class OrderExportWriter implements AutoCloseable {
+
+    private static final String[] CSV_HEADER = {
+            "id", "status", "quantity", "customerName", "phone", "email", "installationOption",
+            "deliveryAddress", "carModel", "notes", "createdAt", "updatedAt",
+            "tireId", "tireBrand", "tireSeries", "tireOrigin", "tireSize", "tirePrice"
+    };
+
+    private final ExportFormat format;
+    private final Writer writer;
+    private final SequenceWriter jsonWriter;
+    private long rows;
+
+    OrderExportWriter(ExportFormat format, OutputStream out, ObjectMapper objectMapper) throws IOException {
+        this.format = format;
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        if (format == ExportFormat.NDJSON) {
+            this.jsonWriter = objectMapper.writer().withRootValueSeparator("\n").writeValues(writer);
+        } else {
+            this.jsonWriter = null;
+            writer.write('\uFEFF'); // BOM：讓 Excel 正確辨識 UTF-8 中文
+            writeCsvRow(CSV_HEADER);
+        }
+    }
+
+    void write(AdminOrderResponse row) {
+        try {
+            if (format == ExportFormat.NDJSON) {
+                jsonWriter.write(row);
+            } else {
+                writeCsvRow(new Object[] {
+                        row.id(), row.status(), row.quantity(), row.customerName(), row.phone(), row.email(),
+                        row.installationOption(), row.deliveryAddress(), row.carModel(), row.notes(),
+                        row.createdAt(), row.updatedAt(),
+                        row.tireId(), row.tireBrand(), row.tireSeries(), row.tireOrigin(), row.tireSize(),
+                        row.tirePrice()
+                });
+            }
+            if (rows++ == 0) {
+                writer.flush();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // 客戶端中途斷線：中止查詢、釋放連線
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (jsonWriter != null) {
+            jsonWriter.flush();
+            if (rows > 0) {
+                writer.write('\n'); // 最後一筆也以換行結尾
+            }
+        }
+        writer.flush();
+    }
+
+    private void writeCsvRow(Object[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(csvCell(values[i]));
+        }
+        writer.write("\r\n");
+    }
+
+    // 含逗號、引號、換行的欄位用引號包起來；=、+、-、@ 開頭的文字前面加 '，避免在 Excel 被當成公式
+    private static String csvCell(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = Objects.toString(value);
+        if (value instanceof String && !text.isEmpty() && "=+-@".indexOf(text.charAt(0)) >= 0) {
+            text = "'" + text;
+        }
+        if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+            return '"' + text.replace("\"", "\"\"") + '"';
+        }
+        return text;
+    }
+}
@@ -1,52 +1,221 @@
 package com.fy20047.tireordering.backend.controller;
 
+import com.fy20047.tireordering.backend.dto.TireFacetsResponse;
 import com.fy20047.tireordering.backend.dto.TireListResponse;
 import com.fy20047.tireordering.backend.dto.TireResponse;
 import com.fy20047.tireordering.backend.entity.Tire;
+import com.fy20047.tireordering.backend.service.TireCatalogCache;
+import com.fy20047.tireordering.backend.service.TireCatalogCache.CatalogSnapshot;
+import com.fy20047.tireordering.backend.service.TireFacetService;
+import com.fy20047.tireordering.backend.service.TireFacetService.Facet;
 import com.fy20047.tireordering.backend.service.TireService;
+import com.fy20047.tireordering.backend.service.TireService.FitmentQuery;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequestMapping("/api/tires")
 // 處理資料顯示與轉換（Get），資料庫 -> Service -> 輸出 DTO
 // 把資料庫裡的 Tire (Entity) 轉成前端能看的 TireResponse (DTO)
 // 預設 200 OK
+// 上架目錄與單一輪胎支援條件式 GET：帶 If-None-Match / If-Modified-Since 且沒變時回 304（不帶 body）
 public class TireController {
 
     private final TireService tireService;
+    private final TireCatalogCache catalogCache;
+    private final TireFacetService facetService;
+    private final String cacheControl;
 
-    public TireController(TireService tireService) {
+    public TireController(
+            TireService tireService,
+            TireCatalogCache catalogCache,
+            TireFacetService facetService,
+            @Value("${tires.cache-control:no-cache}") String cacheControl
+    ) {
         this.tireService = tireService;
+        this.catalogCache = catalogCache;
+        this.facetService = facetService;
+        this.cacheControl = cacheControl;
     }
 
     // 查詢請求
+    // 上架目錄（前台預設）直接回傳記憶體快照裡已序列化好的 JSON，不查 DB
+    // ETag 為快照內容的雜湊，Last-Modified 為輪胎最後異動時間；沒變就回 304
+    // 用戶端接受 gzip 且快照有壓好的版本時，直接送 gzip bytes（gzip 版本的 ETag 另外加上 -gzip）
     @GetMapping
-    public TireListResponse getTires(@RequestParam(name = "active", defaultValue = "true") boolean active) {
-        List<Tire> tires = active ? tireService.getActiveTires() : tireService.getAllTires();
+    public ResponseEntity<?> getTires(
+            @RequestParam(name = "active", defaultValue = "true") boolean active,
+            @RequestHeader(name = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            WebRequest request
+    ) {
+        if (active) {
+            CatalogSnapshot snapshot = catalogCache.current();
+            boolean gzip = snapshot.gzipJson() != null && acceptsGzip(acceptEncoding);
+            String etag = gzip ? snapshot.etag() + "-gzip" : snapshot.etag();
+            if (request.checkNotModified(etag, snapshot.lastModified())) {
+                return notModified();
+            }
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                    .eTag(etag)
+                    .header(HttpHeaders.CACHE_CONTROL, cacheControl)
+                    .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                    .contentType(MediaType.APPLICATION_JSON);
+            if (snapshot.lastModified() >= 0) {
+                response.lastModified(snapshot.lastModified());
+            }
+            if (gzip) {
+                return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(snapshot.gzipJson());
+            }
+            return response.body(snapshot.json());
+        }
+        List<Tire> tires = tireService.getAllTires();
         List<TireResponse> items = tires.stream() // 1. 把清單變成輸送帶
                 .map(this::toResponse) // 2. 對每個輪胎執行 toResponse 方法 (轉換)
                 .collect(Collectors.toList());  // 3. 把處理好的東西裝回 List
-        return new TireListResponse(items);
+        return ResponseEntity.ok(new TireListResponse(items));
+    }
+
+    // 篩選側欄的統計（上架中）：不帶參數為全部；可以帶一個面向當篩選條件，例如 ?brand=Michelin、?rim=16、?priceBand=3000-3999
+    // 直接查記憶體裡的統計，不查 DB
+    @GetMapping("/facets")
+    public TireFacetsResponse getFacets(
+            @RequestParam(required = false) String brand,
+            @RequestParam(required = false) String origin,
+            @RequestParam(required = false) String rim,
+            @RequestParam(required = false) String priceBand
+    ) {
+        Map<Facet, String> values = new EnumMap<>(Facet.class);
+        values.put(Facet.BRAND, brand);
+        values.put(Facet.ORIGIN, origin);
+        values.put(Facet.RIM, rim);
+        values.put(Facet.PRICE_BAND, priceBand);
+        Facet filterFacet = null;
+        String filterValue = null;
+        for (Map.Entry<Facet, String> entry : values.entrySet()) {
+            Facet facet = entry.getKey();
+            String value = entry.getValue();
+            if (value == null || value.isBlank()) {
+                continue;
+            }
+            if (filterFacet != null) {
+                throw new IllegalArgumentException("Only one facet filter is supported");
+            }
+            filterFacet = facet;
+            filterValue = value.trim();
+        }
+        return facetService.counts(filterFacet, filterValue);
+    }
+
+    // 依規格找輪胎（上架中）：?size=205/55R16，或 ?rimDiameter=16&minWidth=195&maxWidth=215
+    // 直接查 DB（idx_tires_fitment 範圍掃描），不經過目錄快照
+    @GetMapping("/fitment")
+    public TireListResponse findByFitment(
+            @RequestParam(required = false) String size,
+            @RequestParam(required = false) BigDecimal rimDiameter,
+            @RequestParam(required = false) Integer minWidth,
+            @RequestParam(required = false) Integer maxWidth,
+            @RequestParam(required = false) Integer minAspectRatio,
+            @RequestParam(required = false) Integer maxAspectRatio,
+            @RequestParam(required = false) Integer minLoadIndex,
+            @RequestParam(required = false) Integer limit
+    ) {
+        List<Tire> tires = tireService.findByFitment(new FitmentQuery(
+                size == null || size.isBlank() ? null : size,
+                rimDiameter, minWidth, maxWidth, minAspectRatio, maxAspectRatio, minLoadIndex, limit));
+        return new TireListResponse(tires.stream().map(this::toResponse).toList());
     }
 
     // 查單一顆輪胎
     // @RequestParam 是抓 ? 後面的參數 (篩選條件)
     // @PathVariable 是抓 / 中間的路徑 (指定資源 ID)
+    // ETag 由 id + updatedAt 組成：先只查 updated_at 比對，沒變就回 304，不載入整筆輪胎
     @GetMapping("/{id}")
-    public TireResponse getTire(@PathVariable("id") Long id) {
+    public ResponseEntity<TireResponse> getTire(@PathVariable("id") Long id, WebRequest request) {
+        long lastModified = epochMillis(tireService.getTireUpdatedAt(id));
+        if (request.checkNotModified(etag(id, lastModified), lastModified)) {
+            return notModified();
+        }
         Tire tire = tireService.getTireById(id);
-        return toResponse(tire);
+        long loadedLastModified = epochMillis(tire.getUpdatedAt()); // 兩次查詢之間可能剛好被修改，以載入的為準
+        return ResponseEntity.ok()
+                .eTag(etag(id, loadedLastModified))
+                .lastModified(loadedLastModified)
+                .header(HttpHeaders.CACHE_CONTROL, cacheControl)
+                .body(toResponse(tire));
+    }
+
+    // Accept-Encoding 逐項看完：有明確寫 gzip 就看它的 q，沒寫才看 *（例如 "*;q=0, gzip" 是接受 gzip）；q=0 表示拒絕
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Double gzipQuality = null;
+        Double anyQuality = null;
+        for (String part : acceptEncoding.split(",")) {
+            String[] tokens = part.trim().split(";");
+            String coding = tokens[0].trim();
+            if (coding.equalsIgnoreCase("gzip")) {
+                gzipQuality = quality(tokens);
+            } else if (coding.equals("*")) {
+                anyQuality = quality(tokens);
+            }
+        }
+        Double quality = gzipQuality != null ? gzipQuality : anyQuality;
+        return quality != null && quality > 0;
+    }
+
+    // 一項 coding 的 q 值，沒寫是 1；寫錯當成 0（不接受）
+    private static double quality(String[] tokens) {
+        double quality = 1;
+        for (int i = 1; i < tokens.length; i++) {
+            String param = tokens[i].trim();
+            if (param.regionMatches(true, 0, "q=", 0, 2)) {
+                try {
+                    quality = Double.parseDouble(param.substring(2).trim());
+                } catch (NumberFormatException e) {
+                    quality = 0;
+                }
+            }
+        }
+        return quality;
+    }
+
+    // checkNotModified 已經設好 304 與 ETag / Last-Modified，這裡補上 Cache-Control 與 Vary
+    private <T> ResponseEntity<T> notModified() {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .header(HttpHeaders.CACHE_CONTROL, cacheControl)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                .build();
+    }
+
+    private static String etag(Long id, long lastModified) {
+        return id + "-" + lastModified;
+    }
+
+    private static long epochMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
     }
 
     // 在 getTires (查列表) 和 getTire (查單個) 這兩個地方，都需要把 Tire (資料庫格式) 轉成 TireResponse (前端格式)
     // DRY 原則 - Don't Repeat Yourself，把它抽出來變成一個小方法，程式碼更乾淨，以後如果要改格式，改這個小方法就好
-    private TireResponse toResponse(Tire tire) {
+    TireResponse toResponse(Tire tire) {
         return new TireResponse(
                 tire.getId(),
                 tire.getBrand(),
@@ -3,5 +3,6 @@ package com.fy20047.tireordering.backend.dto;
 import java.util.List;
 
 // 後台訂單列表的統一回傳格式，讓前端處理資料結構一致、易擴充。
-public record AdminOrderListResponse(List<AdminOrderResponse> items) {
+// next 是下一頁的游標，帶回 ?cursor= 即可取得下一頁；null 表示沒有下一頁
+public record AdminOrderListResponse(List<AdminOrderResponse> items, String next) {
 }
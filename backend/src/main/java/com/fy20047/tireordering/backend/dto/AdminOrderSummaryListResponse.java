@@ -0,0 +1,7 @@
+package com.fy20047.tireordering.backend.dto;
+
+import java.util.List;
+
+// 後台訂單精簡列表，分頁方式與 AdminOrderListResponse 相同
+public record AdminOrderSummaryListResponse(List<AdminOrderSummaryResponse> items, String next) {
+}
@@ -0,0 +1,27 @@
+package com.fy20047.tireordering.backend.dto;
+
+import com.fy20047.tireordering.backend.enums.InstallationOption;
+import com.fy20047.tireordering.backend.enums.OrderStatus;
+import java.time.LocalDateTime;
+
+// 後台訂單精簡列表的單筆資料：跟 AdminOrderResponse 一樣，但不含 TEXT 欄位（deliveryAddress、notes）
+// 列表只需要概覽時用這個，地址與備註再用單筆查詢取得
+public record AdminOrderSummaryResponse(
+        Long id,
+        OrderStatus status,
+        Integer quantity,
+        String customerName,
+        String phone,
+        String email,
+        InstallationOption installationOption,
+        String carModel,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt,
+        Long tireId,
+        String tireBrand,
+        String tireSeries,
+        String tireOrigin,
+        String tireSize,
+        Integer tirePrice
+) {
+}
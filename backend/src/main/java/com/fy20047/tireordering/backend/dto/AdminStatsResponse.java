@@ -0,0 +1,35 @@
+package com.fy20047.tireordering.backend.dto;
+
+import com.fy20047.tireordering.backend.enums.InstallationOption;
+import com.fy20047.tireordering.backend.enums.OrderStatus;
+import java.time.LocalDate;
+import java.util.List;
+
+// 後台統計（建立日期 from ~ to，含頭含尾）
+// daily：每天各狀態的訂單數；tires、installation 不含已取消的訂單
+// revenue 以下單時的單價計算（輪胎未定價的訂單算 0）
+public record AdminStatsResponse(
+        LocalDate from,
+        LocalDate to,
+        List<DailyStatus> daily,
+        List<TireSales> tires,
+        List<InstallationMix> installation
+) {
+
+    public record DailyStatus(LocalDate date, OrderStatus status, long orders, long units, long revenue) {
+    }
+
+    public record TireSales(
+            Long tireId,
+            String brand,
+            String series,
+            String size,
+            long orders,
+            long units,
+            long revenue
+    ) {
+    }
+
+    public record InstallationMix(InstallationOption option, long orders, long units, long revenue) {
+    }
+}
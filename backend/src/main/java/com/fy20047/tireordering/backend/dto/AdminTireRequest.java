@@ -10,12 +10,14 @@ import jakarta.validation.constraints.Size;
 // 加上 @NotBlank/@Min 等驗證
 // @NotBlank / @NotNull 者必填
 // price 可以為 null → 表示「價格另洽」
+// stock 只在新增時使用（初始庫存，null 視為 0）；之後改庫存走 PATCH /{id}/stock
 public record AdminTireRequest(
         @NotBlank @Size(max = 100) String brand,
         @NotBlank @Size(max = 100) String series,
         @Size(max = 50) String origin,
         @NotBlank @Size(max = 50) String size,
         @Min(0) Integer price,
-        @NotNull Boolean isActive
+        @NotNull Boolean isActive,
+        @Min(0) Integer stock
 ) {
 }
@@ -12,6 +12,7 @@ public record AdminTireResponse(
         String size,
         Integer price,
         boolean isActive,
+        int stock,
         LocalDateTime createdAt,
         LocalDateTime updatedAt
 ) {
@@ -0,0 +1,24 @@
+package com.fy20047.tireordering.backend.dto;
+
+import com.fy20047.tireordering.backend.enums.OrderStatus;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.time.LocalDate;
+import java.util.List;
+
+// 批次改訂單狀態 Request：ids 與 filter 擇一
+// filter 依目前狀態與建立日期（含頭含尾）選訂單，一次最多處理 500 筆（由舊到新）
+public record BulkUpdateOrderStatusRequest(
+        @NotNull OrderStatus status,
+        @Size(max = 500) List<@NotNull Long> ids,
+        @Valid Filter filter
+) {
+
+    public record Filter(
+            @NotNull OrderStatus status,
+            LocalDate from,
+            LocalDate to
+    ) {
+    }
+}
@@ -0,0 +1,19 @@
+package com.fy20047.tireordering.backend.dto;
+
+import com.fy20047.tireordering.backend.enums.BulkStatusResult;
+import com.fy20047.tireordering.backend.enums.OrderStatus;
+import java.util.List;
+
+// 批次改訂單狀態的結果：每筆訂單一個結果（ids 模式依請求順序）
+// hasMore 只用在 filter 模式：還有符合條件的訂單沒處理，再送一次同樣的請求即可
+public record BulkUpdateOrderStatusResponse(
+        OrderStatus status,
+        int updated,
+        boolean hasMore,
+        List<Item> results
+) {
+
+    // previousStatus：改之前的狀態；NOT_FOUND 時為 null
+    public record Item(Long orderId, BulkStatusResult result, OrderStatus previousStatus) {
+    }
+}
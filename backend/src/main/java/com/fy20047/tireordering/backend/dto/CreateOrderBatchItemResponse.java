@@ -0,0 +1,13 @@
+package com.fy20047.tireordering.backend.dto;
+
+import com.fy20047.tireordering.backend.enums.OrderStatus;
+
+// 批次下單的單筆結果：index 對應請求裡的順序；失敗時 orderId/status 為 null，message 是原因
+public record CreateOrderBatchItemResponse(
+        int index,
+        boolean success,
+        Long orderId,
+        OrderStatus status,
+        String message
+) {
+}
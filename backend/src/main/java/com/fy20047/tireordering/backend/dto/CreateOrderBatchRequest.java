@@ -0,0 +1,11 @@
+package com.fy20047.tireordering.backend.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+
+// 批次下單：單筆內容的驗證在 Controller 逐筆做，這樣一筆不合格不會讓整批 400
+public record CreateOrderBatchRequest(
+        @NotEmpty @Size(max = 500) List<CreateOrderRequest> orders
+) {
+}
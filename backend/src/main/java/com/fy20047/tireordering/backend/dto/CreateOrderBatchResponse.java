@@ -0,0 +1,11 @@
+package com.fy20047.tireordering.backend.dto;
+
+import java.util.List;
+
+// 批次下單結果：成功 / 失敗筆數與每一筆的結果
+public record CreateOrderBatchResponse(
+        int created,
+        int rejected,
+        List<CreateOrderBatchItemResponse> results
+) {
+}
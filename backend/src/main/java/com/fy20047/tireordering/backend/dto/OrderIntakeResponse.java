@@ -0,0 +1,11 @@
+package com.fy20047.tireordering.backend.dto;
+
+import com.fy20047.tireordering.backend.enums.OrderStatus;
+
+// journal 模式收單（202）：reference 是暫時編號，可用 GET /api/orders/intake/{reference} 查是否已寫入
+public record OrderIntakeResponse(
+        String reference,
+        OrderStatus status,
+        String message
+) {
+}
@@ -0,0 +1,5 @@
+package com.fy20047.tireordering.backend.dto;
+
+// 重建統計的結果：彙總了幾筆訂單、寫出幾列彙總
+public record OrderRollupRebuildResponse(long orders, int rows) {
+}
@@ -0,0 +1,19 @@
+package com.fy20047.tireordering.backend.dto;
+
+import java.util.Map;
+
+// 執行緒診斷資訊（後台用）
+// recording 為 false 時 virtual thread / pinned 相關數字都不會累計
+// pinnedLocations：被 pin 住的位置 -> 次數（多到少）
+public record ThreadDiagnosticsResponse(
+        boolean virtualThreadsEnabled,
+        boolean recording,
+        long virtualThreadsStarted,
+        long virtualThreadsEnded,
+        long virtualThreadsActive,
+        long pinnedEvents,
+        Map<String, Long> pinnedLocations,
+        int platformThreads,
+        int carrierParallelism
+) {
+}
@@ -0,0 +1,11 @@
+package com.fy20047.tireordering.backend.dto;
+
+import java.util.List;
+import java.util.Map;
+
+// 前台篩選側欄的統計：total 是符合篩選條件的上架輪胎數，facets 是每個面向（brand / origin / rim / priceBand）各值的數量
+public record TireFacetsResponse(long total, Map<String, List<FacetCount>> facets) {
+
+    public record FacetCount(String value, int count) {
+    }
+}
@@ -0,0 +1,17 @@
+package com.fy20047.tireordering.backend.dto;
+
+import java.util.List;
+
+// 輪胎匯入結果：新增 / 更新 / 內容相同略過 / 不合格的筆數
+// errors 只列前面幾筆不合格的列（line 是 CSV 的行號，表頭是第 1 行）
+public record TireImportResponse(
+        int inserted,
+        int updated,
+        int unchanged,
+        int rejected,
+        List<RowError> errors
+) {
+
+    public record RowError(int line, String message) {
+    }
+}
@@ -0,0 +1,8 @@
+package com.fy20047.tireordering.backend.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+// 盤點後設定庫存的 Request（直接設定數量，不是增減）
+public record UpdateTireStockRequest(@NotNull @Min(0) Integer stock) {
+}
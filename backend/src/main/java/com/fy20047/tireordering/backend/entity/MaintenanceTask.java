@@ -0,0 +1,43 @@
+package com.fy20047.tireordering.backend.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.Table;
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// 對應 maintenance_tasks 資料表：只需要跑一次的資料修補（例如加欄位後補舊資料），記錄範圍與是否跑完
+// cutoffId 是第一次跑的時候決定的範圍上限（之後新增的資料不算舊資料）；completedAt 有值表示跑完，之後啟動直接略過
+@Entity
+@Table(name = "maintenance_tasks")
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MaintenanceTask {
+
+    @Id
+    @Column(name = "name", length = 64)
+    private String name;
+
+    @Column(name = "cutoff_id", nullable = false)
+    private Long cutoffId;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        this.createdAt = LocalDateTime.now();
+    }
+}
@@ -8,7 +8,18 @@ import lombok.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "tire_orders")
+@Table(
+        name = "tire_orders",
+        indexes = {
+                // 後台列表 keyset 分頁：依狀態篩選 / 不篩選 都是索引範圍掃描
+                @Index(name = "idx_tire_orders_status_created_at_id", columnList = "status, created_at, id"),
+                @Index(name = "idx_tire_orders_created_at_id", columnList = "created_at, id")
+        },
+        uniqueConstraints = {
+                // journal 模式的暫時編號，重播時靠它保證同一筆只寫一次
+                @UniqueConstraint(name = "uk_tire_orders_intake_ref", columnNames = "intake_ref")
+        }
+)
 // Lombok
 @Getter
 @Setter
@@ -22,13 +33,18 @@ public class Order {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @ManyToOne(optional = false)
+    // LAZY：後台列表改走 join 投影，不需要每筆訂單都把輪胎載進來
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
     @JoinColumn(name = "tire_id", nullable = false)
     private Tire tire;
 
     @Column(nullable = false)
     private Integer quantity;
 
+    // 下單當下的輪胎單價（之後改價不影響這筆訂單的金額）；輪胎未定價時為 null
+    @Column(name = "unit_price")
+    private Integer unitPrice;
+
     @Column(name = "customer_name", nullable = false, length = 100)
     private String customerName;
 
@@ -56,6 +72,10 @@ public class Order {
     @Column(columnDefinition = "TEXT")
     private String notes;
 
+    // journal 模式收單時給客人的暫時編號；直接寫 DB 的訂單為 null
+    @Column(name = "intake_ref", length = 36)
+    private String intakeRef;
+
     @Column(name = "created_at", nullable = false)
     private LocalDateTime createdAt;
 
@@ -0,0 +1,60 @@
+package com.fy20047.tireordering.backend.entity;
+
+import com.fy20047.tireordering.backend.enums.InstallationOption;
+import com.fy20047.tireordering.backend.enums.OrderStatus;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+
+// 對應 order_rollups 資料表：後台統計用的訂單彙總，每天 × 狀態 × 輪胎 × 安裝方式一列
+// 跟訂單在同一個交易裡加減（下單 +1、改狀態從舊狀態搬到新狀態），統計只讀這張表，不掃 tire_orders
+// 讀寫都走 OrderRollupRepository（JDBC），這裡只負責定義資料表
+@Entity
+@Table(
+        name = "order_rollups",
+        uniqueConstraints = {
+                // 累加時用來找到同一格；依日期區間查詢也是走這個索引
+                @UniqueConstraint(
+                        name = "uk_order_rollups_bucket",
+                        columnNames = {"order_date", "status", "tire_id", "installation_option"}
+                )
+        }
+)
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // 訂單建立的日期
+    @Column(name = "order_date", nullable = false)
+    private LocalDate orderDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private OrderStatus status;
+
+    @Column(name = "tire_id", nullable = false)
+    private Long tireId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "installation_option", nullable = false, length = 20)
+    private InstallationOption installationOption;
+
+    @Column(name = "order_count", nullable = false)
+    private long orderCount;
+
+    // 輪胎條數（quantity 加總）
+    @Column(nullable = false)
+    private long units;
+
+    // 營業額（quantity × 下單時的單價）
+    @Column(nullable = false)
+    private long revenue;
+}
@@ -0,0 +1,65 @@
+package com.fy20047.tireordering.backend.entity;
+
+import com.fy20047.tireordering.backend.enums.OutboxStatus;
+import com.fy20047.tireordering.backend.event.OrderChangedEvent;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+// 對應 outbox_events 資料表：訂單異動要交給外部處理（通知、同步其他系統…）的事件
+// 跟訂單在同一個交易寫入，訂單 rollback 事件也不會留下；commit 了就一定會被處理到
+// 每個 handler 各一列，各自重試、互不影響
+// 讀寫都走 OutboxRepository（JDBC 批次），這裡只負責定義資料表
+@Entity
+@Table(
+        name = "outbox_events",
+        indexes = {
+                // dispatcher 撈「待處理且到時間」的事件
+                @Index(name = "idx_outbox_events_status_available_at", columnList = "status, available_at")
+        }
+)
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // 負責處理的 OutboxHandler 名稱
+    @Column(nullable = false, length = 100)
+    private String handler;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false, length = 30)
+    private OrderChangedEvent.Type eventType;
+
+    @Column(name = "order_id", nullable = false)
+    private Long orderId;
+
+    @Builder.Default
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private OutboxStatus status = OutboxStatus.PENDING;
+
+    // 已被領取幾次（領取時 +1，處理到一半當機也算一次）
+    @Column(nullable = false)
+    private int attempts;
+
+    // 這個時間之後才能被領取：重試的等待時間、處理中的租約都靠它
+    @Column(name = "available_at", nullable = false)
+    private LocalDateTime availableAt;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "processed_at")
+    private LocalDateTime processedAt;
+}
@@ -2,11 +2,19 @@ package com.fy20047.tireordering.backend.entity;
 
 import jakarta.persistence.*; // 使用 * 讓 import 比較簡潔
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "tires")
+@Table(
+        name = "tires",
+        indexes = {
+                // 依規格找輪胎：輪圈相等 + 胎寬 / 扁平比範圍，都是索引範圍掃描（不用 like 掃整張表）
+                @Index(name = "idx_tires_fitment", columnList = "rim_diameter, width, aspect_ratio")
+        }
+)
 // Lombok
 @Getter
 @Setter
@@ -39,6 +47,32 @@ public class Tire {
     @Column(name = "is_active", nullable = false)
     private boolean isActive = true;
 
+    // 庫存：新增時可以給初始值，之後只能透過 TireRepository 的條件式 UPDATE 增減
+    // updatable = false：編輯輪胎存檔時不會把讀進來的舊庫存寫回去，蓋掉同時間下單扣掉的數量
+    @Builder.Default
+    @ColumnDefault("0") // 既有資料表加欄位時，舊資料的庫存為 0
+    @Column(nullable = false, updatable = false)
+    private int stock = 0;
+
+    // 以下是從 size 解析出的規格（TireSize），新增 / 修改時自動更新；解析不了的尺寸全部為 null
+    @Column(name = "width")
+    private Integer width;
+
+    @Column(name = "aspect_ratio")
+    private Integer aspectRatio;
+
+    @Column(name = "construction", length = 2)
+    private String construction;
+
+    @Column(name = "rim_diameter", precision = 3, scale = 1)
+    private BigDecimal rimDiameter;
+
+    @Column(name = "load_index")
+    private Integer loadIndex;
+
+    @Column(name = "speed_rating", length = 1)
+    private String speedRating;
+
     @Column(name = "created_at", nullable = false)
     private LocalDateTime createdAt;
 
@@ -51,10 +85,23 @@ public class Tire {
         LocalDateTime now = LocalDateTime.now();
         this.createdAt = now;
         this.updatedAt = now;
+        applySize();
     }
 
     @PreUpdate
     protected void onUpdate() {
         this.updatedAt = LocalDateTime.now();
+        applySize();
+    }
+
+    // 依 size 重新填入規格欄位
+    public void applySize() {
+        TireSize parsed = TireSize.parse(size).orElse(null);
+        this.width = parsed == null ? null : parsed.width();
+        this.aspectRatio = parsed == null ? null : parsed.aspectRatio();
+        this.construction = parsed == null ? null : parsed.construction();
+        this.rimDiameter = parsed == null ? null : parsed.rimDiameter();
+        this.loadIndex = parsed == null ? null : parsed.loadIndex();
+        this.speedRating = parsed == null ? null : parsed.speedRating();
     }
 }
@@ -0,0 +1,43 @@
+package com.fy20047.tireordering.backend.entity;
+
+import java.math.BigDecimal;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// 從輪胎尺寸文字解析出的規格，例如 "205/55R16 91V" -> 胎寬 205、扁平比 55、結構 R、輪圈 16、載重指數 91、速度等級 V
+// 接受常見寫法：前綴 P / LT、寬與扁平比之間用 / 或空白、ZR、輪圈後的 C（商用胎）、中間的空白；後面多出來的文字（XL…）忽略
+// 載重指數與速度等級可以省略；"104/102T" 這種單輪 / 雙輪載重取第一個
+public record TireSize(
+        int width,
+        int aspectRatio,
+        String construction,
+        BigDecimal rimDiameter,
+        Integer loadIndex,
+        String speedRating
+) {
+
+    private static final Pattern PATTERN = Pattern.compile(
+            "(?:P|LT|ST|T)?\\s*(\\d{3})\\s*[/\\s]\\s*(\\d{2,3})\\s*(ZR|R|D|B)\\s*(\\d{2}(?:\\.\\d)?)C?"
+                    + "(?:\\s*\\(?(\\d{2,3})(?:/\\d{2,3})?\\s*([A-Z])\\)?)?");
+
+    // 解析不了回傳 empty
+    public static Optional<TireSize> parse(String text) {
+        if (text == null) {
+            return Optional.empty();
+        }
+        Matcher matcher = PATTERN.matcher(text.trim().toUpperCase(Locale.ROOT));
+        if (!matcher.lookingAt()) {
+            return Optional.empty();
+        }
+        return Optional.of(new TireSize(
+                Integer.parseInt(matcher.group(1)),
+                Integer.parseInt(matcher.group(2)),
+                matcher.group(3),
+                new BigDecimal(matcher.group(4)).setScale(1),
+                matcher.group(5) == null ? null : Integer.valueOf(matcher.group(5)),
+                matcher.group(6)
+        ));
+    }
+}
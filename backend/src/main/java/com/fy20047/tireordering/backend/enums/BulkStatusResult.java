@@ -0,0 +1,9 @@
+package com.fy20047.tireordering.backend.enums;
+
+// 批次改訂單狀態的單筆結果
+public enum BulkStatusResult {
+    UPDATED,     // 已改成目標狀態
+    UNCHANGED,   // 本來就是目標狀態
+    NOT_ALLOWED, // 目前狀態不能直接改成目標狀態（例如已完成 -> 已取消）
+    NOT_FOUND    // 訂單不存在
+}
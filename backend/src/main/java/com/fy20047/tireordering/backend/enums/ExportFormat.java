@@ -0,0 +1,7 @@
+package com.fy20047.tireordering.backend.enums;
+
+// 訂單匯出格式
+public enum ExportFormat {
+    NDJSON, // 一行一筆 JSON（application/x-ndjson）
+    CSV     // 給會計用 Excel 開（text/csv，UTF-8 含 BOM）
+}
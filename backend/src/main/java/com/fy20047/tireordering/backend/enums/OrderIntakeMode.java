@@ -0,0 +1,7 @@
+package com.fy20047.tireordering.backend.enums;
+
+// 下單寫入模式
+public enum OrderIntakeMode {
+    DIRECT, // 每筆訂單直接在交易裡寫 DB（預設）
+    JOURNAL // 先寫本機 journal 檔（批次 fsync）回 202，背景再批次寫入 DB
+}
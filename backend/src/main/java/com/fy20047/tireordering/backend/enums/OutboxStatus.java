@@ -0,0 +1,8 @@
+package com.fy20047.tireordering.backend.enums;
+
+public enum OutboxStatus {
+    // 等待處理（含失敗後等待重試）、已處理、重試次數用完放棄
+    PENDING,
+    DONE,
+    FAILED
+}
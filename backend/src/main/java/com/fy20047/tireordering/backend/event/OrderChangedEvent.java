@@ -0,0 +1,25 @@
+package com.fy20047.tireordering.backend.event;
+
+import java.util.List;
+
+// 訂單異動事件（新訂單 / 狀態變更），交易 commit 後推播給後台即時訂單串流
+// 帶 id 清單，批次收單時只要發一次事件
+public record OrderChangedEvent(Type type, List<Long> orderIds) {
+
+    public enum Type {
+        CREATED,
+        STATUS_CHANGED
+    }
+
+    public static OrderChangedEvent created(List<Long> orderIds) {
+        return new OrderChangedEvent(Type.CREATED, orderIds);
+    }
+
+    public static OrderChangedEvent statusChanged(List<Long> orderIds) {
+        return new OrderChangedEvent(Type.STATUS_CHANGED, orderIds);
+    }
+
+    public static OrderChangedEvent statusChanged(Long orderId) {
+        return statusChanged(List.of(orderId));
+    }
+}
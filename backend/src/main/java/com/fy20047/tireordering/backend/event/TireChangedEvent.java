@@ -0,0 +1,12 @@
+package com.fy20047.tireordering.backend.event;
+
+import java.util.List;
+
+// 輪胎資料異動事件（新增/編輯/上下架），交易 commit 後讓各個記憶體快取自行更新
+// 帶 id 清單，批次異動時只要發一次事件
+public record TireChangedEvent(List<Long> tireIds) {
+
+    public static TireChangedEvent of(Long tireId) {
+        return new TireChangedEvent(List.of(tireId));
+    }
+}
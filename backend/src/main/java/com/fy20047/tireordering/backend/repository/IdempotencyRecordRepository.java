@@ -0,0 +1,28 @@
+package com.fy20047.tireordering.backend.repository;
+
+import com.fy20047.tireordering.backend.entity.IdempotencyRecord;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+// 查 / 清 Idempotency-Key 紀錄
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, Long> {
+
+    // 判斷是不是重送要讀主庫（不用 readOnly，避免讀到還沒同步到 replica 的舊資料）
+    @Transactional
+    Optional<IdempotencyRecord> findByIdempotencyKey(String idempotencyKey);
+
+    // journal 寫入時比對重複的 key
+    List<IdempotencyRecord> findByIdempotencyKeyIn(Collection<String> idempotencyKeys);
+
+    // 清掉超過保存期限的 key（一個 DELETE，不逐筆載入）
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.createdAt < :before")
+    int deleteCreatedBefore(@Param("before") LocalDateTime before);
+}
@@ -0,0 +1,8 @@
+package com.fy20047.tireordering.backend.repository;
+
+import com.fy20047.tireordering.backend.entity.MaintenanceTask;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+// 一次性資料修補的紀錄（依名稱查）
+public interface MaintenanceTaskRepository extends JpaRepository<MaintenanceTask, String> {
+}
@@ -0,0 +1,221 @@
+package com.fy20047.tireordering.backend.repository;
+
+import com.fy20047.tireordering.backend.entity.Order;
+import com.fy20047.tireordering.backend.enums.InstallationOption;
+import com.fy20047.tireordering.backend.enums.OrderStatus;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.stereotype.Repository;
+
+// 訂單批次寫入：用 JDBC batch 一次送出多筆 INSERT
+// tire_orders 的 id 是 IDENTITY，Hibernate 遇到 IDENTITY 不會做 batch insert，所以這裡直接走 JdbcTemplate
+// 批次改狀態：先一次鎖住要改的訂單，再用一條 UPDATE 全部改掉
+// 會加入目前的 JPA 交易（同一條連線），呼叫端負責開交易
+@Repository
+public class OrderBatchRepository {
+
+    private static final String INSERT_SQL = """
+            insert into tire_orders (tire_id, quantity, unit_price, customer_name, phone, email, installation_option,
+                                     delivery_address, status, car_model, notes, intake_ref, created_at, updated_at)
+            values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private static final String LOCK_COLUMNS = """
+            select id, status, tire_id, quantity, unit_price, installation_option, created_at
+            from tire_orders
+            """;
+
+    // status 條件是最後一道防線：鎖住之後理論上不會變，但不符合的列絕不會被改到
+    private static final String UPDATE_STATUS_SQL = """
+            update tire_orders set status = :status, updated_at = :now
+            where id in (:ids) and status in (:allowed)
+            """;
+
+    // 舊訂單補下單單價：用目前的輪胎價格（只補還沒有單價的）
+    private static final String FILL_UNIT_PRICE_SQL = """
+            update tire_orders set unit_price = (select t.price from tires t where t.id = tire_orders.tire_id)
+            where id in (:ids) and unit_price is null
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    public OrderBatchRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+    }
+
+    // 寫入後把產生的 id、建立時間回填到每個 Order
+    // createdAt 已經有值（例如 journal 收單的時間）就沿用，否則用現在時間
+    public void insertAll(List<Order> orders) {
+        if (orders.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        for (Order order : orders) {
+            if (order.getCreatedAt() == null) {
+                order.setCreatedAt(now);
+            }
+            order.setUpdatedAt(now);
+        }
+        GeneratedKeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+                connection -> connection.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        Order order = orders.get(i);
+                        ps.setLong(1, order.getTire().getId());
+                        ps.setInt(2, order.getQuantity());
+                        if (order.getUnitPrice() == null) {
+                            ps.setNull(3, Types.INTEGER);
+                        } else {
+                            ps.setInt(3, order.getUnitPrice());
+                        }
+                        ps.setString(4, order.getCustomerName());
+                        ps.setString(5, order.getPhone());
+                        setNullableString(ps, 6, order.getEmail());
+                        ps.setString(7, order.getInstallationOption().name());
+                        setNullableString(ps, 8, order.getDeliveryAddress());
+                        ps.setString(9, order.getStatus().name());
+                        setNullableString(ps, 10, order.getCarModel());
+                        setNullableString(ps, 11, order.getNotes());
+                        setNullableString(ps, 12, order.getIntakeRef());
+                        ps.setTimestamp(13, Timestamp.valueOf(order.getCreatedAt()));
+                        ps.setTimestamp(14, Timestamp.valueOf(order.getUpdatedAt()));
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return orders.size();
+                    }
+                },
+                keyHolder
+        );
+
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        for (int i = 0; i < orders.size(); i++) {
+            orders.get(i).setId(((Number) keys.get(i).values().iterator().next()).longValue());
+        }
+    }
+
+    // 鎖住指定的訂單（SELECT ... FOR UPDATE，依 id 順序），回傳目前的狀態與統計需要的欄位；不存在的 id 不會出現
+    public List<OrderStatusRow> lockByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return namedJdbcTemplate.query(
+                LOCK_COLUMNS + " where id in (:ids) order by id for update",
+                Map.of("ids", ids),
+                (rs, rowNum) -> toStatusRow(rs)
+        );
+    }
+
+    // 鎖住目前狀態為 status、建立時間在 [from, to) 的訂單，由舊到新最多 limit 筆（走 status, created_at 索引）
+    public List<OrderStatusRow> lockByStatus(OrderStatus status, LocalDateTime from, LocalDateTime to, int limit) {
+        Map<String, Object> params = new HashMap<>();
+        params.put("limit", limit);
+        String sql = LOCK_COLUMNS + statusFilter(status, from, to, params) + " order by created_at, id limit :limit for update";
+        return namedJdbcTemplate.query(sql, params, (rs, rowNum) -> toStatusRow(rs));
+    }
+
+    // 還有沒有符合條件的訂單（一般讀取，不鎖）
+    public boolean existsByStatus(OrderStatus status, LocalDateTime from, LocalDateTime to) {
+        Map<String, Object> params = new HashMap<>();
+        String sql = "select id from tire_orders" + statusFilter(status, from, to, params) + " limit 1";
+        return !namedJdbcTemplate.queryForList(sql, params, Long.class).isEmpty();
+    }
+
+    // 一條 UPDATE 改掉整批；回傳實際改到的筆數
+    public int updateStatus(Collection<Long> ids, Collection<OrderStatus> allowed, OrderStatus status, LocalDateTime now) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        return namedJdbcTemplate.update(UPDATE_STATUS_SQL, Map.of(
+                "status", status.name(),
+                "now", Timestamp.valueOf(now),
+                "ids", ids,
+                "allowed", allowed.stream().map(OrderStatus::name).toList()
+        ));
+    }
+
+    // 目前最大的訂單 id（沒有訂單時為 0）
+    public long maxId() {
+        return jdbcTemplate.queryForObject("select coalesce(max(id), 0) from tire_orders", Long.class);
+    }
+
+    // 還沒有下單單價的訂單 id（afterId 之後、到 upToId 為止，依 id 排序）
+    public List<Long> findIdsWithoutUnitPrice(long afterId, long upToId, int limit) {
+        return jdbcTemplate.queryForList(
+                "select id from tire_orders where unit_price is null and id > ? and id <= ? order by id limit ?",
+                Long.class, afterId, upToId, limit);
+    }
+
+    // 依輪胎目前的價格補上單價；輪胎沒有價格的維持 null
+    public int fillUnitPrices(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        return namedJdbcTemplate.update(FILL_UNIT_PRICE_SQL, Map.of("ids", ids));
+    }
+
+    private static String statusFilter(OrderStatus status, LocalDateTime from, LocalDateTime to, Map<String, Object> params) {
+        StringBuilder sql = new StringBuilder(" where status = :status");
+        params.put("status", status.name());
+        if (from != null) {
+            sql.append(" and created_at >= :from");
+            params.put("from", Timestamp.valueOf(from));
+        }
+        if (to != null) {
+            sql.append(" and created_at < :to");
+            params.put("to", Timestamp.valueOf(to));
+        }
+        return sql.toString();
+    }
+
+    private static OrderStatusRow toStatusRow(ResultSet rs) throws SQLException {
+        return new OrderStatusRow(
+                rs.getLong("id"),
+                OrderStatus.valueOf(rs.getString("status")),
+                rs.getLong("tire_id"),
+                rs.getInt("quantity"),
+                rs.getObject("unit_price", Integer.class),
+                InstallationOption.valueOf(rs.getString("installation_option")),
+                rs.getTimestamp("created_at").toLocalDateTime().toLocalDate()
+        );
+    }
+
+    private static void setNullableString(PreparedStatement ps, int index, String value) throws SQLException {
+        if (value == null) {
+            ps.setNull(index, Types.VARCHAR);
+        } else {
+            ps.setString(index, value);
+        }
+    }
+
+    // 批次改狀態時鎖住的一筆訂單；createdDate 是建立日期（統計彙總的那一天）
+    public record OrderStatusRow(
+            Long id,
+            OrderStatus status,
+            Long tireId,
+            int quantity,
+            Integer unitPrice,
+            InstallationOption installationOption,
+            LocalDate createdDate
+    ) {
+    }
+}
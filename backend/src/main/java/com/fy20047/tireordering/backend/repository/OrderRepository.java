@@ -1,14 +1,30 @@
 package com.fy20047.tireordering.backend.repository;
 
+import com.fy20047.tireordering.backend.dto.AdminOrderResponse;
 import com.fy20047.tireordering.backend.entity.Order;
-import com.fy20047.tireordering.backend.enums.OrderStatus;
-import java.util.List;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.Set;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
-public interface OrderRepository extends JpaRepository<Order, Long> {
-    // 取得全部訂單（新到舊）
-    List<Order> findAllByOrderByCreatedAtDesc();
+// 後台列表的分頁投影查詢在 OrderViewRepository
+public interface OrderRepository extends JpaRepository<Order, Long>, OrderViewRepository {
 
-    // 依狀態篩選
-    List<Order> findByStatusOrderByCreatedAtDesc(OrderStatus status);
+    // 單筆訂單（連同輪胎一起 join 出來，避免之後再查一次）
+    @EntityGraph(attributePaths = "tire")
+    Optional<Order> findWithTireById(Long id);
+
+    // 單筆訂單明細，直接投影成 DTO
+    @Query(OrderViewRepositoryImpl.DETAIL_SELECT + " where o.id = :id")
+    Optional<AdminOrderResponse> findDetailById(@Param("id") Long id);
+
+    // journal 模式：用暫時編號查訂單是否已寫入
+    Optional<Order> findByIntakeRef(String intakeRef);
+
+    // journal 重播去重：這批暫時編號中已經寫進 DB 的
+    @Query("select o.intakeRef from Order o where o.intakeRef in :refs")
+    Set<String> findExistingIntakeRefs(@Param("refs") Collection<String> refs);
 }
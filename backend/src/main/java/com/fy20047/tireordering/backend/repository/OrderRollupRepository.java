@@ -0,0 +1,156 @@
+package com.fy20047.tireordering.backend.repository;
+
+import com.fy20047.tireordering.backend.dto.AdminStatsResponse.DailyStatus;
+import com.fy20047.tireordering.backend.dto.AdminStatsResponse.InstallationMix;
+import com.fy20047.tireordering.backend.dto.AdminStatsResponse.TireSales;
+import com.fy20047.tireordering.backend.enums.InstallationOption;
+import com.fy20047.tireordering.backend.enums.OrderStatus;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+// order_rollups 的讀寫：累加是一條批次 upsert，統計查詢只掃日期區間內的彙總列
+// 會加入目前的 JPA 交易（同一條連線），呼叫端負責開交易
+@Repository
+public class OrderRollupRepository {
+
+    // 同一格已存在就累加（delta 可以是負的）
+    private static final String UPSERT_SQL = """
+            insert into order_rollups (order_date, status, tire_id, installation_option, order_count, units, revenue)
+            values (?, ?, ?, ?, ?, ?, ?)
+            on duplicate key update order_count = order_count + values(order_count),
+                                    units = units + values(units),
+                                    revenue = revenue + values(revenue)
+            """;
+
+    private static final String REBUILD_SQL = """
+            insert into order_rollups (order_date, status, tire_id, installation_option, order_count, units, revenue)
+            select cast(o.created_at as date), o.status, o.tire_id, o.installation_option,
+                   count(*), sum(o.quantity), sum(o.quantity * coalesce(o.unit_price, 0))
+            from tire_orders o
+            group by cast(o.created_at as date), o.status, o.tire_id, o.installation_option
+            """;
+
+    private static final String DAILY_SQL = """
+            select order_date, status, sum(order_count) orders, sum(units) units, sum(revenue) revenue
+            from order_rollups
+            where order_date between :from and :to
+            group by order_date, status
+            having sum(order_count) <> 0
+            order by order_date, status
+            """;
+
+    private static final String TIRES_SQL = """
+            select r.tire_id, t.brand, t.series, t.size,
+                   sum(r.order_count) orders, sum(r.units) units, sum(r.revenue) revenue
+            from order_rollups r
+            join tires t on t.id = r.tire_id
+            where r.order_date between :from and :to and r.status <> 'CANCELLED'
+            group by r.tire_id, t.brand, t.series, t.size
+            having sum(r.order_count) <> 0
+            order by revenue desc, units desc, r.tire_id
+            limit :limit
+            """;
+
+    private static final String INSTALLATION_SQL = """
+            select installation_option, sum(order_count) orders, sum(units) units, sum(revenue) revenue
+            from order_rollups
+            where order_date between :from and :to and status <> 'CANCELLED'
+            group by installation_option
+            having sum(order_count) <> 0
+            order by installation_option
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public OrderRollupRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // deltas 請先依 Bucket 排好序：同時有多個交易在加同幾格時，鎖的順序一致才不會 deadlock
+    public void apply(List<Delta> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.getJdbcOperations().batchUpdate(UPSERT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                Delta delta = deltas.get(i);
+                ps.setDate(1, Date.valueOf(delta.bucket().date()));
+                ps.setString(2, delta.bucket().status().name());
+                ps.setLong(3, delta.bucket().tireId());
+                ps.setString(4, delta.bucket().installationOption().name());
+                ps.setLong(5, delta.orders());
+                ps.setLong(6, delta.units());
+                ps.setLong(7, delta.revenue());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return deltas.size();
+            }
+        });
+    }
+
+    // 整張表依 tire_orders 重算，回傳寫出的列數
+    public int rebuild() {
+        jdbcTemplate.getJdbcOperations().update("delete from order_rollups");
+        return jdbcTemplate.getJdbcOperations().update(REBUILD_SQL);
+    }
+
+    // 彙總裡的訂單總數
+    public long sumOrders() {
+        Long sum = jdbcTemplate.getJdbcOperations()
+                .queryForObject("select coalesce(sum(order_count), 0) from order_rollups", Long.class);
+        return sum == null ? 0 : sum;
+    }
+
+    public List<DailyStatus> findDaily(LocalDate from, LocalDate to) {
+        return jdbcTemplate.query(DAILY_SQL, range(from, to), (rs, rowNum) -> new DailyStatus(
+                rs.getDate("order_date").toLocalDate(),
+                OrderStatus.valueOf(rs.getString("status")),
+                rs.getLong("orders"),
+                rs.getLong("units"),
+                rs.getLong("revenue")
+        ));
+    }
+
+    public List<TireSales> findTopTires(LocalDate from, LocalDate to, int limit) {
+        Map<String, Object> params = Map.of("from", Date.valueOf(from), "to", Date.valueOf(to), "limit", limit);
+        return jdbcTemplate.query(TIRES_SQL, params, (rs, rowNum) -> new TireSales(
+                rs.getLong("tire_id"),
+                rs.getString("brand"),
+                rs.getString("series"),
+                rs.getString("size"),
+                rs.getLong("orders"),
+                rs.getLong("units"),
+                rs.getLong("revenue")
+        ));
+    }
+
+    public List<InstallationMix> findInstallationMix(LocalDate from, LocalDate to) {
+        return jdbcTemplate.query(INSTALLATION_SQL, range(from, to), (rs, rowNum) -> new InstallationMix(
+                InstallationOption.valueOf(rs.getString("installation_option")),
+                rs.getLong("orders"),
+                rs.getLong("units"),
+                rs.getLong("revenue")
+        ));
+    }
+
+    private static Map<String, Object> range(LocalDate from, LocalDate to) {
+        return Map.of("from", Date.valueOf(from), "to", Date.valueOf(to));
+    }
+
+    // 彙總的一格
+    public record Bucket(LocalDate date, OrderStatus status, Long tireId, InstallationOption installationOption) {
+    }
+
+    public record Delta(Bucket bucket, long orders, long units, long revenue) {
+    }
+}
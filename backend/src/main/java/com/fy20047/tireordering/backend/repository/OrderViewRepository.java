@@ -0,0 +1,41 @@
+package com.fy20047.tireordering.backend.repository;
+
+import com.fy20047.tireordering.backend.dto.AdminOrderResponse;
+import com.fy20047.tireordering.backend.dto.AdminOrderSummaryResponse;
+import com.fy20047.tireordering.backend.enums.OrderStatus;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+// 後台訂單列表的 DTO 投影查詢（訂單 join 輪胎，一頁一個 SQL，不載入 Entity）
+// 依條件組出不同的 where，讓每一頁都能走 (status, created_at, id) / (created_at, id) 索引
+public interface OrderViewRepository {
+
+    // afterCreatedAt / afterId 為 null 表示第一頁
+    List<AdminOrderResponse> findOrderPage(
+            OrderStatus status,
+            LocalDateTime afterCreatedAt,
+            Long afterId,
+            int limit
+    );
+
+    // 精簡版：不選 TEXT 欄位（delivery_address、notes）
+    List<AdminOrderSummaryResponse> findOrderSummaryPage(
+            OrderStatus status,
+            LocalDateTime afterCreatedAt,
+            Long afterId,
+            int limit
+    );
+
+    // 一次查多筆訂單明細（依 id 排序）；不存在的 id 略過
+    List<AdminOrderResponse> findDetails(Collection<Long> ids);
+
+    // 匯出用：forward-only cursor 逐筆串流（必須在交易內使用並關閉 Stream）
+    // createdFrom 含、createdTo 不含；條件為 null 表示不篩選
+    Stream<AdminOrderResponse> streamOrders(
+            OrderStatus status,
+            LocalDateTime createdFrom,
+            LocalDateTime createdTo
+    );
+}
@@ -0,0 +1,132 @@
+package com.fy20047.tireordering.backend.repository;
+
+import com.fy20047.tireordering.backend.dto.AdminOrderResponse;
+import com.fy20047.tireordering.backend.dto.AdminOrderSummaryResponse;
+import com.fy20047.tireordering.backend.enums.OrderStatus;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
+
+// OrderViewRepository 的實作，Spring Data 會自動併進 OrderRepository
+class OrderViewRepositoryImpl implements OrderViewRepository {
+
+    // 匯出時每次從 DB 抓回的筆數：MariaDB driver 設了 fetch size 才會改成串流讀取，而不是整個結果集先載進記憶體
+    private static final int EXPORT_FETCH_SIZE = 500;
+
+    static final String DETAIL_SELECT = """
+            select new com.fy20047.tireordering.backend.dto.AdminOrderResponse(
+                o.id, o.status, o.quantity, o.customerName, o.phone, o.email, o.installationOption,
+                o.deliveryAddress, o.carModel, o.notes, o.createdAt, o.updatedAt,
+                t.id, t.brand, t.series, t.origin, t.size, t.price)
+            from Order o join o.tire t
+            """;
+
+    private static final String SUMMARY_SELECT = """
+            select new com.fy20047.tireordering.backend.dto.AdminOrderSummaryResponse(
+                o.id, o.status, o.quantity, o.customerName, o.phone, o.email, o.installationOption,
+                o.carModel, o.createdAt, o.updatedAt,
+                t.id, t.brand, t.series, t.origin, t.size, t.price)
+            from Order o join o.tire t
+            """;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<AdminOrderResponse> findOrderPage(
+            OrderStatus status,
+            LocalDateTime afterCreatedAt,
+            Long afterId,
+            int limit
+    ) {
+        return page(DETAIL_SELECT, AdminOrderResponse.class, status, afterCreatedAt, afterId, limit);
+    }
+
+    @Override
+    public List<AdminOrderSummaryResponse> findOrderSummaryPage(
+            OrderStatus status,
+            LocalDateTime afterCreatedAt,
+            Long afterId,
+            int limit
+    ) {
+        return page(SUMMARY_SELECT, AdminOrderSummaryResponse.class, status, afterCreatedAt, afterId, limit);
+    }
+
+    @Override
+    public List<AdminOrderResponse> findDetails(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return entityManager.createQuery(DETAIL_SELECT + " where o.id in :ids order by o.id", AdminOrderResponse.class)
+                .setParameter("ids", ids)
+                .getResultList();
+    }
+
+    @Override
+    public Stream<AdminOrderResponse> streamOrders(
+            OrderStatus status,
+            LocalDateTime createdFrom,
+            LocalDateTime createdTo
+    ) {
+        StringBuilder jpql = new StringBuilder(DETAIL_SELECT).append(" where 1 = 1");
+        if (status != null) {
+            jpql.append(" and o.status = :status");
+        }
+        if (createdFrom != null) {
+            jpql.append(" and o.createdAt >= :createdFrom");
+        }
+        if (createdTo != null) {
+            jpql.append(" and o.createdAt < :createdTo");
+        }
+        jpql.append(" order by o.createdAt, o.id");
+
+        TypedQuery<AdminOrderResponse> query = entityManager.createQuery(jpql.toString(), AdminOrderResponse.class)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, EXPORT_FETCH_SIZE)
+                .setHint(HibernateHints.HINT_READ_ONLY, true);
+        if (status != null) {
+            query.setParameter("status", status);
+        }
+        if (createdFrom != null) {
+            query.setParameter("createdFrom", createdFrom);
+        }
+        if (createdTo != null) {
+            query.setParameter("createdTo", createdTo);
+        }
+        // DTO 投影不會進 persistence context，串流一百萬筆也不會越積越多
+        return query.getResultStream();
+    }
+
+    private <T> List<T> page(
+            String select,
+            Class<T> view,
+            OrderStatus status,
+            LocalDateTime afterCreatedAt,
+            Long afterId,
+            int limit
+    ) {
+        boolean hasCursor = afterCreatedAt != null && afterId != null;
+        StringBuilder jpql = new StringBuilder(select).append(" where 1 = 1");
+        if (status != null) {
+            jpql.append(" and o.status = :status");
+        }
+        if (hasCursor) {
+            jpql.append(" and (o.createdAt < :createdAt or (o.createdAt = :createdAt and o.id < :id))");
+        }
+        jpql.append(" order by o.createdAt desc, o.id desc");
+
+        TypedQuery<T> query = entityManager.createQuery(jpql.toString(), view);
+        if (status != null) {
+            query.setParameter("status", status);
+        }
+        if (hasCursor) {
+            query.setParameter("createdAt", afterCreatedAt);
+            query.setParameter("id", afterId);
+        }
+        return query.setMaxResults(limit).getResultList();
+    }
+}
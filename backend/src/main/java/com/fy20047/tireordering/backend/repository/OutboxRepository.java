@@ -0,0 +1,136 @@
+package com.fy20047.tireordering.backend.repository;
+
+import com.fy20047.tireordering.backend.entity.OutboxEvent;
+import com.fy20047.tireordering.backend.enums.OutboxStatus;
+import com.fy20047.tireordering.backend.event.OrderChangedEvent;
+import com.fy20047.tireordering.backend.service.OutboxMessage;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+// outbox_events 的讀寫：寫入、領取、回報結果都是整批一條 SQL，不會每筆事件查一次
+// 會加入目前的 JPA 交易（同一條連線），呼叫端負責開交易
+@Repository
+public class OutboxRepository {
+
+    private static final String INSERT_SQL = """
+            insert into outbox_events (handler, event_type, order_id, status, attempts, available_at, created_at)
+            values (?, ?, ?, ?, 0, ?, ?)
+            """;
+
+    // SKIP LOCKED：別的 dispatcher 正在領的列直接跳過，多台機器同時領不會互相等待也不會領到同一筆（MariaDB 10.6+）
+    private static final String CLAIM_SQL = """
+            select id, handler, event_type, order_id, attempts, created_at
+            from outbox_events
+            where status = 'PENDING' and available_at <= :now and handler in (:handlers)
+            order by available_at, id
+            limit :limit
+            for update skip locked
+            """;
+
+    private static final String RETRY_SQL = """
+            update outbox_events set status = ?, available_at = ?, last_error = ? where id = ?
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public OutboxRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void insertAll(List<OutboxEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.getJdbcOperations().batchUpdate(INSERT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                OutboxEvent event = events.get(i);
+                ps.setString(1, event.getHandler());
+                ps.setString(2, event.getEventType().name());
+                ps.setLong(3, event.getOrderId());
+                ps.setString(4, event.getStatus().name());
+                ps.setTimestamp(5, Timestamp.valueOf(event.getAvailableAt()));
+                ps.setTimestamp(6, Timestamp.valueOf(event.getCreatedAt()));
+            }
+
+            @Override
+            public int getBatchSize() {
+                return events.size();
+            }
+        });
+    }
+
+    // 領取最多 limit 筆到時間的事件：鎖住 → 次數 +1、available_at 推到 leaseUntil（租約）→ commit 後鎖就放掉
+    // 處理期間不佔連線也不持有鎖；租約到期還沒回報結果的事件會再被領取
+    public List<OutboxMessage> claim(Collection<String> handlers, int limit, LocalDateTime now, LocalDateTime leaseUntil) {
+        List<OutboxMessage> claimed = jdbcTemplate.query(
+                CLAIM_SQL,
+                Map.of("now", Timestamp.valueOf(now), "handlers", handlers, "limit", limit),
+                (rs, rowNum) -> new OutboxMessage(
+                        rs.getLong("id"),
+                        rs.getString("handler"),
+                        OrderChangedEvent.Type.valueOf(rs.getString("event_type")),
+                        rs.getLong("order_id"),
+                        rs.getInt("attempts") + 1,
+                        rs.getTimestamp("created_at").toLocalDateTime()
+                )
+        );
+        if (!claimed.isEmpty()) {
+            jdbcTemplate.update(
+                    "update outbox_events set attempts = attempts + 1, available_at = :leaseUntil where id in (:ids)",
+                    Map.of("leaseUntil", Timestamp.valueOf(leaseUntil), "ids", claimed.stream().map(OutboxMessage::id).toList())
+            );
+        }
+        return claimed;
+    }
+
+    public void markDone(List<Long> ids, LocalDateTime now) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.update(
+                "update outbox_events set status = 'DONE', processed_at = :now, last_error = null where id in (:ids)",
+                Map.of("now", Timestamp.valueOf(now), "ids", ids)
+        );
+    }
+
+    // 失敗的事件：排定下次重試時間，或標成 FAILED
+    public void markFailed(List<Retry> retries) {
+        if (retries.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.getJdbcOperations().batchUpdate(RETRY_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                Retry retry = retries.get(i);
+                ps.setString(1, retry.status().name());
+                ps.setTimestamp(2, Timestamp.valueOf(retry.availableAt()));
+                ps.setString(3, retry.error());
+                ps.setLong(4, retry.id());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return retries.size();
+            }
+        });
+    }
+
+    public int deleteDoneBefore(LocalDateTime cutoff) {
+        return jdbcTemplate.update(
+                "delete from outbox_events where status = 'DONE' and processed_at < :cutoff",
+                Map.of("cutoff", Timestamp.valueOf(cutoff))
+        );
+    }
+
+    public record Retry(long id, OutboxStatus status, LocalDateTime availableAt, String error) {
+    }
+}
@@ -0,0 +1,182 @@
+package com.fy20047.tireordering.backend.repository;
+
+import com.fy20047.tireordering.backend.entity.Tire;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.stereotype.Repository;
+
+// 輪胎批次匯入：用 JDBC batch 一次送出多筆 INSERT / UPDATE（理由同 OrderBatchRepository：IDENTITY 沒辦法 batch insert）
+// 會加入目前的 JPA 交易（同一條連線），呼叫端負責開交易
+@Repository
+public class TireBatchRepository {
+
+    private static final String INSERT_SQL = """
+            insert into tires (brand, series, origin, size, price, is_active, stock,
+                               width, aspect_ratio, construction, rim_diameter, load_index, speed_rating,
+                               created_at, updated_at)
+            values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    // 庫存不在這裡改（會蓋掉同時間下單扣掉的數量）
+    private static final String UPDATE_SQL = """
+            update tires set price = ?, is_active = ?, updated_at = ? where id = ?
+            """;
+
+    // 只補規格欄位，不改 updated_at（輪胎內容沒變，目錄的 ETag 也不該變）
+    private static final String UPDATE_SIZE_SQL = """
+            update tires set width = ?, aspect_ratio = ?, construction = ?, rim_diameter = ?,
+                             load_index = ?, speed_rating = ?
+            where id = ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public TireBatchRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // 逐筆讀出所有輪胎的比對用欄位（不載入成 entity）
+    public void forEachKey(Consumer<Tire> consumer) {
+        jdbcTemplate.query(
+                "select id, brand, series, origin, size, price, is_active from tires",
+                rs -> {
+                    int price = rs.getInt("price");
+                    boolean noPrice = rs.wasNull(); // 要緊接在 getInt 之後判斷
+                    consumer.accept(Tire.builder()
+                            .id(rs.getLong("id"))
+                            .brand(rs.getString("brand"))
+                            .series(rs.getString("series"))
+                            .origin(rs.getString("origin"))
+                            .size(rs.getString("size"))
+                            .price(noPrice ? null : price)
+                            .isActive(rs.getBoolean("is_active"))
+                            .build());
+                }
+        );
+    }
+
+    // 寫入後把產生的 id 回填到每個 Tire
+    public void insertAll(List<Tire> tires) {
+        if (tires.isEmpty()) {
+            return;
+        }
+        tires.forEach(Tire::applySize); // 不經過 JPA，@PrePersist 不會執行
+        LocalDateTime now = LocalDateTime.now();
+        GeneratedKeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+                connection -> connection.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        Tire tire = tires.get(i);
+                        ps.setString(1, tire.getBrand());
+                        ps.setString(2, tire.getSeries());
+                        if (tire.getOrigin() == null) {
+                            ps.setNull(3, Types.VARCHAR);
+                        } else {
+                            ps.setString(3, tire.getOrigin());
+                        }
+                        ps.setString(4, tire.getSize());
+                        setPrice(ps, 5, tire.getPrice());
+                        ps.setBoolean(6, tire.isActive());
+                        ps.setInt(7, tire.getStock());
+                        setSize(ps, 8, tire);
+                        ps.setTimestamp(14, Timestamp.valueOf(now));
+                        ps.setTimestamp(15, Timestamp.valueOf(now));
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return tires.size();
+                    }
+                },
+                keyHolder
+        );
+
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        for (int i = 0; i < tires.size(); i++) {
+            tires.get(i).setId(((Number) keys.get(i).values().iterator().next()).longValue());
+        }
+    }
+
+    // 只更新價格與上下架
+    public void updateAll(List<Tire> tires) {
+        if (tires.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(UPDATE_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                Tire tire = tires.get(i);
+                setPrice(ps, 1, tire.getPrice());
+                ps.setBoolean(2, tire.isActive());
+                ps.setTimestamp(3, now);
+                ps.setLong(4, tire.getId());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return tires.size();
+            }
+        });
+    }
+
+    // 還沒有規格欄位（加欄位前的舊資料，或解析不了的尺寸）且 id 大於 afterId 的輪胎，依 id 排序，只帶 id 與 size
+    public List<Tire> findWithoutSize(long afterId, int limit) {
+        return jdbcTemplate.query(
+                "select id, size from tires where width is null and id > ? order by id limit ?",
+                (rs, rowNum) -> Tire.builder().id(rs.getLong("id")).size(rs.getString("size")).build(),
+                afterId,
+                limit
+        );
+    }
+
+    // 寫入已經 applySize 過的規格欄位
+    public void updateSizes(List<Tire> tires) {
+        if (tires.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(UPDATE_SIZE_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                Tire tire = tires.get(i);
+                setSize(ps, 1, tire);
+                ps.setLong(7, tire.getId());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return tires.size();
+            }
+        });
+    }
+
+    // 從 from 開始依序寫入 6 個規格欄位
+    private static void setSize(PreparedStatement ps, int from, Tire tire) throws SQLException {
+        ps.setObject(from, tire.getWidth(), Types.INTEGER);
+        ps.setObject(from + 1, tire.getAspectRatio(), Types.INTEGER);
+        ps.setObject(from + 2, tire.getConstruction(), Types.VARCHAR);
+        ps.setObject(from + 3, tire.getRimDiameter(), Types.DECIMAL);
+        ps.setObject(from + 4, tire.getLoadIndex(), Types.INTEGER);
+        ps.setObject(from + 5, tire.getSpeedRating(), Types.VARCHAR);
+    }
+
+    private static void setPrice(PreparedStatement ps, int index, Integer price) throws SQLException {
+        if (price == null) {
+            ps.setNull(index, Types.INTEGER);
+        } else {
+            ps.setInt(index, price);
+        }
+    }
+}
@@ -1,28 +1,72 @@
 package com.fy20047.tireordering.backend.repository;
 
 import com.fy20047.tireordering.backend.entity.Tire;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
-public interface TireRepository extends JpaRepository<Tire, Long> {
+// 依規格查詢走 JpaSpecificationExecutor（條件見 TireSpecifications）
+public interface TireRepository extends JpaRepository<Tire, Long>, JpaSpecificationExecutor<Tire> {
 
     @Query("select t from Tire t where t.isActive = true order by t.brand, t.series, t.size")
     List<Tire> findActiveTires();
 
+    // 後台搜尋（搜尋索引還沒建好時的退路）：部分比對、不分大小寫；輸入的 % 與 _ 當一般字元，跟 TireSearchIndex 一致
+    default List<Tire> search(String brand, String series, String size, Boolean active) {
+        return searchLike(likeLiteral(brand), likeLiteral(series), likeLiteral(size), active);
+    }
+
+    // 參數需先經過 likeLiteral 跳脫（用 ! 當跳脫字元：MariaDB 的字串常數裡 \ 本身也是跳脫字元，寫在 SQL 裡各家不一致）
     @Query("""
             select t from Tire t
-            where (:brand is null or lower(t.brand) like lower(concat('%', :brand, '%')))
-              and (:series is null or lower(t.series) like lower(concat('%', :series, '%')))
-              and (:size is null or lower(t.size) like lower(concat('%', :size, '%')))
+            where (:brand is null or lower(t.brand) like lower(concat('%', :brand, '%')) escape '!')
+              and (:series is null or lower(t.series) like lower(concat('%', :series, '%')) escape '!')
+              and (:size is null or lower(t.size) like lower(concat('%', :size, '%')) escape '!')
               and (:active is null or t.isActive = :active)
             order by t.brand, t.series, t.size
             """)
-    List<Tire> search(
+    List<Tire> searchLike(
             @Param("brand") String brand,
             @Param("series") String series,
             @Param("size") String size,
             @Param("active") Boolean active
     );
+
+    // 條件式 GET 用：只查更新時間，不載入整筆輪胎
+    @Query("select t.updatedAt from Tire t where t.id = :id")
+    Optional<LocalDateTime> findUpdatedAtById(@Param("id") Long id);
+
+    // 所有輪胎（含下架）中最後一次異動的時間，作為目錄的 Last-Modified
+    @Query("select max(t.updatedAt) from Tire t")
+    Optional<LocalDateTime> findLastUpdatedAt();
+
+    // 扣庫存：單一條件式 UPDATE，庫存不足時不更新（回傳 0），不會超賣
+    @Modifying
+    @Query("update Tire t set t.stock = t.stock - :quantity where t.id = :id and t.stock >= :quantity")
+    int reserveStock(@Param("id") Long id, @Param("quantity") int quantity);
+
+    // 還庫存（取消訂單）
+    @Modifying
+    @Query("update Tire t set t.stock = t.stock + :quantity where t.id = :id")
+    int releaseStock(@Param("id") Long id, @Param("quantity") int quantity);
+
+    // 盤點後直接設定庫存
+    @Modifying(clearAutomatically = true)
+    @Query("update Tire t set t.stock = :stock where t.id = :id")
+    int updateStock(@Param("id") Long id, @Param("stock") int stock);
+
+    @Query("select t.stock from Tire t where t.id = :id")
+    Optional<Integer> findStockById(@Param("id") Long id);
+
+    private static String likeLiteral(String value) {
+        if (value == null) {
+            return null;
+        }
+        return value.replace("!", "!!").replace("%", "!%").replace("_", "!_");
+    }
 }
@@ -0,0 +1,36 @@
+package com.fy20047.tireordering.backend.repository;
+
+import com.fy20047.tireordering.backend.entity.Tire;
+import java.math.BigDecimal;
+import org.springframework.data.jpa.domain.Specification;
+
+// 依規格找輪胎的查詢條件（搭配 TireRepository 的 JpaSpecificationExecutor）
+// 只組出有給的條件：不用 ":x is null or ..." 的寫法，SQL 只剩真正的比較，才能走 idx_tires_fitment 的範圍掃描
+public final class TireSpecifications {
+
+    private TireSpecifications() {
+    }
+
+    public static Specification<Tire> active() {
+        return (root, query, cb) -> cb.isTrue(root.get("isActive"));
+    }
+
+    public static Specification<Tire> rimDiameter(BigDecimal rimDiameter) {
+        return (root, query, cb) -> cb.equal(root.get("rimDiameter"), rimDiameter);
+    }
+
+    // min / max 為 null 表示不限
+    public static Specification<Tire> between(String attribute, Integer min, Integer max) {
+        return (root, query, cb) -> {
+            if (min != null && max != null) {
+                return min.equals(max)
+                        ? cb.equal(root.get(attribute), min)
+                        : cb.between(root.get(attribute), min, max);
+            }
+            if (min != null) {
+                return cb.greaterThanOrEqualTo(root.get(attribute), min);
+            }
+            return max == null ? null : cb.lessThanOrEqualTo(root.get(attribute), max);
+        };
+    }
+}
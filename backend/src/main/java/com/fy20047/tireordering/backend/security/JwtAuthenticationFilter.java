@@ -1,8 +1,10 @@
 package com.fy20047.tireordering.backend.security;
 
+import com.fy20047.tireordering.backend.config.JwtProperties;
 import io.jsonwebtoken.Claims;
 import java.io.IOException;
 import java.util.List;
+import org.springframework.util.AntPathMatcher;
 import org.springframework.http.HttpHeaders;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -22,9 +24,30 @@ import jakarta.servlet.http.HttpServletResponse;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
+    private final List<String> publicPaths;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
 
-    public JwtAuthenticationFilter(JwtService jwtService) {
+    public JwtAuthenticationFilter(JwtService jwtService, JwtProperties properties) {
         this.jwtService = jwtService;
+        this.publicPaths = properties.publicPaths();
+    }
+
+    // 公開 API（例如 /api/tires/**）不需要登入身份，整個略過，不解析 token
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (String pattern : publicPaths) {
+            if (pathMatcher.match(pattern, path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // 串流回應（StreamingResponseBody 等非同步處理）完成時會再 dispatch 一次，也要帶著登入身份，否則會被擋成 403
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
     }
 
     @Override
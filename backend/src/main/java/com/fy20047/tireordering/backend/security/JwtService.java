@@ -3,11 +3,17 @@ package com.fy20047.tireordering.backend.security;
 import com.fy20047.tireordering.backend.config.JwtProperties;
 import com.fy20047.tireordering.backend.entity.Admin;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.Instant;
+import java.util.Base64;
 import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import javax.crypto.SecretKey;
 import org.springframework.stereotype.Service;
 
@@ -15,15 +21,21 @@ import org.springframework.stereotype.Service;
 // 讓 Controller / Service 不需要自己處理 token
 // 任何 JWT 失敗都會丟例外
 // secret 長度不足會報 WeakKeyException
+// parser 只建一次重複使用；驗證過的 token 依 SHA-256 雜湊快取到過期為止，同一個 token 不用每次重算 HMAC
 @Service
 public class JwtService {
 
     private final SecretKey secretKey;
     private final long expirationSeconds;
+    private final JwtParser parser;
+    private final int cacheMaxSize;
+    private final Map<String, VerifiedToken> verifiedTokens = new ConcurrentHashMap<>();
 
     public JwtService(JwtProperties properties) { // 避免寫死，使用 JwtProperties 讀取設定檔與環境變數
         this.secretKey = Keys.hmacShaKeyFor(properties.secret().getBytes(StandardCharsets.UTF_8));
         this.expirationSeconds = properties.expirationSeconds();
+        this.parser = Jwts.parser().verifyWith(secretKey).build(); // JwtParser 是 thread-safe，可共用
+        this.cacheMaxSize = properties.cacheMaxSize();
     }
 
     // 寫登入流程（產 token）- 2. 發 token
@@ -39,10 +51,49 @@ public class JwtService {
     }
 
     public Claims parseToken(String token) {
-        return Jwts.parser()
-                .verifyWith(secretKey)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        if (cacheMaxSize <= 0) {
+            return parser.parseSignedClaims(token).getPayload();
+        }
+
+        String key = hash(token);
+        VerifiedToken cached = verifiedTokens.get(key);
+        long now = System.currentTimeMillis();
+        if (cached != null) {
+            if (now < cached.expiresAtMillis()) {
+                return cached.claims();
+            }
+            verifiedTokens.remove(key, cached); // 過期了：交給 parser 丟出 ExpiredJwtException
+        }
+
+        Claims claims = parser.parseSignedClaims(token).getPayload();
+        Date expiration = claims.getExpiration();
+        if (expiration != null) {
+            remember(key, new VerifiedToken(claims, expiration.getTime()), now);
+        }
+        return claims;
+    }
+
+    // 容量滿了先清掉過期的；還是滿的就不快取（照常驗證，只是少了加速）
+    private void remember(String key, VerifiedToken token, long now) {
+        if (verifiedTokens.size() >= cacheMaxSize) {
+            verifiedTokens.values().removeIf(entry -> entry.expiresAtMillis() <= now);
+            if (verifiedTokens.size() >= cacheMaxSize) {
+                return;
+            }
+        }
+        verifiedTokens.put(key, token);
+    }
+
+    // 快取 key 用 token 的雜湊，不在記憶體裡多留一份原始 token
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private record VerifiedToken(Claims claims, long expiresAtMillis) {
     }
 }
@@ -5,6 +5,7 @@ import com.fy20047.tireordering.backend.repository.AdminRepository;
 import com.fy20047.tireordering.backend.security.JwtService;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 // 管理員登入驗證（密碼比對、產生 token）
@@ -15,17 +16,25 @@ public class AdminService {
     private final AdminRepository adminRepository;
     private final PasswordEncoder passwordEncoder;
     private final JwtService jwtService;
+    // 帳號不存在時拿來比對的假 hash，讓「帳號不存在」和「密碼錯誤」花一樣的時間，無法用回應時間猜帳號
+    private final String dummyPasswordHash;
 
     public AdminService(AdminRepository adminRepository, PasswordEncoder passwordEncoder, JwtService jwtService) {
         this.adminRepository = adminRepository;
         this.passwordEncoder = passwordEncoder;
         this.jwtService = jwtService;
+        this.dummyPasswordHash = passwordEncoder.encode("dummy-password-for-unknown-users");
     }
 
     // 寫登入流程（產 token）- 1. 驗證帳密
+    // 不開交易：查帳號用 repository 自己的短交易，BCrypt 比對（最花時間）時不佔著 DB 連線
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public String login(String username, String password) {
-        Admin admin = adminRepository.findByUsername(username)
-                .orElseThrow(() -> new IllegalArgumentException("Invalid username or password"));
+        Admin admin = adminRepository.findByUsername(username).orElse(null);
+        if (admin == null) {
+            passwordEncoder.matches(password, dummyPasswordHash);
+            throw new IllegalArgumentException("Invalid username or password");
+        }
 
         // 將使用者輸入的密碼去比對資料庫裡的 hash
         if (!passwordEncoder.matches(password, admin.getPasswordHash())) {
@@ -0,0 +1,93 @@
+package com.fy20047.tireordering.backend.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+// 逐筆讀 CSV（RFC 4180：雙引號包住的欄位可以含逗號與換行，"" 代表一個 "），不會把整個檔案讀進記憶體
+// 只用在匯入，單一欄位超過 MAX_FIELD_LENGTH 視為檔案格式錯誤（避免沒有結尾引號時一路讀到檔尾）
+final class CsvReader {
+
+    private static final int MAX_FIELD_LENGTH = 10_000;
+    private static final int NONE = -2;
+
+    private final Reader reader;
+    private int line = 1; // 目前讀到第幾行
+    private int recordLine; // 最近一筆的起始行
+    private int pending = NONE;
+
+    CsvReader(Reader reader) {
+        this.reader = new BufferedReader(reader);
+    }
+
+    // 下一筆的所有欄位；檔案結束回傳 null，空白行回傳只有一個空字串的清單
+    List<String> next() throws IOException {
+        int c = read();
+        if (c == -1) {
+            return null;
+        }
+        recordLine = line;
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    throw new IllegalArgumentException("Unterminated quoted field at line " + recordLine);
+                }
+                if (c == '"') {
+                    int next = read();
+                    if (next != '"') {
+                        quoted = false;
+                        c = next;
+                        continue;
+                    }
+                }
+                append(field, c);
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\r' || c == '\n' || c == -1) {
+                if (c == '\r') {
+                    int next = read();
+                    if (next != '\n') {
+                        pending = next;
+                    }
+                }
+                fields.add(field.toString());
+                return fields;
+            } else {
+                append(field, c);
+            }
+            c = read();
+        }
+    }
+
+    int recordLine() {
+        return recordLine;
+    }
+
+    private void append(StringBuilder field, int c) {
+        if (field.length() >= MAX_FIELD_LENGTH) {
+            throw new IllegalArgumentException("Field too long at line " + recordLine);
+        }
+        field.append((char) c);
+    }
+
+    private int read() throws IOException {
+        if (pending != NONE) {
+            int c = pending;
+            pending = NONE;
+            return c;
+        }
+        int c = reader.read();
+        if (c == '\n') {
+            line++;
+        }
+        return c;
+    }
+}
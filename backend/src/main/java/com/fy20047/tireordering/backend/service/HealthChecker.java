@@ -0,0 +1,163 @@
+package com.fy20047.tireordering.backend.service;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.datasource.SimpleDriverDataSource;
+import org.springframework.stereotype.Component;
+
+// 背景定時檢查 DB，結果放在記憶體；/health 只讀結果，不會向連線池要連線
+// 檢查用自己的一條連線（不經過連線池），連線池滿了也不會卡住檢查，也不會佔用正式流量的連線
+// 每次檢查有自己的 timeout；逾時就當作 DOWN，並丟掉那條連線下次重連
+// 太久沒有新結果（檢查執行緒卡住）也視為 DOWN
+// 排程用自己的執行緒，不跟其他 @Scheduled 工作（purge、replica 檢查）搶，它們跑很久也不會讓結果過期
+// 同一時間只有一個檢查在跑：上一個卡住還沒結束就不再排新的（直接記 DOWN），DB 卡死時不會越積越多
+@Component
+public class HealthChecker implements InitializingBean, DisposableBean {
+
+    private final DataSource checkDataSource;
+    private final Duration interval;
+    private final Duration timeout;
+    private final Duration staleAfter;
+    private final ScheduledExecutorService scheduler;
+    private final ExecutorService executor;
+    private final AtomicReference<DbStatus> status = new AtomicReference<>(DbStatus.unknown());
+    private Connection connection; // 只在 executor 執行緒使用
+    private volatile boolean discardConnection; // 上次逾時：下次檢查先丟掉舊連線
+
+    public HealthChecker(
+            DataSourceProperties dataSourceProperties,
+            @Value("${health.check.interval:5s}") Duration interval,
+            @Value("${health.check.timeout:2s}") Duration timeout
+    ) {
+        this.checkDataSource = dataSourceProperties.initializeDataSourceBuilder()
+                .type(SimpleDriverDataSource.class)
+                .build();
+        this.interval = interval;
+        this.timeout = timeout;
+        this.staleAfter = interval.multipliedBy(3).plus(timeout);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(daemon("health-check-scheduler"));
+        // 沒有等待佇列：檢查執行緒還在忙（上一個卡住）時直接拒絕
+        this.executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new SynchronousQueue<>(),
+                daemon("health-checker"));
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        scheduler.scheduleWithFixedDelay(this::check, 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    // 目前的 DB 狀態（微秒等級，不碰 DB）
+    public DbStatus current() {
+        DbStatus snapshot = status.get();
+        if (snapshot.checkedAt() != null && snapshot.checkedAt().plus(staleAfter).isBefore(Instant.now())) {
+            return new DbStatus(false, snapshot.checkedAt(), snapshot.latencyMillis(), "Health check is stale");
+        }
+        return snapshot;
+    }
+
+    public void check() {
+        long start = System.nanoTime();
+        Future<?> probe;
+        try {
+            probe = executor.submit(this::validate);
+        } catch (RejectedExecutionException e) {
+            status.set(new DbStatus(false, Instant.now(), 0, "Previous check is still running"));
+            return;
+        }
+        try {
+            probe.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            status.set(new DbStatus(true, Instant.now(), elapsedMillis(start), null));
+        } catch (TimeoutException e) {
+            probe.cancel(true);
+            discardConnection = true;
+            status.set(new DbStatus(false, Instant.now(), elapsedMillis(start), "Timed out after " + timeout.toMillis() + " ms"));
+        } catch (ExecutionException e) {
+            status.set(new DbStatus(false, Instant.now(), elapsedMillis(start), e.getCause().getMessage()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void validate() {
+        if (discardConnection) {
+            discardConnection = false;
+            closeConnection();
+        }
+        try {
+            if (connection == null || connection.isClosed()) {
+                connection = checkDataSource.getConnection();
+            }
+            int seconds = (int) Math.max(1, timeout.toSeconds());
+            if (!connection.isValid(seconds)) {
+                closeConnection();
+                throw new IllegalStateException("Database connection is not valid");
+            }
+        } catch (SQLException e) {
+            closeConnection();
+            throw new IllegalStateException(e.getMessage(), e);
+        }
+    }
+
+    private void closeConnection() {
+        if (connection == null) {
+            return;
+        }
+        try {
+            connection.close();
+        } catch (SQLException ignored) {
+            // 要丟掉的連線，關不掉也沒關係
+        } finally {
+            connection = null;
+        }
+    }
+
+    private static long elapsedMillis(long start) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+
+    private static ThreadFactory daemon(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+        try {
+            executor.execute(this::closeConnection);
+        } catch (RejectedExecutionException ignored) {
+            // 檢查還卡著，連線留給行程結束時關
+        }
+        executor.shutdown();
+    }
+
+    // 最後一次檢查結果；checkedAt 為 null 表示還沒檢查過
+    public record DbStatus(boolean up, Instant checkedAt, long latencyMillis, String message) {
+
+        static DbStatus unknown() {
+            return new DbStatus(false, null, 0, "Not checked yet");
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.fy20047.tireordering.backend.service;
+
+// 同一個 Idempotency-Key 送了不同內容（回 422）：不是重送，也不能當成新請求
+public class IdempotencyKeyReusedException extends RuntimeException {
+
+    public IdempotencyKeyReusedException() {
+        super("Idempotency-Key was already used for a different request");
+    }
+}
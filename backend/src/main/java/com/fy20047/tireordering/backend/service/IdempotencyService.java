@@ -0,0 +1,221 @@
+package com.fy20047.tireordering.backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fy20047.tireordering.backend.entity.IdempotencyRecord;
+import com.fy20047.tireordering.backend.repository.IdempotencyRecordRepository;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+// POST /api/orders 的 Idempotency-Key 去重
+// 第一層：記憶體 map（key -> 執行中 / 已完成的結果，保留 memory-ttl，最多 memory-max-entries 筆）；重送直接拿結果，不碰 DB
+//        同一個 key 同時進來的請求共用同一次執行（後到的等先到的結果）
+// 第二層：idempotency_keys 資料表（唯一 key，保留 retention），重啟、多台機器或記憶體已清掉時靠它
+//        直接寫 DB 時跟訂單同一個交易寫入；journal 模式由 drainer 寫訂單時一起寫入
+// 同一個 key 送不同內容回 422
+@Service
+public class IdempotencyService {
+
+    private static final int MAX_KEY_LENGTH = 100;
+
+    private final OrderService orderService;
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final ObjectMapper objectMapper;
+    private final long memoryTtlNanos;
+    private final Duration retention;
+    private final int memoryMaxEntries;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    public IdempotencyService(
+            OrderService orderService,
+            IdempotencyRecordRepository idempotencyRecordRepository,
+            ObjectMapper objectMapper,
+            @Value("${orders.idempotency.memory-ttl:10m}") Duration memoryTtl,
+            @Value("${orders.idempotency.retention:24h}") Duration retention,
+            @Value("${orders.idempotency.memory-max-entries:10000}") int memoryMaxEntries
+    ) {
+        this.orderService = orderService;
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.objectMapper = objectMapper;
+        this.memoryTtlNanos = memoryTtl.toNanos();
+        this.retention = retention;
+        this.memoryMaxEntries = memoryMaxEntries;
+    }
+
+    // 直接寫 DB 的收單：同一個 key 只會成立一筆訂單，重送拿到第一次的結果
+    public IdempotencyRecord createOrder(String key, OrderService.CreateOrderCommand command) {
+        String requestHash = fingerprint(command);
+        return execute(key, requestHash, () -> {
+            Optional<IdempotencyRecord> stored = idempotencyRecordRepository.findByIdempotencyKey(key);
+            if (stored.isPresent()) {
+                return checked(stored.get(), requestHash);
+            }
+            try {
+                return orderService.createOrder(command, key, requestHash);
+            } catch (DataIntegrityViolationException e) {
+                // 另一台機器剛好用同一個 key 先寫入了，我們這筆已 rollback，回傳對方的結果
+                return checked(idempotencyRecordRepository.findByIdempotencyKey(key).orElseThrow(() -> e), requestHash);
+            }
+        });
+    }
+
+    // journal 收單：暫時編號由 key 推出來，重送會得到同一個編號，寫入 DB 時靠 intake_ref 去重
+    // key 與 requestHash 跟著寫進 journal，drainer 寫訂單時一起存進 idempotency_keys；
+    // 記憶體裡沒有時先查 DB，已經寫入的 key 換了內容一樣回 422
+    public JournaledOrder acceptOrder(
+            String key,
+            OrderService.CreateOrderCommand command,
+            OrderIntakeService orderIntake
+    ) {
+        String requestHash = fingerprint(command);
+        String reference = UUID.nameUUIDFromBytes(("idempotency:" + key).getBytes(StandardCharsets.UTF_8)).toString();
+        return execute(key, requestHash, () -> {
+            Optional<IdempotencyRecord> stored = idempotencyRecordRepository.findByIdempotencyKey(key);
+            if (stored.isPresent()) {
+                checked(stored.get(), requestHash);
+                return new JournaledOrder(reference, stored.get().getCreatedAt(), command, key, requestHash);
+            }
+            return orderIntake.accept(command, reference, key, requestHash);
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T execute(String key, String requestHash, Supplier<T> action) {
+        validateKey(key);
+        while (true) {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.isExpired(System.nanoTime())) {
+                entries.remove(key, entry);
+                continue;
+            }
+            if (entry != null) {
+                if (!entry.requestHash.equals(requestHash)) {
+                    throw new IdempotencyKeyReusedException();
+                }
+                return (T) await(entry.result);
+            }
+
+            if (entries.size() >= memoryMaxEntries && !trim()) {
+                throw new RejectedExecutionException("Too many idempotent requests in flight");
+            }
+            Entry created = new Entry(requestHash);
+            if (entries.putIfAbsent(key, created) != null) {
+                continue; // 同時有人搶先放進去，回頭等它的結果
+            }
+            try {
+                T value = action.get();
+                created.complete(value, System.nanoTime() + memoryTtlNanos);
+                return value;
+            } catch (RuntimeException e) {
+                // 失敗不記住，讓客戶端可以用同一個 key 重試
+                entries.remove(key, created);
+                created.result.completeExceptionally(e);
+                throw e;
+            }
+        }
+    }
+
+    // 清掉記憶體中過期的結果與 DB 中超過保存期限的 key
+    @Scheduled(fixedDelayString = "${orders.idempotency.purge-interval:1m}")
+    @Transactional
+    public void purge() {
+        long now = System.nanoTime();
+        entries.entrySet().removeIf(item -> item.getValue().isExpired(now));
+        idempotencyRecordRepository.deleteCreatedBefore(LocalDateTime.now().minus(retention));
+    }
+
+    // 記憶體滿了：先清過期的，還不夠再清已完成的（DB 那層仍擋得住重送），清到剩 3/4
+    // 執行中的不能清（同一個 key 的請求正在等它）；全部都在執行中就回 false
+    private synchronized boolean trim() {
+        if (entries.size() < memoryMaxEntries) {
+            return true; // 別的執行緒剛清過
+        }
+        long now = System.nanoTime();
+        entries.entrySet().removeIf(item -> item.getValue().isExpired(now));
+        int target = memoryMaxEntries * 3 / 4;
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (entries.size() > target && iterator.hasNext()) {
+            if (iterator.next().result.isDone()) {
+                iterator.remove();
+            }
+        }
+        return entries.size() < memoryMaxEntries;
+    }
+
+    // 測試用：目前記憶體裡的 key 數
+    int memoryEntries() {
+        return entries.size();
+    }
+
+    private IdempotencyRecord checked(IdempotencyRecord record, String requestHash) {
+        if (!record.getRequestHash().equals(requestHash)) {
+            throw new IdempotencyKeyReusedException();
+        }
+        return record;
+    }
+
+    private String fingerprint(OrderService.CreateOrderCommand command) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(objectMapper.writeValueAsBytes(command)));
+        } catch (NoSuchAlgorithmException | JsonProcessingException e) {
+            throw new IllegalStateException("Failed to fingerprint order request", e);
+        }
+    }
+
+    private static void validateKey(String key) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency-Key must be 1-" + MAX_KEY_LENGTH + " characters");
+        }
+    }
+
+    private static Object await(CompletableFuture<Object> result) {
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    // 一個 key 的執行狀態；完成前 expiresAt 為 Long.MAX_VALUE（不會被清掉）
+    private static final class Entry {
+
+        private final String requestHash;
+        private final CompletableFuture<Object> result = new CompletableFuture<>();
+        private volatile long expiresAt = Long.MAX_VALUE;
+
+        private Entry(String requestHash) {
+            this.requestHash = requestHash;
+        }
+
+        private void complete(Object value, long expiresAt) {
+            this.expiresAt = expiresAt;
+            result.complete(value);
+        }
+
+        private boolean isExpired(long now) {
+            return expiresAt != Long.MAX_VALUE && now - expiresAt > 0;
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package com.fy20047.tireordering.backend.service;
+
+import com.fy20047.tireordering.backend.repository.TireRepository;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// 輪胎庫存的扣除 / 歸還
+// 預設：每筆訂單在下單交易裡做一次條件式 UPDATE（stock >= 數量才扣），訂單 rollback 庫存也一起回來
+// striped 模式（inventory.striped.enabled=true）：熱門商品搶購時，大家都在更新同一列會排隊等 row lock
+//   改成一次從 DB 預扣一批（chunk-size）放在記憶體，分散在多個 AtomicInteger（stripe）上，訂單直接從記憶體扣
+//   預扣用獨立交易立即 commit；訂單 rollback 時數量還回記憶體，正常關機時剩下的還回 DB
+//   代價：記憶體裡的數量在後台看起來是「已扣掉」，程序當掉時這些數量需要靠盤點補回
+//   補貨的獨立交易要另一條連線，同時補貨的數量有上限（max-refills），拿不到名額就直接在下單交易裡扣 DB
+//   下單交易自己已經鎖住某條輪胎的列（直接扣過 / 還過）之後，同一個交易再扣這條輪胎不再補貨（獨立交易會等自己的鎖），改在交易裡直接扣
+@Service
+public class InventoryService implements DisposableBean {
+
+    private static final int REFILL_ATTEMPTS = 3;
+
+    private final TireRepository tireRepository;
+    private final TransactionTemplate refillTransaction;
+    private final boolean striped;
+    private final int chunkSize;
+    private final int stripes;
+    private final Semaphore refillPermits;
+    private final Map<Long, LocalStock> localStocks = new ConcurrentHashMap<>();
+    private final Object rowLocksKey = new Object(); // 目前交易已鎖住的輪胎列（綁在交易上的資源）
+
+    public InventoryService(
+            TireRepository tireRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${inventory.striped.enabled:false}") boolean striped,
+            @Value("${inventory.striped.chunk-size:20}") int chunkSize,
+            @Value("${inventory.striped.max-refills:2}") int maxRefills
+    ) {
+        this.tireRepository = tireRepository;
+        this.refillTransaction = new TransactionTemplate(transactionManager);
+        this.refillTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.striped = striped;
+        this.chunkSize = chunkSize;
+        this.refillPermits = new Semaphore(maxRefills);
+        this.stripes = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors()) * 2);
+    }
+
+    // 扣庫存；需在下單的交易裡呼叫。庫存不足回 false
+    public boolean reserve(Long tireId, int quantity) {
+        if (!striped) {
+            return tireRepository.reserveStock(tireId, quantity) == 1;
+        }
+
+        LocalStock local = localStocks.computeIfAbsent(tireId, id -> new LocalStock(stripes));
+        if (local.tryTake(quantity)) {
+            returnOnRollback(local, quantity);
+            return true;
+        }
+        if (rowLocks().contains(tireId) || !local.refillLock.tryLock()) {
+            // 這個交易已經鎖住這一列（補貨會等自己），或別人正在補貨（不排隊等，等的時候手上握著連線）：直接扣 DB
+            return reserveInTransaction(tireId, quantity);
+        }
+        try {
+            if (local.tryTake(quantity) || local.tryTakeSpread(quantity)) {
+                returnOnRollback(local, quantity);
+                return true;
+            }
+            if (!refillPermits.tryAcquire()) {
+                return reserveInTransaction(tireId, quantity); // 補貨名額用完，不再多拿一條連線
+            }
+            try {
+                if (refill(tireId, local, quantity)) {
+                    returnOnRollback(local, quantity);
+                    return true;
+                }
+                return false;
+            } finally {
+                refillPermits.release();
+            }
+        } finally {
+            local.refillLock.unlock();
+        }
+    }
+
+    // 還庫存（訂單取消）：直接加回 DB，跟著目前的交易 commit
+    public void release(Long tireId, int quantity) {
+        tireRepository.releaseStock(tireId, quantity);
+        if (striped) {
+            rowLocks().add(tireId);
+        }
+    }
+
+    // 盤點：直接設定 DB 庫存；記憶體裡預扣的數量作廢（已包含在盤點數字裡）
+    public void setStock(Long tireId, int stock) {
+        LocalStock local = localStocks.get(tireId);
+        if (local == null) {
+            tireRepository.updateStock(tireId, stock);
+            return;
+        }
+        local.refillLock.lock();
+        try {
+            local.drain();
+            tireRepository.updateStock(tireId, stock);
+        } finally {
+            local.refillLock.unlock();
+        }
+    }
+
+    // 記憶體不夠時從 DB 補一批（呼叫端持有 refillLock，同一時間只有一個執行緒去 DB 補貨）
+    // 用獨立交易立即 commit；拿到的數量先扣掉這筆訂單要的，剩下放進記憶體
+    private boolean refill(Long tireId, LocalStock local, int quantity) {
+        for (int attempt = 0; attempt < REFILL_ATTEMPTS; attempt++) {
+            Integer taken = refillTransaction.execute(status -> {
+                int available = tireRepository.findStockById(tireId).orElse(0);
+                if (available < quantity) {
+                    return 0;
+                }
+                int take = Math.min(available, Math.max(chunkSize, quantity));
+                return tireRepository.reserveStock(tireId, take) == 1 ? take : -1;
+            });
+            if (taken == null || taken == 0) {
+                return false;
+            }
+            if (taken > 0) {
+                local.add(taken - quantity);
+                return true;
+            }
+            // -1：讀到的庫存被別的交易先扣了，重讀再試
+        }
+        return false;
+    }
+
+    // 在呼叫端的交易裡直接扣 DB；這一列的鎖會持有到交易結束（不管有沒有扣成功，UPDATE 都鎖住了這一列）
+    private boolean reserveInTransaction(Long tireId, int quantity) {
+        boolean reserved = tireRepository.reserveStock(tireId, quantity) == 1;
+        rowLocks().add(tireId);
+        return reserved;
+    }
+
+    // 目前交易已鎖住的輪胎列；不在交易裡時回傳用完即丟的空集合（每個語句自己 commit，不會持有鎖）
+    @SuppressWarnings("unchecked")
+    private Set<Long> rowLocks() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return new HashSet<>();
+        }
+        Set<Long> locked = (Set<Long>) TransactionSynchronizationManager.getResource(rowLocksKey);
+        if (locked == null) {
+            Set<Long> created = new HashSet<>();
+            TransactionSynchronizationManager.bindResource(rowLocksKey, created);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(rowLocksKey);
+                }
+            });
+            locked = created;
+        }
+        return locked;
+    }
+
+    // 測試用：取得某條輪胎的補貨鎖
+    ReentrantLock refillLock(Long tireId) {
+        return localStocks.computeIfAbsent(tireId, id -> new LocalStock(stripes)).refillLock;
+    }
+
+    private void returnOnRollback(LocalStock local, int quantity) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    local.add(quantity);
+                }
+            }
+        });
+    }
+
+    // 關機時把記憶體裡預扣的數量還回 DB
+    @Override
+    public void destroy() {
+        localStocks.forEach((tireId, local) -> {
+            int units = local.drain();
+            if (units > 0) {
+                refillTransaction.executeWithoutResult(status -> tireRepository.releaseStock(tireId, units));
+            }
+        });
+    }
+
+    // 一個輪胎在記憶體中的庫存，分散在多個 stripe 上降低 CAS 競爭
+    private static final class LocalStock {
+
+        private final AtomicInteger[] stripes;
+        private final ReentrantLock refillLock = new ReentrantLock();
+
+        private LocalStock(int count) {
+            this.stripes = new AtomicInteger[count];
+            for (int i = 0; i < count; i++) {
+                stripes[i] = new AtomicInteger();
+            }
+        }
+
+        // 從自己的 stripe 開始找，找到夠扣的就扣
+        private boolean tryTake(int quantity) {
+            int start = home();
+            for (int i = 0; i < stripes.length; i++) {
+                AtomicInteger stripe = stripes[(start + i) & (stripes.length - 1)];
+                int current = stripe.get();
+                while (current >= quantity) {
+                    if (stripe.compareAndSet(current, current - quantity)) {
+                        return true;
+                    }
+                    current = stripe.get();
+                }
+            }
+            return false;
+        }
+
+        // 單一 stripe 不夠、但加起來夠時：全部收回來扣掉，剩下的放回去（呼叫端持有 refillLock）
+        private boolean tryTakeSpread(int quantity) {
+            int total = drain();
+            if (total >= quantity) {
+                add(total - quantity);
+                return true;
+            }
+            add(total);
+            return false;
+        }
+
+        private void add(int quantity) {
+            if (quantity > 0) {
+                stripes[home()].addAndGet(quantity);
+            }
+        }
+
+        private int drain() {
+            int total = 0;
+            for (AtomicInteger stripe : stripes) {
+                total += stripe.getAndSet(0);
+            }
+            return total;
+        }
+
+        private int home() {
+            return (int) Thread.currentThread().threadId() & (stripes.length - 1);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.fy20047.tireordering.backend.service;
+
+import java.time.LocalDateTime;
+
+// journal 裡的一筆訂單：reference 是回給客人的暫時編號，寫進 DB 時存在 tire_orders.intake_ref（唯一）
+// 帶 Idempotency-Key 時 idempotencyKey / requestHash 有值，寫訂單時一起存進 idempotency_keys（舊的 journal 沒有這兩個欄位，讀出來是 null）
+public record JournaledOrder(
+        String reference,
+        LocalDateTime acceptedAt,
+        OrderService.CreateOrderCommand command,
+        String idempotencyKey,
+        String requestHash
+) {
+
+    public JournaledOrder(String reference, LocalDateTime acceptedAt, OrderService.CreateOrderCommand command) {
+        this(reference, acceptedAt, command, null, null);
+    }
+}
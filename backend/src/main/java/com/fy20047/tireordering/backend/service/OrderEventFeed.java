@@ -0,0 +1,224 @@
+package com.fy20047.tireordering.backend.service;
+
+import com.fy20047.tireordering.backend.dto.AdminOrderResponse;
+import com.fy20047.tireordering.backend.event.OrderChangedEvent;
+import com.fy20047.tireordering.backend.repository.OrderRepository;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+// 後台即時訂單串流（SSE）：新訂單 / 狀態變更在 commit 後推給所有連線中的後台
+// 最近的事件放在固定大小的 ring 裡，斷線重連帶 Last-Event-ID 時補送漏掉的；太舊（已被擠出 ring）或伺服器重啟過就送 reset，請前端重新載入列表
+// 每個連線有自己的有界佇列與一條 virtual thread 負責寫出；佇列滿了（用戶端收太慢）直接斷線，不會無限累積在記憶體
+// 事件 id 格式為「啟動時間-序號」，只在這台機器內有效
+// commit 後查明細交給單一背景執行緒（依序、不拖慢下單請求）；一個事件的訂單一次查完（批次下單 / 批次改狀態最多幾百筆）：
+//   若在 commit 的執行緒上另開交易，原交易的連線還沒還，大量下單時每個執行緒都握一條再等一條，連線池會卡死
+@Component
+public class OrderEventFeed implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderEventFeed.class);
+
+    private static final String RESET = "reset";
+
+    private final OrderRepository orderRepository;
+    private final TransactionTemplate lookupTransaction; // 不設 readOnly：readOnly 交易會走 replica，剛 commit 的訂單可能還沒同步過去
+    private final ExecutorService publisher;
+    private final int historySize;
+    private final int clientBuffer;
+    private final Duration heartbeat;
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final ReentrantLock lock = new ReentrantLock(); // 不用 synchronized：避免 virtual thread 卡住 carrier
+    private final ArrayDeque<FeedEvent> history = new ArrayDeque<>(); // 持有 lock 才能存取
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private long sequence; // 持有 lock 才能存取
+
+    public OrderEventFeed(
+            OrderRepository orderRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${orders.stream.history:1000}") int historySize,
+            @Value("${orders.stream.client-buffer:256}") int clientBuffer,
+            @Value("${orders.stream.heartbeat:15s}") Duration heartbeat
+    ) {
+        this.orderRepository = orderRepository;
+        this.lookupTransaction = new TransactionTemplate(transactionManager);
+        this.publisher = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "order-feed-publisher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.historySize = historySize;
+        this.clientBuffer = clientBuffer;
+        this.heartbeat = heartbeat;
+    }
+
+    // 原交易 commit 後才推播（沒 commit 的訂單不會出現在串流裡）
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderChanged(OrderChangedEvent event) {
+        publisher.execute(() -> {
+            String name = event.type() == OrderChangedEvent.Type.CREATED ? "order-created" : "order-status-changed";
+            try {
+                // 整批一個查詢，交易結束（連線還回去）後才推播
+                List<AdminOrderResponse> orders = lookupTransaction.execute(status -> orderRepository.findDetails(event.orderIds()));
+                for (AdminOrderResponse order : orders) {
+                    publish(name, order);
+                }
+            } catch (RuntimeException e) {
+                log.warn("Failed to publish {} for orders {}", name, event.orderIds(), e);
+            }
+        });
+    }
+
+    // 開一條串流；lastEventId 為 null 表示新連線（不補送）
+    public SseEmitter subscribe(String lastEventId) {
+        SseEmitter emitter = new SseEmitter(); // 逾時沿用 spring.mvc.async.request-timeout，到時瀏覽器會自動重連
+        Subscriber subscriber = new Subscriber(emitter, new ArrayBlockingQueue<>(clientBuffer));
+        lock.lock();
+        try {
+            // 在 lock 內補送並加入訂閱者，補送與新事件之間不會漏也不會重複
+            for (FeedEvent event : backlog(lastEventId)) {
+                subscriber.queue.offer(event);
+            }
+            subscribers.add(subscriber);
+        } finally {
+            lock.unlock();
+        }
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(error -> subscriber.close());
+        subscriber.writer = Thread.ofVirtual().name("order-feed-writer").unstarted(subscriber::run);
+        subscriber.writer.start();
+        return emitter;
+    }
+
+    private void publish(String name, AdminOrderResponse order) {
+        lock.lock();
+        try {
+            FeedEvent event = new FeedEvent(++sequence, epoch + "-" + sequence, name, order);
+            history.addLast(event);
+            if (history.size() > historySize) {
+                history.removeFirst();
+            }
+            for (Subscriber subscriber : subscribers) {
+                if (!subscriber.queue.offer(event)) {
+                    log.warn("Disconnecting slow order stream client ({} events pending)", clientBuffer);
+                    subscriber.close();
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // 持有 lock 時呼叫：找出 lastEventId 之後的事件；接不上時回傳一個 reset
+    private List<FeedEvent> backlog(String lastEventId) {
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return List.of();
+        }
+        long lastSequence = parseSequence(lastEventId);
+        long oldest = history.isEmpty() ? sequence + 1 : history.peekFirst().sequence();
+        if (lastSequence < 0 || lastSequence > sequence || lastSequence < oldest - 1) {
+            return List.of(new FeedEvent(sequence, epoch + "-" + sequence, RESET, null));
+        }
+        List<FeedEvent> missed = new ArrayList<>();
+        for (FeedEvent event : history) {
+            if (event.sequence() > lastSequence) {
+                missed.add(event);
+            }
+        }
+        return missed;
+    }
+
+    // 不是這次啟動發出的 id（或格式不對）回傳 -1
+    private long parseSequence(String eventId) {
+        int dash = eventId.lastIndexOf('-');
+        if (dash < 0 || !eventId.substring(0, dash).equals(epoch)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(eventId.substring(dash + 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    @Override
+    public void destroy() {
+        publisher.shutdownNow();
+        subscribers.forEach(Subscriber::close);
+    }
+
+    // data 為 null 表示 reset
+    private record FeedEvent(long sequence, String id, String name, AdminOrderResponse data) {
+    }
+
+    // 一個連線中的後台：publish 只把事件放進佇列，實際寫 socket 由自己的 writer 執行緒做，慢的連線不會拖到下單交易
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final BlockingQueue<FeedEvent> queue;
+        private volatile boolean closed;
+        private volatile Thread writer;
+
+        private Subscriber(SseEmitter emitter, BlockingQueue<FeedEvent> queue) {
+            this.emitter = emitter;
+            this.queue = queue;
+        }
+
+        private void run() {
+            try {
+                while (!closed) {
+                    FeedEvent event = queue.poll(heartbeat.toMillis(), TimeUnit.MILLISECONDS);
+                    if (closed) {
+                        break;
+                    }
+                    if (event == null) {
+                        emitter.send(SseEmitter.event().comment("keep-alive")); // 順便偵測已經斷掉的連線
+                    } else if (event.data() == null) {
+                        emitter.send(SseEmitter.event().id(event.id()).name(event.name()).data(""));
+                    } else {
+                        emitter.send(SseEmitter.event().id(event.id()).name(event.name()).data(event.data(), MediaType.APPLICATION_JSON));
+                    }
+                }
+            } catch (IOException | IllegalStateException e) {
+                // 用戶端已斷線
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                close();
+                emitter.complete();
+            }
+        }
+
+        private void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            subscribers.remove(this);
+            Thread thread = writer;
+            if (thread != null && thread != Thread.currentThread()) {
+                thread.interrupt(); // 叫醒在 poll 等待的 writer，讓它結束連線
+            }
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.fy20047.tireordering.backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+// journal 模式的收單：不碰 DB，驗證後寫進 journal（等 group commit fsync 完成）就回暫時編號
+// 驗證規則跟 OrderService.createOrder 相同；輪胎是否上架改查目錄快照
+@Service
+@ConditionalOnProperty(prefix = "orders.intake", name = "mode", havingValue = "journal")
+public class OrderIntakeService {
+
+    private static final long APPEND_TIMEOUT_SECONDS = 10;
+
+    private final OrderService orderService;
+    private final TireCatalogCache catalogCache;
+    private final OrderJournal journal;
+    private final ObjectMapper objectMapper;
+
+    public OrderIntakeService(
+            OrderService orderService,
+            TireCatalogCache catalogCache,
+            OrderJournal journal,
+            ObjectMapper objectMapper
+    ) {
+        this.orderService = orderService;
+        this.catalogCache = catalogCache;
+        this.journal = journal;
+        this.objectMapper = objectMapper;
+    }
+
+    public JournaledOrder accept(OrderService.CreateOrderCommand command) {
+        return accept(command, UUID.randomUUID().toString(), null, null);
+    }
+
+    // reference 由呼叫端指定（Idempotency-Key 推出來的固定編號），key 與 requestHash 跟著寫進 journal
+    public JournaledOrder accept(
+            OrderService.CreateOrderCommand command,
+            String reference,
+            String idempotencyKey,
+            String requestHash
+    ) {
+        orderService.validate(command);
+        if (!catalogCache.current().isAvailable(command.tireId())) {
+            throw new IllegalStateException("Tire is not available");
+        }
+
+        JournaledOrder order = new JournaledOrder(reference, LocalDateTime.now(), command, idempotencyKey, requestHash);
+        byte[] payload;
+        try {
+            payload = objectMapper.writeValueAsBytes(order);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Invalid order", e);
+        }
+        try {
+            journal.append(payload).get(APPEND_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OrderIntakeUnavailableException("Order intake interrupted", reference, true, e);
+        } catch (TimeoutException e) {
+            // 還在排隊或正在 fsync：之後仍可能寫入成功，不能當成失敗
+            throw new OrderIntakeUnavailableException("Order journal write timed out", reference, true, e);
+        } catch (ExecutionException e) {
+            // 寫入失敗（已退回原位置）或 journal 已關閉：這筆沒有成立
+            throw new OrderIntakeUnavailableException("Failed to write order journal", reference, false, e.getCause());
+        } catch (IllegalStateException e) {
+            throw new OrderIntakeUnavailableException("Order journal is closed", reference, false, e);
+        }
+        return order;
+    }
+}
@@ -0,0 +1,24 @@
+package com.fy20047.tireordering.backend.service;
+
+// journal 收單寫不進去或等不到 fsync 結果（回 503 + Retry-After）
+// outcomeUnknown 為 true 時（等待逾時 / 被中斷）這筆可能已經寫進 journal，之後仍會成立：
+//   客戶端請用 reference 查 GET /api/orders/intake/{reference}，或帶同一個 Idempotency-Key 重送，不要直接重送
+public class OrderIntakeUnavailableException extends RuntimeException {
+
+    private final String reference;
+    private final boolean outcomeUnknown;
+
+    public OrderIntakeUnavailableException(String message, String reference, boolean outcomeUnknown, Throwable cause) {
+        super(message, cause);
+        this.reference = reference;
+        this.outcomeUnknown = outcomeUnknown;
+    }
+
+    public String getReference() {
+        return reference;
+    }
+
+    public boolean isOutcomeUnknown() {
+        return outcomeUnknown;
+    }
+}
@@ -0,0 +1,356 @@
+package com.fy20047.tireordering.backend.service;
+
+import com.fy20047.tireordering.backend.config.OrderIntakeProperties;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+// 下單 journal：append-only 的本機檔案（orders.intake.mode=journal 才啟用）
+// 每筆格式：[長度 int][CRC32 int][JSON bytes]；啟動時掃描最新的檔，截掉當機時寫到一半的尾巴
+// group commit：單一 writer 執行緒把排隊中的訂單一次寫完、只 fsync 一次，之後才通知呼叫端
+// 檔案分段（segment）：超過 segmentBytes 換新檔；背景寫入 DB 後記錄 checkpoint（段號 + 位置），整段寫完才刪檔
+// 一直寫不進 DB 的資料由 drainer 移到 dead-letter.ndjson（一行一筆），需人工處理
+@Component
+@ConditionalOnProperty(prefix = "orders.intake", name = "mode", havingValue = "journal")
+public class OrderJournal implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderJournal.class);
+    private static final int HEADER_BYTES = 8;
+    private static final String CHECKPOINT_FILE = "checkpoint";
+    private static final String DEAD_LETTER_FILE = "dead-letter.ndjson";
+    private static final Pattern SEGMENT_NAME = Pattern.compile("orders-(\\d{16})\\.journal");
+
+    private final Path directory;
+    private final long segmentBytes;
+    private final int groupCommitMaxEntries;
+    private final BlockingQueue<PendingAppend> queue;
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    // 以下三個只有 writer 執行緒會動（建構子初始化除外）
+    private long segment;
+    private FileChannel channel;
+    private long position;
+
+    // 已 fsync 的位置，讀取端只讀到這裡
+    private volatile Position durable;
+
+    public OrderJournal(OrderIntakeProperties properties) throws IOException {
+        this.directory = Path.of(properties.journalDir());
+        this.segmentBytes = properties.segmentBytes();
+        this.groupCommitMaxEntries = properties.groupCommitMaxEntries();
+        this.queue = new ArrayBlockingQueue<>(properties.queueCapacity());
+
+        Files.createDirectories(directory);
+        List<Long> segments = segments();
+        this.segment = segments.isEmpty() ? 1 : segments.get(segments.size() - 1);
+        this.channel = open(segment);
+        this.position = recover(channel);
+        this.durable = new Position(segment, position);
+
+        this.writer = new Thread(this::writeLoop, "order-journal-writer");
+        writer.start();
+    }
+
+    // 排入下一次 group commit；future 完成代表已經 fsync
+    // 佇列滿了丟 RejectedExecutionException（回 429）
+    public CompletableFuture<Void> append(byte[] payload) {
+        if (!running) {
+            throw new IllegalStateException("Order journal is closed");
+        }
+        PendingAppend pending = new PendingAppend(payload, new CompletableFuture<>());
+        if (!queue.offer(pending)) {
+            throw new RejectedExecutionException("Order journal is full");
+        }
+        return pending.done();
+    }
+
+    // 從 from 開始讀最多 maxEntries 筆已 fsync 的資料
+    // 舊的段讀完就跳到下一段；回傳的 next 是下一次要讀的位置
+    public Batch read(Position from, int maxEntries) throws IOException {
+        Position limit = durable;
+        Position cursor = from;
+        List<byte[]> entries = new ArrayList<>();
+        while (entries.size() < maxEntries) {
+            Path file = segmentPath(cursor.segment());
+            if (Files.exists(file)) {
+                try (FileChannel reader = FileChannel.open(file, StandardOpenOption.READ)) {
+                    long end = cursor.segment() == limit.segment() ? limit.offset() : reader.size();
+                    long offset = cursor.offset();
+                    while (entries.size() < maxEntries) {
+                        byte[] payload = readFrame(reader, offset, end);
+                        if (payload == null) {
+                            break;
+                        }
+                        entries.add(payload);
+                        offset += HEADER_BYTES + payload.length;
+                    }
+                    cursor = new Position(cursor.segment(), offset);
+                    if (offset < end) {
+                        if (entries.size() < maxEntries) {
+                            throw new IOException("Corrupted order journal at " + file + ":" + offset);
+                        }
+                        break;
+                    }
+                }
+            }
+            if (cursor.segment() >= limit.segment()) {
+                break;
+            }
+            cursor = new Position(cursor.segment() + 1, 0);
+        }
+        return new Batch(entries, cursor);
+    }
+
+    // 第一次啟動沒有 checkpoint 時，從最舊的段開頭讀
+    public Position loadCheckpoint() throws IOException {
+        Path file = directory.resolve(CHECKPOINT_FILE);
+        if (!Files.exists(file)) {
+            List<Long> segments = segments();
+            return new Position(segments.isEmpty() ? segment : segments.get(0), 0);
+        }
+        String[] parts = Files.readString(file, StandardCharsets.US_ASCII).trim().split(" ");
+        return new Position(Long.parseLong(parts[0]), Long.parseLong(parts[1]));
+    }
+
+    // 先寫暫存檔再改名，checkpoint 不會只寫一半
+    // checkpoint 落後也沒關係：重播時 DB 會用 intake_ref 去重
+    public void saveCheckpoint(Position checkpoint) throws IOException {
+        Path temp = directory.resolve(CHECKPOINT_FILE + ".tmp");
+        try (FileChannel out = FileChannel.open(
+                temp,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING
+        )) {
+            ByteBuffer buffer = ByteBuffer.wrap(
+                    (checkpoint.segment() + " " + checkpoint.offset()).getBytes(StandardCharsets.US_ASCII)
+            );
+            while (buffer.hasRemaining()) {
+                out.write(buffer);
+            }
+            out.force(true);
+        }
+        Files.move(temp, directory.resolve(CHECKPOINT_FILE),
+                StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    // 寫不進 DB 的資料另存一行（drainer 組好的 JSON），fsync 後 drainer 才會跳過它，需人工處理
+    public void deadLetter(byte[] line) throws IOException {
+        try (FileChannel out = FileChannel.open(
+                directory.resolve(DEAD_LETTER_FILE),
+                StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND
+        )) {
+            ByteBuffer buffer = ByteBuffer.allocate(line.length + 1).put(line).put((byte) '\n').flip();
+            while (buffer.hasRemaining()) {
+                out.write(buffer);
+            }
+            out.force(true);
+        }
+    }
+
+    // 刪掉 checkpoint 之前、已經全部寫進 DB 的段
+    public void release(Position checkpoint) throws IOException {
+        for (long old : segments()) {
+            if (old < checkpoint.segment()) {
+                Files.deleteIfExists(segmentPath(old));
+            }
+        }
+    }
+
+    // 關閉時先把佇列裡的訂單寫完
+    @Override
+    public void destroy() throws Exception {
+        running = false;
+        writer.join();
+        List<PendingAppend> left = new ArrayList<>();
+        queue.drainTo(left);
+        left.forEach(pending -> pending.done().completeExceptionally(
+                new IllegalStateException("Order journal is closed")));
+        channel.close();
+    }
+
+    private void writeLoop() {
+        List<PendingAppend> group = new ArrayList<>(groupCommitMaxEntries);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingAppend first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                group.add(first);
+                queue.drainTo(group, groupCommitMaxEntries - 1); // fsync 期間排進來的訂單，下一輪一起寫
+                writeGroup(group);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                group.clear();
+            }
+        }
+    }
+
+    private void writeGroup(List<PendingAppend> group) {
+        long start = position;
+        try {
+            int size = 0;
+            for (PendingAppend pending : group) {
+                size += HEADER_BYTES + pending.payload().length;
+            }
+            ByteBuffer buffer = ByteBuffer.allocate(size);
+            for (PendingAppend pending : group) {
+                buffer.putInt(pending.payload().length).putInt(crc(pending.payload())).put(pending.payload());
+            }
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                position += channel.write(buffer, position);
+            }
+            channel.force(false);
+        } catch (IOException e) {
+            // 寫失敗：退回原位置，這一組都回錯誤（客人會收到 503，訂單不算成立）
+            position = start;
+            try {
+                channel.truncate(start);
+            } catch (IOException ignored) {
+                // 下次啟動的 recover 會處理殘留的尾巴
+            }
+            UncheckedIOException failure = new UncheckedIOException("Failed to write order journal", e);
+            group.forEach(pending -> pending.done().completeExceptionally(failure));
+            return;
+        }
+        durable = new Position(segment, position);
+        group.forEach(pending -> pending.done().complete(null));
+        if (position >= segmentBytes) {
+            roll();
+        }
+    }
+
+    private void roll() {
+        try {
+            FileChannel next = open(segment + 1);
+            channel.close();
+            channel = next;
+            segment++;
+            position = 0;
+            durable = new Position(segment, 0);
+        } catch (IOException e) {
+            log.warn("Failed to roll order journal segment, keep appending to {}", segmentPath(segment), e);
+        }
+    }
+
+    // 找出最後一筆完整的資料，把後面的垃圾截掉
+    private long recover(FileChannel file) throws IOException {
+        long size = file.size();
+        long offset = 0;
+        byte[] payload;
+        while ((payload = readFrame(file, offset, size)) != null) {
+            offset += HEADER_BYTES + payload.length;
+        }
+        if (offset < size) {
+            log.warn("Truncating {} bytes of incomplete order journal data in {}", size - offset, segmentPath(segment));
+            file.truncate(offset);
+            file.force(true);
+        }
+        return offset;
+    }
+
+    private FileChannel open(long number) throws IOException {
+        Path file = segmentPath(number);
+        boolean created = !Files.exists(file);
+        FileChannel opened = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        if (created) {
+            syncDirectory();
+        }
+        return opened;
+    }
+
+    // 新建檔案後 fsync 目錄，確保當機後檔案還在（Windows 不支援，略過）
+    private void syncDirectory() {
+        try (FileChannel dir = FileChannel.open(directory, StandardOpenOption.READ)) {
+            dir.force(true);
+        } catch (IOException ignored) {
+            // 不支援目錄 fsync 的平台
+        }
+    }
+
+    private List<Long> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(path -> SEGMENT_NAME.matcher(path.getFileName().toString()))
+                    .filter(Matcher::matches)
+                    .map(matcher -> Long.parseLong(matcher.group(1)))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private Path segmentPath(long number) {
+        return directory.resolve("orders-%016d.journal".formatted(number));
+    }
+
+    // 讀一筆；資料不完整或 CRC 不符回 null
+    private static byte[] readFrame(FileChannel file, long offset, long limit) throws IOException {
+        if (limit - offset < HEADER_BYTES) {
+            return null;
+        }
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        readFully(file, header, offset);
+        int length = header.getInt(0);
+        if (length <= 0 || length > limit - offset - HEADER_BYTES) {
+            return null;
+        }
+        ByteBuffer payload = ByteBuffer.allocate(length);
+        readFully(file, payload, offset + HEADER_BYTES);
+        byte[] bytes = payload.array();
+        return crc(bytes) == header.getInt(4) ? bytes : null;
+    }
+
+    private static void readFully(FileChannel file, ByteBuffer buffer, long offset) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (file.read(buffer, offset + buffer.position()) < 0) {
+                throw new EOFException();
+            }
+        }
+    }
+
+    private static int crc(byte[] bytes) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        return (int) crc.getValue();
+    }
+
+    private record PendingAppend(byte[] payload, CompletableFuture<Void> done) {
+    }
+
+    // journal 裡的位置：第幾段、段內第幾個 byte
+    public record Position(long segment, long offset) {
+    }
+
+    public record Batch(List<byte[]> entries, Position next) {
+    }
+}
@@ -0,0 +1,144 @@
+package com.fy20047.tireordering.backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fy20047.tireordering.backend.config.OrderIntakeProperties;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+// 背景把 journal 的訂單批次寫進 tire_orders
+// 順序：讀一批 → 一個交易寫入 DB → 存 checkpoint；當機重啟從 checkpoint 繼續
+// DB 已 commit 但 checkpoint 還沒存就當機的那一批，重播時由 intake_ref 去重，所以每筆只會寫一次
+// 整批寫入失敗時改成逐筆各自一個交易重試，找出寫不進去的那一筆：
+//   同一筆單獨失敗 maxEntryAttempts 次（跨多輪）就移到 dead-letter，其他訂單照常寫入，journal 不會卡在同一批
+//   還沒到次數前先丟出例外、checkpoint 不前進（可能只是 DB 暫時連不上）；已經單獨寫進去的那幾筆重播時會被去重
+@Component
+@ConditionalOnProperty(prefix = "orders.intake", name = "mode", havingValue = "journal")
+public class OrderJournalDrainer implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderJournalDrainer.class);
+
+    private final OrderJournal journal;
+    private final OrderService orderService;
+    private final ObjectMapper objectMapper;
+    private final OrderIntakeProperties properties;
+    private final ScheduledExecutorService scheduler;
+    private OrderJournal.Position checkpoint; // 只在 drainer 執行緒使用
+    private final Map<String, Integer> failures = new HashMap<>(); // 暫時編號 -> 單獨寫入失敗的次數（只在 drainer 執行緒使用）
+
+    public OrderJournalDrainer(
+            OrderJournal journal,
+            OrderService orderService,
+            ObjectMapper objectMapper,
+            OrderIntakeProperties properties
+    ) throws IOException {
+        this.journal = journal;
+        this.orderService = orderService;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.checkpoint = journal.loadCheckpoint();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "order-journal-drainer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // 啟動完成才開始寫 DB（上次沒寫完的會先補上）
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        long interval = properties.drainInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(this::drainSafely, 0, interval, TimeUnit.MILLISECONDS);
+    }
+
+    // 一直寫到追上 journal 為止
+    void drain() throws IOException {
+        while (true) {
+            OrderJournal.Batch batch = journal.read(checkpoint, properties.drainBatchSize());
+            if (!batch.entries().isEmpty()) {
+                write(batch.entries());
+            }
+            if (batch.next().equals(checkpoint)) {
+                return;
+            }
+            boolean segmentDone = batch.next().segment() != checkpoint.segment();
+            checkpoint = batch.next();
+            journal.saveCheckpoint(checkpoint);
+            if (segmentDone) {
+                journal.release(checkpoint);
+            }
+        }
+    }
+
+    private void write(List<byte[]> entries) throws IOException {
+        Map<JournaledOrder, byte[]> orders = new LinkedHashMap<>();
+        for (byte[] entry : entries) {
+            try {
+                orders.put(objectMapper.readValue(entry, JournaledOrder.class), entry);
+            } catch (IOException e) {
+                deadLetter(entry, "Unreadable journal entry: " + e.getMessage()); // 格式壞掉，重試也不會好
+            }
+        }
+        if (orders.isEmpty()) {
+            return;
+        }
+        try {
+            orderService.writeJournaledOrders(new ArrayList<>(orders.keySet()));
+            failures.clear(); // checkpoint 只有整批寫完才前進，裡面只會有這一批的紀錄
+            return;
+        } catch (RuntimeException e) {
+            log.warn("Failed to write {} journaled orders in one batch, retrying one by one", orders.size(), e);
+        }
+        for (Map.Entry<JournaledOrder, byte[]> item : orders.entrySet()) {
+            JournaledOrder order = item.getKey();
+            try {
+                orderService.writeJournaledOrders(List.of(order));
+                failures.remove(order.reference());
+            } catch (RuntimeException e) {
+                int attempts = failures.merge(order.reference(), 1, Integer::sum);
+                if (attempts < properties.maxEntryAttempts()) {
+                    throw e;
+                }
+                failures.remove(order.reference());
+                deadLetter(item.getValue(), e.toString());
+            }
+        }
+    }
+
+    private void deadLetter(byte[] entry, String reason) throws IOException {
+        Map<String, String> line = new LinkedHashMap<>();
+        line.put("reason", reason);
+        line.put("entry", new String(entry, StandardCharsets.UTF_8));
+        journal.deadLetter(objectMapper.writeValueAsBytes(line));
+        log.error("Moved journaled order to dead letter: {} ({})", line.get("entry"), reason);
+    }
+
+    // 失敗（例如 DB 暫時連不上）就等下一輪重試，checkpoint 不前進
+    private void drainSafely() {
+        try {
+            drain();
+        } catch (Exception e) {
+            log.error("Failed to drain order journal at {}", checkpoint, e);
+        }
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        scheduler.shutdown();
+        scheduler.awaitTermination(10, TimeUnit.SECONDS);
+    }
+}
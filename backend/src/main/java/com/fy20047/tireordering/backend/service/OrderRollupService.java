@@ -0,0 +1,146 @@
+package com.fy20047.tireordering.backend.service;
+
+import com.fy20047.tireordering.backend.dto.AdminStatsResponse;
+import com.fy20047.tireordering.backend.dto.OrderRollupRebuildResponse;
+import com.fy20047.tireordering.backend.entity.Order;
+import com.fy20047.tireordering.backend.enums.InstallationOption;
+import com.fy20047.tireordering.backend.enums.OrderStatus;
+import com.fy20047.tireordering.backend.repository.OrderBatchRepository.OrderStatusRow;
+import com.fy20047.tireordering.backend.repository.OrderRollupRepository;
+import com.fy20047.tireordering.backend.repository.OrderRollupRepository.Bucket;
+import com.fy20047.tireordering.backend.repository.OrderRollupRepository.Delta;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+// 後台統計的訂單彙總（order_rollups）
+// record* 由 OrderService 在訂單的交易裡呼叫：訂單 rollback，彙總也一起 rollback，不會對不上
+// 統計查詢只讀彙總，筆數跟「天數 × 有賣出的輪胎」成正比，跟累積多少年的訂單無關
+@Service
+public class OrderRollupService {
+
+    public static final int DEFAULT_DAYS = 30;
+    public static final int DEFAULT_TIRE_LIMIT = 20;
+    public static final int MAX_TIRE_LIMIT = 200;
+    public static final int MAX_DAYS = 3660;
+
+    // 固定的加鎖順序（見 OrderRollupRepository.apply）
+    private static final Comparator<Bucket> BUCKET_ORDER = Comparator
+            .comparing(Bucket::date)
+            .thenComparing(Bucket::status)
+            .thenComparing(Bucket::tireId)
+            .thenComparing(Bucket::installationOption);
+
+    private final OrderRollupRepository rollupRepository;
+
+    public OrderRollupService(OrderRollupRepository rollupRepository) {
+        this.rollupRepository = rollupRepository;
+    }
+
+    // 新訂單：各自的狀態那一格 +1（journal 重播時可能直接以取消狀態成立）
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordCreated(Collection<Order> orders) {
+        Map<Bucket, long[]> deltas = new TreeMap<>(BUCKET_ORDER);
+        for (Order order : orders) {
+            add(deltas, order, order.getStatus(), 1);
+        }
+        apply(deltas);
+    }
+
+    // 狀態變更：從舊狀態那一格搬到新狀態那一格
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordStatusChange(Order order, OrderStatus previous) {
+        if (previous == order.getStatus()) {
+            return;
+        }
+        Map<Bucket, long[]> deltas = new TreeMap<>(BUCKET_ORDER);
+        add(deltas, order, previous, -1);
+        add(deltas, order, order.getStatus(), 1);
+        apply(deltas);
+    }
+
+    // 批次改狀態：rows 是改之前的狀態，全部搬到 status 那一格（同一格的合併成一筆）
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordStatusChanges(Collection<OrderStatusRow> rows, OrderStatus status) {
+        Map<Bucket, long[]> deltas = new TreeMap<>(BUCKET_ORDER);
+        for (OrderStatusRow row : rows) {
+            if (row.status() == status) {
+                continue;
+            }
+            add(deltas, row.createdDate(), row.status(), row.tireId(), row.installationOption(),
+                    row.quantity(), row.unitPrice(), -1);
+            add(deltas, row.createdDate(), status, row.tireId(), row.installationOption(),
+                    row.quantity(), row.unitPrice(), 1);
+        }
+        apply(deltas);
+    }
+
+    // 依 tire_orders 整份重建（上線後回填一次，或懷疑對不上時）；只讀訂單，加欄位前的舊訂單單價由 OrderUnitPriceBackfill 啟動時補一次
+    // 在同一個交易裡刪掉重算，期間下單要累加彙總會等重建 commit；要掃整張訂單表，請在離峰時執行
+    @Transactional
+    public OrderRollupRebuildResponse rebuild() {
+        int rows = rollupRepository.rebuild();
+        return new OrderRollupRebuildResponse(rollupRepository.sumOrders(), rows);
+    }
+
+    // from / to 為建立日期（含頭含尾）；不給 to 為今天，不給 from 為 to 往前 30 天（含 to）
+    @Transactional(readOnly = true)
+    public AdminStatsResponse stats(LocalDate from, LocalDate to, Integer tireLimit) {
+        LocalDate end = to == null ? LocalDate.now() : to;
+        LocalDate start = from == null ? end.minusDays(DEFAULT_DAYS - 1) : from;
+        if (start.isAfter(end)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+        if (start.plusDays(MAX_DAYS).isBefore(end)) {
+            throw new IllegalArgumentException("date range must not exceed " + MAX_DAYS + " days");
+        }
+        int limit = tireLimit == null ? DEFAULT_TIRE_LIMIT : Math.min(tireLimit, MAX_TIRE_LIMIT);
+        if (limit < 1) {
+            throw new IllegalArgumentException("limit must be at least 1");
+        }
+        return new AdminStatsResponse(
+                start,
+                end,
+                rollupRepository.findDaily(start, end),
+                rollupRepository.findTopTires(start, end, limit),
+                rollupRepository.findInstallationMix(start, end)
+        );
+    }
+
+    private static void add(Map<Bucket, long[]> deltas, Order order, OrderStatus status, int sign) {
+        add(deltas, order.getCreatedAt().toLocalDate(), status, order.getTire().getId(), order.getInstallationOption(),
+                order.getQuantity(), order.getUnitPrice(), sign);
+    }
+
+    private static void add(
+            Map<Bucket, long[]> deltas,
+            LocalDate date,
+            OrderStatus status,
+            Long tireId,
+            InstallationOption installationOption,
+            int quantity,
+            Integer unitPrice,
+            int sign
+    ) {
+        Bucket bucket = new Bucket(date, status, tireId, installationOption);
+        long units = quantity;
+        long revenue = unitPrice == null ? 0 : units * unitPrice;
+        long[] sums = deltas.computeIfAbsent(bucket, key -> new long[3]);
+        sums[0] += sign;
+        sums[1] += sign * units;
+        sums[2] += sign * revenue;
+    }
+
+    private void apply(Map<Bucket, long[]> deltas) {
+        List<Delta> batch = new ArrayList<>(deltas.size());
+        deltas.forEach((bucket, sums) -> batch.add(new Delta(bucket, sums[0], sums[1], sums[2])));
+        rollupRepository.apply(batch);
+    }
+}
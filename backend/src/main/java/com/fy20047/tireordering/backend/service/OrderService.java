@@ -1,25 +1,85 @@
 package com.fy20047.tireordering.backend.service;
 
+import com.fy20047.tireordering.backend.dto.AdminOrderResponse;
+import com.fy20047.tireordering.backend.dto.AdminOrderSummaryResponse;
+import com.fy20047.tireordering.backend.dto.BulkUpdateOrderStatusResponse;
+import com.fy20047.tireordering.backend.entity.IdempotencyRecord;
 import com.fy20047.tireordering.backend.entity.Order;
 import com.fy20047.tireordering.backend.entity.Tire;
+import com.fy20047.tireordering.backend.enums.BulkStatusResult;
 import com.fy20047.tireordering.backend.enums.InstallationOption;
+import com.fy20047.tireordering.backend.event.OrderChangedEvent;
 import com.fy20047.tireordering.backend.enums.OrderStatus;
+import com.fy20047.tireordering.backend.repository.IdempotencyRecordRepository;
+import com.fy20047.tireordering.backend.repository.OrderBatchRepository;
+import com.fy20047.tireordering.backend.repository.OrderBatchRepository.OrderStatusRow;
 import com.fy20047.tireordering.backend.repository.OrderRepository;
 import com.fy20047.tireordering.backend.repository.TireRepository;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 @Service
 @Transactional
 public class OrderService {
 
+    private static final Logger log = LoggerFactory.getLogger(OrderService.class);
+
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 200;
+    public static final int MAX_BULK_STATUS_SIZE = 500;
+
+    // 批次改狀態允許的前一個狀態
+    // 已取消的不能批次改回來（要逐筆重新扣庫存，庫存不足時只有那一筆失敗）；改回待處理也只能逐筆
+    private static final Map<OrderStatus, Set<OrderStatus>> BULK_PREDECESSORS = Map.of(
+            OrderStatus.CONFIRMED, EnumSet.of(OrderStatus.PENDING),
+            OrderStatus.COMPLETED, EnumSet.of(OrderStatus.PENDING, OrderStatus.CONFIRMED),
+            OrderStatus.CANCELLED, EnumSet.of(OrderStatus.PENDING, OrderStatus.CONFIRMED)
+    );
+
     private final OrderRepository orderRepository; // 存訂單資訊
+    private final OrderBatchRepository orderBatchRepository; // 批次寫入訂單
     private final TireRepository tireRepository; // 查輪胎資訊
+    private final IdempotencyRecordRepository idempotencyRecordRepository; // Idempotency-Key 紀錄
+    private final InventoryService inventoryService; // 扣 / 還庫存
+    private final ApplicationEventPublisher eventPublisher; // commit 後通知後台即時訂單串流
+    private final OrderRollupService rollupService; // 後台統計的彙總，跟訂單同一個交易更新
 
-    public OrderService(OrderRepository orderRepository, TireRepository tireRepository) {
+    public OrderService(
+            OrderRepository orderRepository,
+            OrderBatchRepository orderBatchRepository,
+            TireRepository tireRepository,
+            IdempotencyRecordRepository idempotencyRecordRepository,
+            InventoryService inventoryService,
+            ApplicationEventPublisher eventPublisher,
+            OrderRollupService rollupService
+    ) {
         this.orderRepository = orderRepository;
+        this.orderBatchRepository = orderBatchRepository;
         this.tireRepository = tireRepository;
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.inventoryService = inventoryService;
+        this.eventPublisher = eventPublisher;
+        this.rollupService = rollupService;
     }
 
     // 收單
@@ -36,40 +96,409 @@ public class OrderService {
             throw new IllegalStateException("Tire is not available");
         }
 
+        // 扣庫存（訂單寫入失敗時跟著 rollback）
+        if (!inventoryService.reserve(tire.getId(), command.quantity())) {
+            throw new IllegalStateException("Insufficient stock");
+        }
+
         // 清洗資料
-        Order order = Order.builder()
-                .tire(tire)
-                .quantity(command.quantity())
-                .customerName(normalize(command.customerName()))
-                .phone(normalize(command.phone()))
-                .email(normalize(command.email()))
-                .installationOption(command.installationOption())
-                .deliveryAddress(normalize(command.deliveryAddress()))
-                .carModel(normalize(command.carModel()))
-                .notes(normalize(command.notes()))
-                .build();
+        Order order = toOrder(command, tire);
 
         // 成立訂單，存到 DB
-        return orderRepository.save(order);
+        Order saved = orderRepository.save(order);
+        recordCreated(List.of(saved));
+        return saved;
+    }
+
+    // 帶 Idempotency-Key 的收單：訂單與 key 紀錄在同一個交易寫入
+    // key 已被別的請求寫入時會丟 DataIntegrityViolationException，整筆 rollback（不會多一筆訂單）
+    public IdempotencyRecord createOrder(CreateOrderCommand command, String idempotencyKey, String requestHash) {
+        Order order = createOrder(command);
+        return idempotencyRecordRepository.saveAndFlush(IdempotencyRecord.builder()
+                .idempotencyKey(idempotencyKey)
+                .requestHash(requestHash)
+                .orderId(order.getId())
+                .orderStatus(order.getStatus())
+                .build());
+    }
+
+    // 批次收單（車隊客戶 / 客服工具一次送多筆）
+    // 1. 全部先驗證；2. 用一個 IN 查詢撈出所有輪胎；3. 通過的訂單在同一個交易裡用 JDBC batch 寫入
+    // 每一筆都回傳結果（成功帶訂單，失敗帶原因）；preRejected 是呼叫端已經判定不合格的筆（index -> 原因）
+    public List<BatchItemResult> createOrders(List<CreateOrderCommand> commands, Map<Integer, String> preRejected) {
+        BatchItemResult[] results = new BatchItemResult[commands.size()];
+        for (int i = 0; i < commands.size(); i++) {
+            if (preRejected.containsKey(i)) {
+                results[i] = BatchItemResult.rejected(i, preRejected.get(i));
+                continue;
+            }
+            try {
+                validate(commands.get(i));
+            } catch (IllegalArgumentException e) {
+                results[i] = BatchItemResult.rejected(i, e.getMessage());
+            }
+        }
+
+        Set<Long> tireIds = new HashSet<>();
+        for (int i = 0; i < commands.size(); i++) {
+            if (results[i] == null) {
+                tireIds.add(commands.get(i).tireId());
+            }
+        }
+        Map<Long, Tire> tires = tireRepository.findAllById(tireIds).stream()
+                .collect(Collectors.toMap(Tire::getId, Function.identity()));
+
+        List<Integer> candidates = new ArrayList<>();
+        for (int i = 0; i < commands.size(); i++) {
+            if (results[i] != null) {
+                continue;
+            }
+            Tire tire = tires.get(commands.get(i).tireId());
+            if (tire == null) {
+                results[i] = BatchItemResult.rejected(i, "Tire not found");
+            } else if (!tire.isActive()) {
+                results[i] = BatchItemResult.rejected(i, "Tire is not available");
+            } else {
+                candidates.add(i);
+            }
+        }
+
+        boolean[] reserved = reserveByTire(candidates.stream().map(commands::get).toList());
+        List<Order> accepted = new ArrayList<>();
+        List<Integer> acceptedIndexes = new ArrayList<>();
+        for (int j = 0; j < candidates.size(); j++) {
+            int index = candidates.get(j);
+            if (!reserved[j]) {
+                results[index] = BatchItemResult.rejected(index, "Insufficient stock");
+                continue;
+            }
+            CreateOrderCommand command = commands.get(index);
+            accepted.add(toOrder(command, tires.get(command.tireId())));
+            acceptedIndexes.add(index);
+        }
+
+        orderBatchRepository.insertAll(accepted);
+        for (int j = 0; j < accepted.size(); j++) {
+            int index = acceptedIndexes.get(j);
+            results[index] = BatchItemResult.created(index, accepted.get(j));
+        }
+        recordCreated(accepted);
+        return List.of(results);
+    }
+
+    // 背景把 journal 裡的訂單寫進 DB（同一個交易、JDBC batch）
+    // 已經寫過的暫時編號直接略過（上次寫完 DB、checkpoint 還沒存就當機），確保重播只寫一次
+    // 收單後輪胎才下架仍照常成立（已經回 202 給客人）；輪胎不存在才捨棄並記錄；庫存不足以取消狀態成立
+    public int writeJournaledOrders(List<JournaledOrder> entries) {
+        Set<String> existing = new HashSet<>(orderRepository.findExistingIntakeRefs(
+                entries.stream().map(JournaledOrder::reference).toList()
+        ));
+        Set<Long> tireIds = entries.stream().map(entry -> entry.command().tireId()).collect(Collectors.toSet());
+        Map<Long, Tire> tires = tireRepository.findAllById(tireIds).stream()
+                .collect(Collectors.toMap(Tire::getId, Function.identity()));
+
+        Map<String, JournaledOrder> accepted = new HashMap<>(); // 本批收下的 reference -> 那一筆
+        List<JournaledOrder> written = new ArrayList<>(entries.size()); // 跟 orders 一一對應
+        List<JournaledOrder> duplicates = new ArrayList<>();
+        for (JournaledOrder entry : entries) {
+            if (existing.contains(entry.reference()) || accepted.putIfAbsent(entry.reference(), entry) != null) {
+                duplicates.add(entry); // 已寫過，或同一批裡重複（帶同一個 Idempotency-Key 重送）
+            } else if (!tires.containsKey(entry.command().tireId())) {
+                log.warn("Dropping journaled order {}: tire {} not found", entry.reference(), entry.command().tireId());
+            } else {
+                written.add(entry);
+            }
+        }
+
+        boolean[] reserved = reserveByTire(written.stream().map(JournaledOrder::command).toList());
+        List<Order> orders = new ArrayList<>(written.size());
+        for (int i = 0; i < written.size(); i++) {
+            JournaledOrder entry = written.get(i);
+            Order order = toOrder(entry.command(), tires.get(entry.command().tireId()));
+            if (!reserved[i]) {
+                // 已經回 202 給客人，不能直接丟掉：以取消狀態成立，客人查暫時編號會看到已取消
+                log.warn("Journaled order {} cancelled: insufficient stock for tire {}", entry.reference(), entry.command().tireId());
+                order.setStatus(OrderStatus.CANCELLED);
+            }
+            order.setIntakeRef(entry.reference());
+            order.setCreatedAt(entry.acceptedAt());
+            orders.add(order);
+        }
+        orderBatchRepository.insertAll(orders);
+        saveIdempotencyKeys(written, orders);
+        warnReusedKeys(duplicates, accepted);
+        recordCreated(orders);
+        return orders.size();
+    }
+
+    // 批次扣庫存：同一條輪胎的數量合併，依 tireId 排序各扣一次（一條輪胎一個 UPDATE；固定順序鎖列，批次之間不會互等）
+    // 合併後不夠扣時，那條輪胎改逐筆扣（照原本順序，前面的先成立）；回傳每一筆有沒有扣到
+    private boolean[] reserveByTire(List<CreateOrderCommand> commands) {
+        Map<Long, List<Integer>> byTire = new TreeMap<>();
+        for (int i = 0; i < commands.size(); i++) {
+            byTire.computeIfAbsent(commands.get(i).tireId(), id -> new ArrayList<>()).add(i);
+        }
+        boolean[] reserved = new boolean[commands.size()];
+        byTire.forEach((tireId, indexes) -> {
+            int total = indexes.stream().mapToInt(i -> commands.get(i).quantity()).sum();
+            if (inventoryService.reserve(tireId, total)) {
+                indexes.forEach(i -> reserved[i] = true);
+            } else if (indexes.size() > 1) {
+                indexes.forEach(i -> reserved[i] = inventoryService.reserve(tireId, commands.get(i).quantity()));
+            }
+        });
+        return reserved;
+    }
+
+    // journal 模式的 Idempotency-Key 跟訂單同一個交易寫入，記憶體清掉後重送（或換了內容）靠它判斷
+    private void saveIdempotencyKeys(List<JournaledOrder> entries, List<Order> orders) {
+        List<IdempotencyRecord> records = new ArrayList<>();
+        for (int i = 0; i < orders.size(); i++) {
+            JournaledOrder entry = entries.get(i);
+            if (entry.idempotencyKey() != null) {
+                records.add(IdempotencyRecord.builder()
+                        .idempotencyKey(entry.idempotencyKey())
+                        .requestHash(entry.requestHash())
+                        .orderId(orders.get(i).getId())
+                        .orderStatus(orders.get(i).getStatus())
+                        .build());
+            }
+        }
+        idempotencyRecordRepository.saveAll(records);
+    }
+
+    // 重複的暫時編號不會再成立一筆；內容跟第一次不同表示 key 被拿去送別的請求（收單時記憶體與 DB 都還沒有這個 key），記錄下來
+    private void warnReusedKeys(List<JournaledOrder> duplicates, Map<String, JournaledOrder> accepted) {
+        Map<String, String> hashes = new HashMap<>();
+        List<String> storedKeys = new ArrayList<>();
+        for (JournaledOrder entry : duplicates) {
+            if (entry.idempotencyKey() == null) {
+                continue;
+            }
+            JournaledOrder first = accepted.get(entry.reference());
+            if (first != null) {
+                hashes.putIfAbsent(entry.idempotencyKey(), first.requestHash());
+            } else {
+                storedKeys.add(entry.idempotencyKey());
+            }
+        }
+        if (!storedKeys.isEmpty()) {
+            for (IdempotencyRecord record : idempotencyRecordRepository.findByIdempotencyKeyIn(storedKeys)) {
+                hashes.putIfAbsent(record.getIdempotencyKey(), record.getRequestHash());
+            }
+        }
+        for (JournaledOrder entry : duplicates) {
+            String hash = entry.idempotencyKey() == null ? null : hashes.get(entry.idempotencyKey());
+            if (hash != null && !hash.equals(entry.requestHash())) {
+                log.warn("Dropping journaled order {}: Idempotency-Key was already used for a different request",
+                        entry.reference());
+            }
+        }
     }
 
     @Transactional(readOnly = true)
-    // 後台查詢訂單列表
-    public List<Order> listOrders(OrderStatus status) {
-        if (status == null) {
-            return orderRepository.findAllByOrderByCreatedAtDesc();
+    // journal 模式：用暫時編號查訂單（還沒寫進 DB 時為 empty）
+    public Optional<Order> findByIntakeRef(String reference) {
+        return orderRepository.findByIntakeRef(reference);
+    }
+
+    @Transactional(readOnly = true)
+    // 後台查詢訂單列表（keyset 分頁）：cursor 為 null 表示第一頁，pageSize 超過上限會被截斷
+    // 直接用 join 投影成 DTO，一頁只有一個 SQL
+    public OrderPage<AdminOrderResponse> listOrders(OrderStatus status, OrderCursor cursor, Integer pageSize) {
+        int size = pageSize(pageSize);
+        List<AdminOrderResponse> rows = orderRepository.findOrderPage(
+                status,
+                cursor == null ? null : cursor.createdAt(),
+                cursor == null ? null : cursor.id(),
+                size + 1 // 多拿一筆，用來判斷還有沒有下一頁
+        );
+        return OrderPage.of(rows, size, last -> new OrderCursor(last.createdAt(), last.id()));
+    }
+
+    @Transactional(readOnly = true)
+    // 精簡版列表：不含 TEXT 欄位（地址、備註）
+    public OrderPage<AdminOrderSummaryResponse> listOrderSummaries(
+            OrderStatus status,
+            OrderCursor cursor,
+            Integer pageSize
+    ) {
+        int size = pageSize(pageSize);
+        List<AdminOrderSummaryResponse> rows = orderRepository.findOrderSummaryPage(
+                status,
+                cursor == null ? null : cursor.createdAt(),
+                cursor == null ? null : cursor.id(),
+                size + 1
+        );
+        return OrderPage.of(rows, size, last -> new OrderCursor(last.createdAt(), last.id()));
+    }
+
+    @Transactional(readOnly = true)
+    // 後台單筆訂單明細
+    public AdminOrderResponse getOrderDetail(Long orderId) {
+        return orderRepository.findDetailById(orderId)
+                .orElseThrow(() -> new IllegalArgumentException("Order not found"));
+    }
+
+    @Transactional(readOnly = true)
+    // 匯出訂單：逐筆交給 sink 寫出，不會把全部訂單放進一個 List
+    // from / to 為建立日期（含頭含尾），null 表示不限
+    public long exportOrders(
+            OrderStatus status,
+            LocalDate from,
+            LocalDate to,
+            Consumer<AdminOrderResponse> sink
+    ) {
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+        try (Stream<AdminOrderResponse> rows = orderRepository.streamOrders(
+                status,
+                from == null ? null : from.atStartOfDay(),
+                to == null ? null : to.plusDays(1).atStartOfDay()
+        )) {
+            long[] count = {0};
+            rows.forEach(row -> {
+                sink.accept(row);
+                count[0]++;
+            });
+            return count[0];
+        }
+    }
+
+    private int pageSize(Integer pageSize) {
+        int size = pageSize == null ? DEFAULT_PAGE_SIZE : Math.min(pageSize, MAX_PAGE_SIZE);
+        if (size < 1) {
+            throw new IllegalArgumentException("limit must be at least 1");
         }
-        return orderRepository.findByStatusOrderByCreatedAtDesc(status);
+        return size;
     }
 
-    // 更新狀態
+    // 更新狀態：改成取消時還庫存；從取消改回來要重新扣庫存
     public Order updateOrderStatus(Long id, OrderStatus status) {
         Order order = getOrderById(id); // 取得訂單（共用）
+        OrderStatus previous = order.getStatus();
+        if (previous != OrderStatus.CANCELLED && status == OrderStatus.CANCELLED) {
+            inventoryService.release(order.getTire().getId(), order.getQuantity());
+        } else if (previous == OrderStatus.CANCELLED && status != OrderStatus.CANCELLED
+                && !inventoryService.reserve(order.getTire().getId(), order.getQuantity())) {
+            throw new IllegalStateException("Insufficient stock");
+        }
         order.setStatus(status);
-        return orderRepository.save(order);
+        Order saved = orderRepository.save(order);
+        if (previous != status) {
+            rollupService.recordStatusChange(saved, previous);
+            eventPublisher.publishEvent(OrderChangedEvent.statusChanged(saved.getId()));
+        }
+        return saved;
+    }
+
+    // 批次改狀態（倉庫一次結案幾十筆）：一次鎖住這些訂單、一條 UPDATE 改完，不用每筆各查一次再更新
+    // 每個 id 都回傳結果；不存在、目前狀態不允許改成 status 的訂單略過，其他照常更新
+    public BulkUpdateOrderStatusResponse updateOrderStatuses(OrderStatus status, List<Long> ids) {
+        Set<OrderStatus> allowed = bulkPredecessors(status);
+        if (ids == null || ids.isEmpty()) {
+            throw new IllegalArgumentException("ids is required");
+        }
+        Set<Long> requested = new LinkedHashSet<>(ids); // 重複的 id 只回傳一次
+        if (requested.size() > MAX_BULK_STATUS_SIZE) {
+            throw new IllegalArgumentException("At most " + MAX_BULK_STATUS_SIZE + " orders per request");
+        }
+
+        Map<Long, OrderStatusRow> rows = orderBatchRepository.lockByIds(requested).stream()
+                .collect(Collectors.toMap(OrderStatusRow::id, Function.identity()));
+        List<OrderStatusRow> changing = rows.values().stream()
+                .filter(row -> allowed.contains(row.status()))
+                .toList();
+        applyStatusChange(changing, allowed, status);
+
+        List<BulkUpdateOrderStatusResponse.Item> results = new ArrayList<>(requested.size());
+        for (Long id : requested) {
+            OrderStatusRow row = rows.get(id);
+            BulkStatusResult result;
+            if (row == null) {
+                result = BulkStatusResult.NOT_FOUND;
+            } else if (row.status() == status) {
+                result = BulkStatusResult.UNCHANGED;
+            } else if (allowed.contains(row.status())) {
+                result = BulkStatusResult.UPDATED;
+            } else {
+                result = BulkStatusResult.NOT_ALLOWED;
+            }
+            results.add(new BulkUpdateOrderStatusResponse.Item(id, result, row == null ? null : row.status()));
+        }
+        return new BulkUpdateOrderStatusResponse(status, changing.size(), false, results);
     }
 
-    private void validate(CreateOrderCommand command) {
+    // 批次改狀態（依條件）：目前狀態為 currentStatus、建立日期在 from ~ to（含頭含尾，null 表示不限）的訂單
+    // 一次最多 MAX_BULK_STATUS_SIZE 筆（由舊到新），還有剩時 hasMore 為 true
+    public BulkUpdateOrderStatusResponse updateOrderStatuses(
+            OrderStatus status,
+            OrderStatus currentStatus,
+            LocalDate from,
+            LocalDate to
+    ) {
+        Set<OrderStatus> allowed = bulkPredecessors(status);
+        if (currentStatus == null) {
+            throw new IllegalArgumentException("filter.status is required");
+        }
+        if (!allowed.contains(currentStatus)) {
+            throw new IllegalArgumentException("Cannot change " + currentStatus + " orders to " + status + " in bulk");
+        }
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+
+        LocalDateTime start = from == null ? null : from.atStartOfDay();
+        LocalDateTime end = to == null ? null : to.plusDays(1).atStartOfDay();
+        List<OrderStatusRow> changing = orderBatchRepository.lockByStatus(currentStatus, start, end, MAX_BULK_STATUS_SIZE);
+        applyStatusChange(changing, allowed, status);
+        // 拿滿一批才需要看還有沒有剩：改完之後再查一次（不鎖，不會多鎖住這次沒有要改的訂單）
+        boolean hasMore = changing.size() == MAX_BULK_STATUS_SIZE
+                && orderBatchRepository.existsByStatus(currentStatus, start, end);
+
+        List<BulkUpdateOrderStatusResponse.Item> results = changing.stream()
+                .map(row -> new BulkUpdateOrderStatusResponse.Item(row.id(), BulkStatusResult.UPDATED, row.status()))
+                .toList();
+        return new BulkUpdateOrderStatusResponse(status, changing.size(), hasMore, results);
+    }
+
+    private Set<OrderStatus> bulkPredecessors(OrderStatus status) {
+        if (status == null) {
+            throw new IllegalArgumentException("status is required");
+        }
+        Set<OrderStatus> allowed = BULK_PREDECESSORS.get(status);
+        if (allowed == null) {
+            throw new IllegalArgumentException("Bulk status change to " + status + " is not supported");
+        }
+        return allowed;
+    }
+
+    // rows 已經鎖住、目前狀態都在 allowed 裡：一條 UPDATE 改完，再處理庫存、統計彙總與事件
+    // 改成取消時還庫存（同一個輪胎合併成一次，依輪胎 id 順序更新）
+    private void applyStatusChange(List<OrderStatusRow> rows, Set<OrderStatus> allowed, OrderStatus status) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        List<Long> ids = rows.stream().map(OrderStatusRow::id).toList();
+        int updated = orderBatchRepository.updateStatus(ids, allowed, status, LocalDateTime.now());
+        if (updated != ids.size()) {
+            throw new IllegalStateException("Orders were modified concurrently, please retry"); // 整批 rollback
+        }
+        if (status == OrderStatus.CANCELLED) {
+            Map<Long, Integer> released = new TreeMap<>();
+            for (OrderStatusRow row : rows) {
+                released.merge(row.tireId(), row.quantity(), Integer::sum);
+            }
+            released.forEach(inventoryService::release);
+        }
+        rollupService.recordStatusChanges(rows, status);
+        eventPublisher.publishEvent(OrderChangedEvent.statusChanged(ids));
+    }
+
+    // journal 收單也用同一套規則（不需要交易，也不佔連線）
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void validate(CreateOrderCommand command) {
         if (command == null) {
             throw new IllegalArgumentException("Order payload is required");
         }
@@ -97,17 +526,40 @@ public class OrderService {
         }
     }
 
+    private Order toOrder(CreateOrderCommand command, Tire tire) {
+        return Order.builder()
+                .tire(tire)
+                .quantity(command.quantity())
+                .unitPrice(tire.getPrice())
+                .customerName(normalize(command.customerName()))
+                .phone(normalize(command.phone()))
+                .email(normalize(command.email()))
+                .installationOption(command.installationOption())
+                .deliveryAddress(normalize(command.deliveryAddress()))
+                .carModel(normalize(command.carModel()))
+                .notes(normalize(command.notes()))
+                .build();
+    }
+
     private boolean isBlank(String value) {
         return value == null || value.trim().isEmpty();
     }
 
+    // 新訂單：累加統計彙總，commit 後通知串流
+    private void recordCreated(List<Order> orders) {
+        if (!orders.isEmpty()) {
+            rollupService.recordCreated(orders);
+            eventPublisher.publishEvent(OrderChangedEvent.created(orders.stream().map(Order::getId).toList()));
+        }
+    }
+
     // 把使用者輸入的多餘空白（空白鍵）修剪掉 (清洗資料)
-    private String normalize(String value) {
+    String normalize(String value) {
         return isBlank(value) ? null : value.trim();
     }
 
     public Order getOrderById(Long orderId) {
-        return orderRepository.findById(orderId)
+        return orderRepository.findWithTireById(orderId)
                 .orElseThrow(() -> new IllegalArgumentException("Order not found"));
     }
 
@@ -122,4 +574,29 @@ public class OrderService {
             String carModel,
             String notes
     ) { }
+
+    // 批次收單的單筆結果：order 與 error 只會有一個不是 null
+    public record BatchItemResult(int index, Order order, String error) {
+
+        static BatchItemResult created(int index, Order order) {
+            return new BatchItemResult(index, order, null);
+        }
+
+        static BatchItemResult rejected(int index, String error) {
+            return new BatchItemResult(index, null, error);
+        }
+    }
+
+    // 一頁訂單；next 為 null 表示已經是最後一頁
+    public record OrderPage<T>(List<T> items, OrderCursor next) {
+
+        // rows 是多查一筆的結果：超過 size 代表還有下一頁，游標取這一頁最後一筆
+        static <T> OrderPage<T> of(List<T> rows, int size, Function<T, OrderCursor> cursorOf) {
+            if (rows.size() <= size) {
+                return new OrderPage<>(rows, null);
+            }
+            List<T> page = rows.subList(0, size);
+            return new OrderPage<>(page, cursorOf.apply(page.get(size - 1)));
+        }
+    }
 }
@@ -0,0 +1,86 @@
+package com.fy20047.tireordering.backend.service;
+
+import com.fy20047.tireordering.backend.entity.MaintenanceTask;
+import com.fy20047.tireordering.backend.repository.MaintenanceTaskRepository;
+import com.fy20047.tireordering.backend.repository.OrderBatchRepository;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// 啟動後補齊舊訂單的下單單價（加 unit_price 欄位前就存在的訂單）：用當時輪胎的價格，只跑一次
+// 第一次跑時記下當下最大的訂單 id，只補到這裡；之後的訂單下單時就寫入單價，null 表示價格另洽，不能事後補
+// （補了之後改狀態會搬動當初沒有算進彙總的營收）。跑完記在 maintenance_tasks，之後啟動直接略過，不再掃描
+// 依 id 往後分批處理，每批一個交易；中途停掉的話下次啟動用同一個上限接著補
+@Component
+public class OrderUnitPriceBackfill {
+
+    static final String TASK_NAME = "order-unit-price-backfill";
+
+    private static final Logger log = LoggerFactory.getLogger(OrderUnitPriceBackfill.class);
+
+    private final OrderBatchRepository orderBatchRepository;
+    private final MaintenanceTaskRepository maintenanceTaskRepository;
+    private final TransactionTemplate transaction; // 不設 readOnly：要寫入
+    private final int batchSize;
+
+    public OrderUnitPriceBackfill(
+            OrderBatchRepository orderBatchRepository,
+            MaintenanceTaskRepository maintenanceTaskRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${orders.unit-price-backfill.batch-size:500}") int batchSize
+    ) {
+        this.orderBatchRepository = orderBatchRepository;
+        this.maintenanceTaskRepository = maintenanceTaskRepository;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        MaintenanceTask task = startTask();
+        if (task.getCompletedAt() != null) {
+            return;
+        }
+        long cutoffId = task.getCutoffId();
+        long afterId = 0;
+        int filled = 0;
+        while (true) {
+            long from = afterId;
+            List<Long> batch = transaction.execute(status ->
+                    orderBatchRepository.findIdsWithoutUnitPrice(from, cutoffId, batchSize));
+            if (!batch.isEmpty()) {
+                filled += transaction.execute(status -> orderBatchRepository.fillUnitPrices(batch));
+            }
+            if (batch.size() < batchSize) {
+                break;
+            }
+            afterId = batch.get(batch.size() - 1);
+        }
+        transaction.executeWithoutResult(status -> {
+            task.setCompletedAt(LocalDateTime.now());
+            maintenanceTaskRepository.save(task);
+        });
+        log.info("Backfilled unit price of {} orders (id <= {})", filled, cutoffId);
+    }
+
+    // 第一次跑時建立紀錄並決定上限；多台同時啟動時後建立的那台改用先建立的紀錄
+    private MaintenanceTask startTask() {
+        try {
+            return transaction.execute(status -> maintenanceTaskRepository.findById(TASK_NAME)
+                    .orElseGet(() -> maintenanceTaskRepository.saveAndFlush(MaintenanceTask.builder()
+                            .name(TASK_NAME)
+                            .cutoffId(orderBatchRepository.maxId())
+                            .build())));
+        } catch (DataIntegrityViolationException e) {
+            return transaction.execute(status -> maintenanceTaskRepository.findById(TASK_NAME).orElseThrow());
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.fy20047.tireordering.backend.service;
+
+import com.fy20047.tireordering.backend.config.OutboxProperties;
+import com.fy20047.tireordering.backend.enums.OutboxStatus;
+import com.fy20047.tireordering.backend.repository.OutboxRepository;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// 背景把 outbox_events 交給各個 OutboxHandler，不在下單請求的執行緒上跑
+// 一輪：一個短交易領一批（SKIP LOCKED + 租約）→ 交易外同時執行 handler → 一個短交易整批回報結果
+// 每批固定兩個交易、四條 SQL 左右，吞吐量跟著 batchSize 成長，不是每筆事件各查一次
+// 失敗的事件等 initialBackoff、2 倍、4 倍…（最多 maxBackoff）後重試，超過 maxAttempts 標成 FAILED
+// 多台機器可以同時跑：SKIP LOCKED 讓大家領到不同的列
+@Component
+public class OutboxDispatcher implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxDispatcher.class);
+
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final OutboxRepository outboxRepository;
+    private final Map<String, OutboxHandler> handlers;
+    private final OutboxProperties properties;
+    private final TransactionTemplate transaction; // 不設 readOnly：領取要寫入，必須走主庫
+    private final ScheduledExecutorService scheduler;
+    private final ExecutorService workers;
+
+    public OutboxDispatcher(
+            OutboxRepository outboxRepository,
+            List<OutboxHandler> handlers,
+            OutboxProperties properties,
+            PlatformTransactionManager transactionManager
+    ) {
+        this.outboxRepository = outboxRepository;
+        this.handlers = new LinkedHashMap<>();
+        for (OutboxHandler handler : handlers) {
+            if (this.handlers.putIfAbsent(handler.name(), handler) != null) {
+                throw new IllegalStateException("Duplicate outbox handler name: " + handler.name());
+            }
+        }
+        this.properties = properties;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "outbox-dispatcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        AtomicInteger workerCount = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(properties.concurrency(), runnable -> {
+            Thread thread = new Thread(runnable, "outbox-worker-" + workerCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // 啟動完成才開始（上次沒處理完、租約到期的事件會先補上）；沒有 handler 就不用跑
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (handlers.isEmpty()) {
+            return;
+        }
+        long interval = properties.pollInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(this::dispatchSafely, 0, interval, TimeUnit.MILLISECONDS);
+    }
+
+    // 一直處理到沒有到時間的事件為止，回傳處理了幾筆
+    int dispatch() {
+        int total = 0;
+        while (true) {
+            LocalDateTime now = LocalDateTime.now();
+            List<OutboxMessage> batch = transaction.execute(status -> outboxRepository.claim(
+                    handlers.keySet(), properties.batchSize(), now, now.plus(properties.lease())));
+            if (batch.isEmpty()) {
+                return total;
+            }
+            settle(batch, run(batch));
+            total += batch.size();
+            if (batch.size() < properties.batchSize()) {
+                return total;
+            }
+        }
+    }
+
+    // 整批同時執行，全部結束才回傳；成功的位置是 null
+    private List<Exception> run(List<OutboxMessage> batch) {
+        List<CompletableFuture<Exception>> results = batch.stream()
+                .map(message -> CompletableFuture.supplyAsync(() -> invoke(message), workers))
+                .toList();
+        return results.stream().map(CompletableFuture::join).toList();
+    }
+
+    private Exception invoke(OutboxMessage message) {
+        try {
+            handlers.get(message.handler()).handle(message);
+            return null;
+        } catch (Exception e) {
+            return e;
+        }
+    }
+
+    private void settle(List<OutboxMessage> batch, List<Exception> errors) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> done = new ArrayList<>();
+        List<OutboxRepository.Retry> retries = new ArrayList<>();
+        for (int i = 0; i < batch.size(); i++) {
+            OutboxMessage message = batch.get(i);
+            Exception error = errors.get(i);
+            if (error == null) {
+                done.add(message.id());
+                continue;
+            }
+            boolean exhausted = message.attempts() >= properties.maxAttempts();
+            log.warn("Outbox handler {} failed on event {} (attempt {}{})", message.handler(), message.id(),
+                    message.attempts(), exhausted ? ", giving up" : "", error);
+            retries.add(new OutboxRepository.Retry(
+                    message.id(),
+                    exhausted ? OutboxStatus.FAILED : OutboxStatus.PENDING,
+                    now.plus(backoff(message.attempts())),
+                    truncate(error.toString())
+            ));
+        }
+        transaction.executeWithoutResult(status -> {
+            outboxRepository.markDone(done, now);
+            outboxRepository.markFailed(retries);
+        });
+    }
+
+    // 第 n 次失敗後等 initialBackoff * 2^(n-1)，最多 maxBackoff
+    private Duration backoff(int attempts) {
+        Duration delay = properties.initialBackoff().multipliedBy(1L << Math.min(attempts - 1, 20));
+        return delay.compareTo(properties.maxBackoff()) > 0 ? properties.maxBackoff() : delay;
+    }
+
+    private static String truncate(String error) {
+        return error.length() <= MAX_ERROR_LENGTH ? error : error.substring(0, MAX_ERROR_LENGTH);
+    }
+
+    // 失敗（例如 DB 暫時連不上）就等下一輪；已領取的事件租約到期後會再被領取
+    private void dispatchSafely() {
+        try {
+            dispatch();
+        } catch (Exception e) {
+            log.error("Failed to dispatch outbox events", e);
+        }
+    }
+
+    // 清掉超過保存期限的已處理事件（FAILED 留著給人查）
+    @Scheduled(fixedDelayString = "${orders.outbox.purge-interval:1h}")
+    public void purge() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(properties.retention());
+        transaction.executeWithoutResult(status -> outboxRepository.deleteDoneBefore(cutoff));
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        scheduler.shutdown();
+        scheduler.awaitTermination(10, TimeUnit.SECONDS);
+        workers.shutdown();
+    }
+}
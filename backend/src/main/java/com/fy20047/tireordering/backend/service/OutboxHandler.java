@@ -0,0 +1,20 @@
+package com.fy20047.tireordering.backend.service;
+
+import com.fy20047.tireordering.backend.event.OrderChangedEvent;
+
+// 處理 outbox 事件的擴充點：註冊成 bean 就會收到訂單異動事件
+// 至少處理一次：逾時、當機後重新領取都可能重複收到同一筆，實作要能重複執行
+// 多筆事件會同時處理，同一張訂單的事件也不保證依序到達；需要最新狀態請自己查訂單
+public interface OutboxHandler {
+
+    // 寫進 outbox_events.handler，上線後不要改（改了舊事件就沒人處理）
+    String name();
+
+    // 只想收部分事件時覆寫；不收的事件不會寫進 outbox
+    default boolean supports(OrderChangedEvent.Type type) {
+        return true;
+    }
+
+    // 丟出例外表示失敗，稍後重試
+    void handle(OutboxMessage message) throws Exception;
+}
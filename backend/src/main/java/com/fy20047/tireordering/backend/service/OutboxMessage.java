@@ -0,0 +1,15 @@
+package com.fy20047.tireordering.backend.service;
+
+import com.fy20047.tireordering.backend.event.OrderChangedEvent;
+import java.time.LocalDateTime;
+
+// 交給 OutboxHandler 的一筆事件；attempts 是含這次在內第幾次處理
+public record OutboxMessage(
+        long id,
+        String handler,
+        OrderChangedEvent.Type type,
+        long orderId,
+        int attempts,
+        LocalDateTime createdAt
+) {
+}
@@ -0,0 +1,46 @@
+package com.fy20047.tireordering.backend.service;
+
+import com.fy20047.tireordering.backend.entity.OutboxEvent;
+import com.fy20047.tireordering.backend.event.OrderChangedEvent;
+import com.fy20047.tireordering.backend.repository.OutboxRepository;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+// 訂單異動時把事件寫進 outbox_events
+// 用一般的 @EventListener：OrderService 在自己的交易內發事件，這裡同步執行、跟訂單同一個交易寫入（一起 commit / rollback）
+// 沒有任何 OutboxHandler 時什麼都不寫
+@Component
+public class OutboxWriter {
+
+    private final OutboxRepository outboxRepository;
+    private final List<OutboxHandler> handlers;
+
+    public OutboxWriter(OutboxRepository outboxRepository, List<OutboxHandler> handlers) {
+        this.outboxRepository = outboxRepository;
+        this.handlers = handlers;
+    }
+
+    @EventListener
+    public void onOrderChanged(OrderChangedEvent event) {
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxEvent> events = new ArrayList<>();
+        for (OutboxHandler handler : handlers) {
+            if (!handler.supports(event.type())) {
+                continue;
+            }
+            for (Long orderId : event.orderIds()) {
+                events.add(OutboxEvent.builder()
+                        .handler(handler.name())
+                        .eventType(event.type())
+                        .orderId(orderId)
+                        .availableAt(now)
+                        .createdAt(now)
+                        .build());
+            }
+        }
+        outboxRepository.insertAll(events); // 批次收單也只送一次 batch
+    }
+}
@@ -0,0 +1,159 @@
+package com.fy20047.tireordering.backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fy20047.tireordering.backend.dto.TireListResponse;
+import com.fy20047.tireordering.backend.dto.TireResponse;
+import com.fy20047.tireordering.backend.entity.Tire;
+import com.fy20047.tireordering.backend.event.TireChangedEvent;
+import com.fy20047.tireordering.backend.repository.TireRepository;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.unit.DataSize;
+
+// 上架輪胎目錄的記憶體快照（含已序列化好的 JSON bytes）
+// GET /api/tires 直接回傳快照，不查 DB、不跑 Jackson
+// 輪胎異動 commit 後整份重建，再用 AtomicReference 一次換掉，讀取端永遠拿到完整的一版
+// 超過壓縮門檻時，重建時順便壓好 gzip 版本：每一版只壓一次，之後每個請求直接送壓好的 bytes
+@Component
+public class TireCatalogCache {
+
+    private final TireRepository tireRepository;
+    private final ObjectMapper objectMapper;
+    private final AtomicReference<CatalogSnapshot> current = new AtomicReference<>();
+    private final ReentrantLock rebuildLock = new ReentrantLock(); // 不用 synchronized：裡面有 DB I/O，在 virtual thread 上會卡住 carrier
+    private final int compressMinBytes;
+    private long nextVersion = 1; // 只在 rebuild（持有 rebuildLock）裡使用
+
+    public TireCatalogCache(
+            TireRepository tireRepository,
+            ObjectMapper objectMapper,
+            @Value("${server.compression.min-response-size:2KB}") DataSize compressMinSize // 與其他 JSON 回應用同一個門檻
+    ) {
+        this.tireRepository = tireRepository;
+        this.objectMapper = objectMapper;
+        this.compressMinBytes = (int) compressMinSize.toBytes();
+    }
+
+    // 取得目前快照；啟動預熱前就有人來讀時，當場建一次
+    public CatalogSnapshot current() {
+        CatalogSnapshot snapshot = current.get();
+        return snapshot != null ? snapshot : rebuild();
+    }
+
+    public boolean isWarm() {
+        return current.get() != null;
+    }
+
+    // 啟動完成後先預熱，第一個使用者不用等
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void warmUp() {
+        rebuild();
+    }
+
+    // 原交易 commit 後才重建，避免讀到未提交的資料；需開新的交易查詢
+    // 不設 readOnly：readOnly 交易會走 replica，剛 commit 的異動可能還沒同步過去，快取會停在舊資料
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onTireChanged(TireChangedEvent event) {
+        rebuild();
+    }
+
+    // 上鎖依序重建：多筆異動同時 commit 時，最後一次一定看得到所有已 commit 的資料
+    CatalogSnapshot rebuild() {
+        rebuildLock.lock();
+        try {
+            List<TireResponse> items = tireRepository.findActiveTires().stream()
+                    .map(TireCatalogCache::toResponse)
+                    .toList();
+            TireListResponse body = new TireListResponse(items);
+            Set<Long> tireIds = items.stream().map(TireResponse::id).collect(Collectors.toUnmodifiableSet());
+            byte[] json = serialize(body);
+            long lastModified = tireRepository.findLastUpdatedAt().map(TireCatalogCache::epochMillis).orElse(-1L);
+            byte[] gzipJson = json.length < compressMinBytes ? null : gzip(json);
+            CatalogSnapshot snapshot = new CatalogSnapshot(
+                    nextVersion++, body, json, gzipJson, tireIds, DigestUtils.md5DigestAsHex(json), lastModified);
+            current.set(snapshot);
+            return snapshot;
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private byte[] serialize(TireListResponse body) {
+        try {
+            return objectMapper.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize tire catalog", e);
+        }
+    }
+
+    // 一版只壓一次，用最高壓縮率（多花的 CPU 攤在之後每個請求上）
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            gzip.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to compress tire catalog", e);
+        }
+        return out.toByteArray();
+    }
+
+    private static long epochMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static TireResponse toResponse(Tire tire) {
+        return new TireResponse(
+                tire.getId(),
+                tire.getBrand(),
+                tire.getSeries(),
+                tire.getOrigin(),
+                tire.getSize(),
+                tire.getPrice(),
+                tire.isActive()
+        );
+    }
+
+    // 一個版本的目錄：version 每次重建 +1，json 為 body 序列化後的結果（不可修改）
+    // gzipJson 是 json 的 gzip 版本；json 小於壓縮門檻時為 null（直接送原文）
+    // tireIds 是上架輪胎的 id，用來不查 DB 就判斷能不能下單
+    // etag 由 json 內容算出（內容一樣就一樣，重啟或多台機器也不變）；lastModified 為輪胎最後異動時間（沒有輪胎時為 -1）
+    public record CatalogSnapshot(
+            long version,
+            TireListResponse body,
+            byte[] json,
+            byte[] gzipJson,
+            Set<Long> tireIds,
+            String etag,
+            long lastModified
+    ) {
+
+        public boolean isAvailable(Long tireId) {
+            return tireIds.contains(tireId);
+        }
+    }
+}
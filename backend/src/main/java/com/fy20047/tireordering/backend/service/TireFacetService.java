@@ -0,0 +1,282 @@
+package com.fy20047.tireordering.backend.service;
+
+import com.fy20047.tireordering.backend.dto.TireFacetsResponse;
+import com.fy20047.tireordering.backend.dto.TireFacetsResponse.FacetCount;
+import com.fy20047.tireordering.backend.entity.Tire;
+import com.fy20047.tireordering.backend.event.TireChangedEvent;
+import com.fy20047.tireordering.backend.repository.TireRepository;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+// 前台篩選側欄的統計（品牌 / 產地 / 輪圈 / 價格區間），只算上架中的輪胎
+// 記憶體裡維護：每個面向各值的數量，以及「某個面向 = 某值」時其他面向各值的數量（兩兩交叉）
+// 輪胎異動 commit 後只把那幾顆的舊值減掉、新值加上；查詢只是查表，跟目錄大小無關
+// 篩選時被篩選的面向本身仍回傳全部的數量（側欄可以直接切換成同面向的其他值）
+// 品牌 / 產地的篩選不分大小寫、前後空白（?brand=michelin 對到 "Michelin"）；回傳的值維持資料上的寫法
+@Component
+public class TireFacetService {
+
+    public enum Facet {
+        BRAND("brand"),
+        ORIGIN("origin"),
+        RIM("rim"),
+        PRICE_BAND("priceBand");
+
+        private final String key;
+
+        Facet(String key) {
+            this.key = key;
+        }
+
+        public String key() {
+            return key;
+        }
+    }
+
+    private static final Facet[] FACETS = Facet.values();
+    private static final int FULL_RELOAD_THRESHOLD = 1000; // 同 TireSearchIndex：大量異動時整份重算
+    private static final String UNPRICED = "unpriced";
+
+    private final TireRepository tireRepository;
+    private final int[] priceBands; // 區間下限，由小到大
+    private final List<String> bandLabels;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, String[]> valuesById = new HashMap<>(); // 上架輪胎 -> 各面向的值（index 同 Facet.ordinal）
+    private final Counts totals = new Counts();
+    private final Map<Filter, Counts> filtered = new HashMap<>();
+    private volatile boolean ready;
+
+    public TireFacetService(
+            TireRepository tireRepository,
+            @Value("${tires.facets.price-bands:2000,3000,4000,5000,6000}") int[] priceBands
+    ) {
+        this.tireRepository = tireRepository;
+        this.priceBands = priceBands.clone();
+        Arrays.sort(this.priceBands);
+        this.bandLabels = new ArrayList<>();
+        for (int i = 0; i <= this.priceBands.length; i++) {
+            int from = i == 0 ? 0 : this.priceBands[i - 1];
+            bandLabels.add(i == this.priceBands.length ? from + "+" : from + "-" + (this.priceBands[i] - 1));
+        }
+        bandLabels.add(UNPRICED);
+    }
+
+    // 重算都讀主庫（readOnly 交易會走 replica，剛 commit 的異動可能還沒同步過去）
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void warmUp() {
+        lock.writeLock().lock();
+        try {
+            reload();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onTireChanged(TireChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (!ready || event.tireIds().size() > FULL_RELOAD_THRESHOLD) {
+                reload();
+                return;
+            }
+            Set<Long> missing = new LinkedHashSet<>(event.tireIds());
+            for (Tire tire : tireRepository.findAllById(event.tireIds())) {
+                missing.remove(tire.getId());
+                remove(tire.getId());
+                if (tire.isActive()) {
+                    add(tire.getId(), values(tire));
+                }
+            }
+            missing.forEach(this::remove);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // filter 為 null 表示不篩選
+    public TireFacetsResponse counts(Facet filterFacet, String filterValue) {
+        if (!ready) {
+            warmUpOnDemand();
+        }
+        lock.readLock().lock();
+        try {
+            Counts scope = filterFacet == null
+                    ? totals
+                    : filtered.getOrDefault(new Filter(filterFacet, normalize(filterFacet, filterValue)), Counts.EMPTY);
+            Map<String, List<FacetCount>> facets = new LinkedHashMap<>();
+            for (Facet facet : FACETS) {
+                Counts source = facet == filterFacet ? totals : scope;
+                facets.put(facet.key(), sorted(facet, source.byFacet.get(facet)));
+            }
+            return new TireFacetsResponse(scope.total, facets);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // 啟動預熱前就有人來查：當場算一次（走 repository 自己的交易）
+    private void warmUpOnDemand() {
+        lock.writeLock().lock();
+        try {
+            if (!ready) {
+                reload();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // 持有 write lock 時呼叫
+    private void reload() {
+        valuesById.clear();
+        totals.clear();
+        filtered.clear();
+        for (Tire tire : tireRepository.findActiveTires()) {
+            add(tire.getId(), values(tire));
+        }
+        ready = true;
+    }
+
+    private void add(Long tireId, String[] values) {
+        valuesById.put(tireId, values);
+        apply(values, 1);
+    }
+
+    private void remove(Long tireId) {
+        String[] previous = valuesById.remove(tireId);
+        if (previous != null) {
+            apply(previous, -1);
+        }
+    }
+
+    // 一顆輪胎影響：總表 + 它每個面向的值各一張交叉表
+    private void apply(String[] values, int delta) {
+        totals.add(values, delta);
+        for (Facet facet : FACETS) {
+            String value = values[facet.ordinal()];
+            if (value == null) {
+                continue;
+            }
+            Filter filter = new Filter(facet, filterKey(facet, value));
+            Counts counts = filtered.computeIfAbsent(filter, key -> new Counts());
+            counts.add(values, delta);
+            if (counts.total == 0) {
+                filtered.remove(filter);
+            }
+        }
+    }
+
+    private String[] values(Tire tire) {
+        String[] values = new String[FACETS.length];
+        values[Facet.BRAND.ordinal()] = blankToNull(tire.getBrand());
+        values[Facet.ORIGIN.ordinal()] = blankToNull(tire.getOrigin());
+        values[Facet.RIM.ordinal()] = tire.getRimDiameter() == null ? null : rimLabel(tire.getRimDiameter());
+        values[Facet.PRICE_BAND.ordinal()] = priceBand(tire.getPrice());
+        return values;
+    }
+
+    // 篩選值跟統計用同樣的寫法（例如 ?rim=16.0 對到 "16"、?brand= michelin 對到 "Michelin"）
+    private static String normalize(Facet facet, String value) {
+        String trimmed = value.trim();
+        if (facet != Facet.RIM) {
+            return filterKey(facet, trimmed);
+        }
+        try {
+            return rimLabel(new BigDecimal(trimmed));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("rim must be a number");
+        }
+    }
+
+    // 交叉表的 key：品牌、產地不分大小寫
+    private static String filterKey(Facet facet, String value) {
+        return facet == Facet.BRAND || facet == Facet.ORIGIN ? value.toLowerCase(Locale.ROOT) : value;
+    }
+
+    // 16.0 -> "16"、17.5 -> "17.5"
+    private static String rimLabel(BigDecimal rimDiameter) {
+        return rimDiameter.stripTrailingZeros().toPlainString();
+    }
+
+    private String priceBand(Integer price) {
+        if (price == null) {
+            return UNPRICED;
+        }
+        int band = 0;
+        while (band < priceBands.length && price >= priceBands[band]) {
+            band++;
+        }
+        return bandLabels.get(band);
+    }
+
+    // 品牌、產地依字母；輪圈依數字；價格區間依區間順序
+    private List<FacetCount> sorted(Facet facet, Map<String, Integer> counts) {
+        Comparator<FacetCount> order = switch (facet) {
+            case RIM -> Comparator.comparing(count -> new BigDecimal(count.value()));
+            case PRICE_BAND -> Comparator.comparingInt(count -> bandLabels.indexOf(count.value()));
+            default -> Comparator.comparing(FacetCount::value);
+        };
+        List<FacetCount> result = new ArrayList<>(counts.size());
+        counts.forEach((value, count) -> result.add(new FacetCount(value, count)));
+        result.sort(order);
+        return result;
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    private record Filter(Facet facet, String value) {
+    }
+
+    // 一組輪胎（全部，或某個面向 = 某值的那些）各面向各值的數量
+    private static final class Counts {
+
+        private static final Counts EMPTY = new Counts();
+
+        private final Map<Facet, Map<String, Integer>> byFacet = new EnumMap<>(Facet.class);
+        private int total;
+
+        private Counts() {
+            for (Facet facet : FACETS) {
+                byFacet.put(facet, new HashMap<>());
+            }
+        }
+
+        void add(String[] values, int delta) {
+            total += delta;
+            for (Facet facet : FACETS) {
+                String value = values[facet.ordinal()];
+                if (value != null) {
+                    byFacet.get(facet).merge(value, delta, (a, b) -> a + b == 0 ? null : a + b);
+                }
+            }
+        }
+
+        void clear() {
+            total = 0;
+            byFacet.values().forEach(Map::clear);
+        }
+    }
+}
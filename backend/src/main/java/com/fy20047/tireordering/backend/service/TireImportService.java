@@ -0,0 +1,265 @@
+package com.fy20047.tireordering.backend.service;
+
+import com.fy20047.tireordering.backend.dto.TireImportResponse;
+import com.fy20047.tireordering.backend.entity.Tire;
+import com.fy20047.tireordering.backend.event.TireChangedEvent;
+import com.fy20047.tireordering.backend.repository.TireBatchRepository;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// 後台匯入供應商價目表（CSV）：依 brand + series + size + origin（不分大小寫）新增或更新輪胎
+// 邊讀邊寫：每 chunkSize 筆用一個交易、JDBC batch 送出，不會把整個檔案或整批結果放在記憶體
+// 表頭決定欄位順序：brand、series、size 必填；origin、price、isActive、stock 可省略
+//   price：空白表示「價格另洽」；沒有這一欄時更新不動價格
+//   isActive：true / false，空白或沒有這一欄時新增為上架、更新不動
+//   stock：只用在新增（初始庫存），既有輪胎的庫存請走盤點 API
+// 同一個檔案裡重複出現這次才新增的輪胎（不分大小寫）：後面的列回報為不合格，不算更新（也不會悄悄丟掉它的 stock）
+// 價格與上下架都沒變的列不寫 DB（不會改到 updated_at，前台目錄的 ETag 也不會變）
+// 全部寫完才發一次 TireChangedEvent，目錄快取與搜尋索引只更新一次
+// 每個 chunk 各自 commit：中途失敗時已 commit 的部分會保留（重新匯入同一個檔案即可補齊）
+@Service
+public class TireImportService {
+
+    private static final int MAX_REPORTED_ERRORS = 100;
+
+    private final TireBatchRepository tireBatchRepository;
+    private final TransactionTemplate transaction; // 不設 readOnly：比對要讀主庫的最新資料
+    private final ApplicationEventPublisher eventPublisher;
+    private final int chunkSize;
+
+    public TireImportService(
+            TireBatchRepository tireBatchRepository,
+            PlatformTransactionManager transactionManager,
+            ApplicationEventPublisher eventPublisher,
+            @Value("${tires.import.chunk-size:1000}") int chunkSize
+    ) {
+        this.tireBatchRepository = tireBatchRepository;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.chunkSize = chunkSize;
+    }
+
+    public TireImportResponse importCsv(InputStream in) throws IOException {
+        CsvReader reader = new CsvReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        Columns columns = Columns.parse(reader.next());
+
+        // 既有輪胎的比對 key（整個目錄只讀一次，之後新增的也會加進來）
+        Map<String, Tire> existing = new HashMap<>();
+        transaction.executeWithoutResult(status -> tireBatchRepository.forEachKey(tire -> existing.put(key(tire), tire)));
+
+        Import result = new Import(existing);
+        try {
+            List<String> fields;
+            while ((fields = reader.next()) != null) {
+                if (fields.size() == 1 && fields.get(0).isBlank()) {
+                    continue; // 空白行
+                }
+                try {
+                    result.add(columns.toRow(fields), reader.recordLine());
+                } catch (IllegalArgumentException e) {
+                    result.reject(reader.recordLine(), e.getMessage());
+                }
+                if (result.pendingSize() >= chunkSize) {
+                    result.flush();
+                }
+            }
+            result.flush();
+        } finally {
+            // 已 commit 的異動一定要通知（即使後面失敗）
+            if (!result.changedIds.isEmpty()) {
+                eventPublisher.publishEvent(new TireChangedEvent(List.copyOf(result.changedIds)));
+            }
+        }
+        return new TireImportResponse(result.inserted, result.updated, result.unchanged, result.rejected, result.errors);
+    }
+
+    private static String key(Tire tire) {
+        return normalizeKey(tire.getBrand()) + '\u0000' + normalizeKey(tire.getSeries()) + '\u0000'
+                + normalizeKey(tire.getSize()) + '\u0000' + normalizeKey(tire.getOrigin());
+    }
+
+    private static String normalizeKey(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    // 一次匯入的進度與還沒寫入的一批
+    private final class Import {
+
+        private final Map<String, Tire> existing;
+        private final Map<String, Tire> inserts = new LinkedHashMap<>();
+        private final Map<String, Integer> insertedLines = new HashMap<>(); // 這次新增的輪胎 -> 第一次出現的行號
+        private final Map<Long, Tire> updates = new LinkedHashMap<>();
+        private final Set<Long> changedIds = new LinkedHashSet<>();
+        private final List<TireImportResponse.RowError> errors = new ArrayList<>();
+        private int inserted;
+        private int updated;
+        private int unchanged;
+        private int rejected;
+
+        Import(Map<String, Tire> existing) {
+            this.existing = existing;
+        }
+
+        // 不合格時丟 IllegalArgumentException（由呼叫端記成該行的錯誤）
+        void add(Row row, int line) {
+            String key = key(row.tire());
+            Integer firstLine = insertedLines.get(key);
+            if (firstLine != null) {
+                throw new IllegalArgumentException("Duplicate of line " + firstLine);
+            }
+            Tire current = existing.get(key);
+            if (current == null) {
+                Tire tire = row.tire();
+                tire.setActive(row.active() == null || row.active());
+                inserts.put(key, tire);
+                insertedLines.put(key, line);
+                return;
+            }
+            Integer price = row.hasPrice() ? row.tire().getPrice() : current.getPrice();
+            boolean active = row.active() == null ? current.isActive() : row.active();
+            if (Objects.equals(price, current.getPrice()) && active == current.isActive()) {
+                unchanged++;
+                return;
+            }
+            current.setPrice(price);
+            current.setActive(active);
+            updates.put(current.getId(), current);
+            updated++;
+        }
+
+        void reject(int line, String message) {
+            rejected++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new TireImportResponse.RowError(line, message));
+            }
+        }
+
+        int pendingSize() {
+            return inserts.size() + updates.size();
+        }
+
+        void flush() {
+            if (pendingSize() == 0) {
+                return;
+            }
+            List<Tire> newTires = new ArrayList<>(inserts.values());
+            List<Tire> changedTires = new ArrayList<>(updates.values());
+            transaction.executeWithoutResult(status -> {
+                tireBatchRepository.insertAll(newTires);
+                tireBatchRepository.updateAll(changedTires);
+            });
+            newTires.forEach(tire -> {
+                existing.put(key(tire), tire);
+                changedIds.add(tire.getId());
+            });
+            changedTires.forEach(tire -> changedIds.add(tire.getId()));
+            inserted += newTires.size();
+            inserts.clear();
+            updates.clear();
+        }
+    }
+
+    // CSV 一列轉好的輪胎；hasPrice 為 false 表示檔案沒有 price 欄，active 為 null 表示沒給
+    private record Row(Tire tire, boolean hasPrice, Boolean active) {
+    }
+
+    // 表頭：欄位名稱（不分大小寫）-> 位置
+    private record Columns(int count, int brand, int series, int size, int origin, int price, int active, int stock) {
+
+        static Columns parse(List<String> header) {
+            if (header == null) {
+                throw new IllegalArgumentException("CSV is empty");
+            }
+            Map<String, Integer> positions = new HashMap<>();
+            for (int i = 0; i < header.size(); i++) {
+                String name = header.get(i).replace("\uFEFF", "").trim().toLowerCase(Locale.ROOT); // Excel 存的 UTF-8 會帶 BOM
+                positions.putIfAbsent(name, i);
+            }
+            for (String required : List.of("brand", "series", "size")) {
+                if (!positions.containsKey(required)) {
+                    throw new IllegalArgumentException("Missing column: " + required);
+                }
+            }
+            return new Columns(
+                    header.size(),
+                    positions.get("brand"),
+                    positions.get("series"),
+                    positions.get("size"),
+                    positions.getOrDefault("origin", -1),
+                    positions.getOrDefault("price", -1),
+                    positions.getOrDefault("isactive", -1),
+                    positions.getOrDefault("stock", -1)
+            );
+        }
+
+        // 驗證規則與 AdminTireRequest 相同
+        Row toRow(List<String> fields) {
+            if (fields.size() != count) {
+                throw new IllegalArgumentException("Expected " + count + " columns but got " + fields.size());
+            }
+            String priceText = text(fields, price, "price", 20, false);
+            String activeText = text(fields, active, "isActive", 10, false);
+            String stockText = text(fields, stock, "stock", 20, false);
+            Tire tire = Tire.builder()
+                    .brand(text(fields, brand, "brand", 100, true))
+                    .series(text(fields, series, "series", 100, true))
+                    .size(text(fields, size, "size", 50, true))
+                    .origin(text(fields, origin, "origin", 50, false))
+                    .price(priceText == null ? null : nonNegative(priceText, "price"))
+                    .stock(stockText == null ? 0 : nonNegative(stockText, "stock"))
+                    .build();
+            return new Row(tire, price >= 0, activeText == null ? null : bool(activeText));
+        }
+
+        // 空白回傳 null
+        private static String text(List<String> fields, int index, String name, int maxLength, boolean required) {
+            String value = index < 0 ? "" : fields.get(index).trim();
+            if (value.isEmpty()) {
+                if (required) {
+                    throw new IllegalArgumentException(name + " is required");
+                }
+                return null;
+            }
+            if (value.length() > maxLength) {
+                throw new IllegalArgumentException(name + " must be at most " + maxLength + " characters");
+            }
+            return value;
+        }
+
+        private static int nonNegative(String value, String name) {
+            try {
+                int number = Integer.parseInt(value);
+                if (number >= 0) {
+                    return number;
+                }
+            } catch (NumberFormatException e) {
+                // 同下
+            }
+            throw new IllegalArgumentException(name + " must be a non-negative integer");
+        }
+
+        private static boolean bool(String value) {
+            return switch (value.toLowerCase(Locale.ROOT)) {
+                case "true", "1" -> true;
+                case "false", "0" -> false;
+                default -> throw new IllegalArgumentException("isActive must be true or false");
+            };
+        }
+    }
+}
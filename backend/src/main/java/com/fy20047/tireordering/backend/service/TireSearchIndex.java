@@ -0,0 +1,297 @@
+package com.fy20047.tireordering.backend.service;
+
+import com.fy20047.tireordering.backend.entity.Tire;
+import com.fy20047.tireordering.backend.event.TireChangedEvent;
+import com.fy20047.tireordering.backend.repository.TireRepository;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+// 後台輪胎搜尋用的記憶體 trigram 索引（brand / series / size）
+// 取代 like '%...%'：先用 trigram 的 posting list 交集縮小候選，再逐筆確認 contains
+// 少於 3 個字的關鍵字沒有 trigram 可用，改為依排序順序掃描（跟 DB 的行為一樣，但不用轉小寫整張表）
+// 輪胎異動 commit 後增量更新；索引還沒建好前由 TireService 退回 DB 查詢
+@Component
+public class TireSearchIndex {
+
+    private static final int GRAM = 3;
+    private static final int BRAND = 0;
+    private static final int SERIES = 1;
+    private static final int SIZE = 2;
+    private static final int FULL_RELOAD_THRESHOLD = 1000;
+
+    // 與 TireRepository.search 相同的排序：brand, series, size（不分大小寫），最後用 id 固定順序
+    private static final Comparator<Doc> ORDER = Comparator
+            .comparing((Doc doc) -> doc.fields()[BRAND])
+            .thenComparing(doc -> doc.fields()[SERIES])
+            .thenComparing(doc -> doc.fields()[SIZE])
+            .thenComparing(Doc::id);
+
+    private final TireRepository tireRepository;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Doc> docsById = new HashMap<>();
+    private final List<Doc> docsByNo = new ArrayList<>(); // docNo -> Doc，posting list 裡存的是 docNo
+    private final NavigableSet<Doc> ordered = new TreeSet<>(ORDER);
+    private final List<Map<String, Postings>> postings = List.of(new HashMap<>(), new HashMap<>(), new HashMap<>());
+    private volatile boolean ready;
+
+    public TireSearchIndex(TireRepository tireRepository) {
+        this.tireRepository = tireRepository;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    // 重建索引都讀主庫（readOnly 交易會走 replica，剛 commit 的異動可能還沒同步過去）
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void warmUp() {
+        lock.writeLock().lock();
+        try {
+            // 在鎖內讀 DB，和同時進來的異動事件排隊，不會被舊資料蓋掉
+            tireRepository.findAll().forEach(this::upsert);
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onTireChanged(TireChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            // 大量異動（CSV 匯入）時整份重建：常見 trigram 的 posting list 很長，逐筆移除再加入要一直搬陣列
+            if (event.tireIds().size() > FULL_RELOAD_THRESHOLD) {
+                clear();
+                tireRepository.findAll().forEach(this::upsert);
+                return;
+            }
+            Set<Long> missing = new LinkedHashSet<>(event.tireIds());
+            for (Tire tire : tireRepository.findAllById(event.tireIds())) {
+                upsert(tire);
+                missing.remove(tire.getId());
+            }
+            missing.forEach(this::remove);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // 與 TireRepository.search 相同的 contains 語意；回傳符合條件的 tire id（已排序、已分頁）
+    public List<Long> search(String brand, String series, String size, Boolean active, int offset, Integer limit) {
+        String[] terms = {lower(brand), lower(series), lower(size)};
+        int max = limit == null ? Integer.MAX_VALUE : limit;
+        lock.readLock().lock();
+        try {
+            int[] candidates = candidates(terms);
+            List<Long> ids = new ArrayList<>();
+            if (candidates == null) {
+                // 沒有可用的 trigram：照排序順序掃描，拿到一頁就停
+                int skipped = 0;
+                for (Doc doc : ordered) {
+                    if (ids.size() >= max) {
+                        break;
+                    }
+                    if (matches(doc, terms, active)) {
+                        if (skipped < offset) {
+                            skipped++;
+                        } else {
+                            ids.add(doc.id());
+                        }
+                    }
+                }
+                return ids;
+            }
+
+            List<Doc> matched = new ArrayList<>();
+            for (int docNo : candidates) {
+                Doc doc = docsByNo.get(docNo);
+                if (doc != null && matches(doc, terms, active)) {
+                    matched.add(doc);
+                }
+            }
+            matched.sort(ORDER);
+            for (int i = offset; i < matched.size() && ids.size() < max; i++) {
+                ids.add(matched.get(i).id());
+            }
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // 各欄位關鍵字的 trigram posting list 取交集；沒有任何可用的 trigram 時回傳 null
+    private int[] candidates(String[] terms) {
+        int[] result = null;
+        for (int field = 0; field < terms.length; field++) {
+            String term = terms[field];
+            if (term == null || term.length() < GRAM) {
+                continue;
+            }
+            for (String gram : grams(term)) {
+                Postings list = postings.get(field).get(gram);
+                if (list == null) {
+                    return new int[0];
+                }
+                result = result == null ? list.toArray() : intersect(result, list);
+                if (result.length == 0) {
+                    return result;
+                }
+            }
+        }
+        return result;
+    }
+
+    private boolean matches(Doc doc, String[] terms, Boolean active) {
+        if (active != null && doc.active() != active) {
+            return false;
+        }
+        for (int field = 0; field < terms.length; field++) {
+            if (terms[field] != null && !doc.fields()[field].contains(terms[field])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void upsert(Tire tire) {
+        Doc previous = docsById.get(tire.getId());
+        int docNo = previous != null ? previous.docNo() : docsByNo.size();
+        Doc doc = new Doc(docNo, tire.getId(), tire.isActive(),
+                new String[] {lower(tire.getBrand()), lower(tire.getSeries()), lower(tire.getSize())});
+        if (previous != null) {
+            unindex(previous);
+            docsByNo.set(docNo, doc);
+        } else {
+            docsByNo.add(doc);
+        }
+        docsById.put(doc.id(), doc);
+        ordered.add(doc);
+        for (int field = 0; field < doc.fields().length; field++) {
+            for (String gram : grams(doc.fields()[field])) {
+                postings.get(field).computeIfAbsent(gram, key -> new Postings()).add(docNo);
+            }
+        }
+    }
+
+    private void clear() {
+        docsById.clear();
+        docsByNo.clear();
+        ordered.clear();
+        postings.forEach(Map::clear);
+    }
+
+    private void remove(Long tireId) {
+        Doc previous = docsById.remove(tireId);
+        if (previous != null) {
+            unindex(previous);
+            docsByNo.set(previous.docNo(), null);
+        }
+    }
+
+    private void unindex(Doc doc) {
+        ordered.remove(doc);
+        for (int field = 0; field < doc.fields().length; field++) {
+            Map<String, Postings> fieldPostings = postings.get(field);
+            for (String gram : grams(doc.fields()[field])) {
+                Postings list = fieldPostings.get(gram);
+                if (list != null && list.remove(doc.docNo()) && list.isEmpty()) {
+                    fieldPostings.remove(gram);
+                }
+            }
+        }
+    }
+
+    private static Set<String> grams(String value) {
+        Set<String> grams = new LinkedHashSet<>();
+        for (int i = 0; i + GRAM <= value.length(); i++) {
+            grams.add(value.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+
+    private static int[] intersect(int[] left, Postings right) {
+        int[] out = new int[Math.min(left.length, right.size)];
+        int i = 0;
+        int j = 0;
+        int n = 0;
+        while (i < left.length && j < right.size) {
+            int a = left[i];
+            int b = right.data[j];
+            if (a == b) {
+                out[n++] = a;
+                i++;
+                j++;
+            } else if (a < b) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return Arrays.copyOf(out, n);
+    }
+
+    private static String lower(String value) {
+        return value == null ? null : value.toLowerCase(Locale.ROOT);
+    }
+
+    // fields 依序為小寫後的 brand / series / size
+    private record Doc(int docNo, Long id, boolean active, String[] fields) {
+    }
+
+    // 依 docNo 排序的 int 陣列，比 Set<Long> 省很多記憶體，交集也只要線性合併
+    private static final class Postings {
+
+        private int[] data = new int[4];
+        private int size;
+
+        void add(int docNo) {
+            int pos = Arrays.binarySearch(data, 0, size, docNo);
+            if (pos >= 0) {
+                return;
+            }
+            int insertAt = -pos - 1;
+            if (size == data.length) {
+                data = Arrays.copyOf(data, size * 2);
+            }
+            System.arraycopy(data, insertAt, data, insertAt + 1, size - insertAt);
+            data[insertAt] = docNo;
+            size++;
+        }
+
+        boolean remove(int docNo) {
+            int pos = Arrays.binarySearch(data, 0, size, docNo);
+            if (pos < 0) {
+                return false;
+            }
+            System.arraycopy(data, pos + 1, data, pos, size - pos - 1);
+            size--;
+            return true;
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(data, size);
+        }
+    }
+}
@@ -1,8 +1,20 @@
 package com.fy20047.tireordering.backend.service;
 
 import com.fy20047.tireordering.backend.entity.Tire;
+import com.fy20047.tireordering.backend.entity.TireSize;
+import com.fy20047.tireordering.backend.event.TireChangedEvent;
 import com.fy20047.tireordering.backend.repository.TireRepository;
+import com.fy20047.tireordering.backend.repository.TireSpecifications;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -10,10 +22,27 @@ import org.springframework.transaction.annotation.Transactional;
 @Transactional(readOnly = true)
 public class TireService {
 
+    public static final int DEFAULT_FITMENT_LIMIT = 50;
+    public static final int MAX_FITMENT_LIMIT = 200;
+
+    // 輪圈相等時依索引順序（胎寬、扁平比）輸出，不用另外排序
+    private static final Sort FITMENT_ORDER = Sort.by("width", "aspectRatio", "brand", "series", "id");
+
     private final TireRepository tireRepository;
+    private final TireSearchIndex searchIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final InventoryService inventoryService;
 
-    public TireService(TireRepository tireRepository) {
+    public TireService(
+            TireRepository tireRepository,
+            TireSearchIndex searchIndex,
+            ApplicationEventPublisher eventPublisher,
+            InventoryService inventoryService
+    ) {
         this.tireRepository = tireRepository;
+        this.searchIndex = searchIndex;
+        this.eventPublisher = eventPublisher;
+        this.inventoryService = inventoryService;
     }
 
     public List<Tire> getActiveTires() {
@@ -24,13 +53,71 @@ public class TireService {
         return tireRepository.findAll();
     }
 
-    public List<Tire> searchTires(String brand, String series, String size, Boolean active) {
-        return tireRepository.search(normalize(brand), normalize(series), normalize(size), active);
+    // limit 為 null 表示不分頁
+    public List<Tire> searchTires(
+            String brand,
+            String series,
+            String size,
+            Boolean active,
+            int offset,
+            Integer limit
+    ) {
+        if (offset < 0) {
+            throw new IllegalArgumentException("offset must not be negative");
+        }
+        if (limit != null && limit < 1) {
+            throw new IllegalArgumentException("limit must be at least 1");
+        }
+        // 索引還沒建好（剛啟動）就退回 DB 查詢
+        if (!searchIndex.isReady()) {
+            List<Tire> tires = tireRepository.search(normalize(brand), normalize(series), normalize(size), active);
+            int from = Math.min(offset, tires.size());
+            int to = limit == null ? tires.size() : (int) Math.min((long) from + limit, tires.size());
+            return tires.subList(from, to);
+        }
+
+        // 索引給出排序好的一頁 id，再用主鍵一次撈回這一頁的輪胎
+        List<Long> ids = searchIndex.search(
+                normalize(brand), normalize(series), normalize(size), active, offset, limit);
+        Map<Long, Tire> byId = tireRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Tire::getId, Function.identity()));
+        return ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    // 依規格找上架中的輪胎
+    // 給 size（例如 205/55R16 91V）：胎寬、扁平比、輪圈完全相同，載重指數至少是尺寸上標的
+    // 不給 size 時 rimDiameter 必填，可再加胎寬 / 扁平比範圍與最低載重指數（例如輪圈 16、胎寬 195~215）
+    public List<Tire> findByFitment(FitmentQuery query) {
+        int limit = query.limit() == null ? DEFAULT_FITMENT_LIMIT : Math.min(query.limit(), MAX_FITMENT_LIMIT);
+        if (limit < 1) {
+            throw new IllegalArgumentException("limit must be at least 1");
+        }
+        FitmentQuery resolved = query.size() == null ? query : query.withSize(TireSize.parse(query.size())
+                .orElseThrow(() -> new IllegalArgumentException("Unrecognized tire size")));
+        if (resolved.rimDiameter() == null) {
+            throw new IllegalArgumentException("rimDiameter or size is required");
+        }
+        checkRange(resolved.minWidth(), resolved.maxWidth(), "width");
+        checkRange(resolved.minAspectRatio(), resolved.maxAspectRatio(), "aspectRatio");
+
+        Specification<Tire> spec = Specification.allOf(
+                TireSpecifications.active(),
+                TireSpecifications.rimDiameter(resolved.rimDiameter()),
+                TireSpecifications.between("width", resolved.minWidth(), resolved.maxWidth()),
+                TireSpecifications.between("aspectRatio", resolved.minAspectRatio(), resolved.maxAspectRatio()),
+                TireSpecifications.between("loadIndex", resolved.minLoadIndex(), null)
+        );
+        return tireRepository.findBy(spec, q -> q.sortBy(FITMENT_ORDER).limit(limit).all());
     }
 
     @Transactional
     public Tire createTire(Tire tire) {
-        return tireRepository.save(tire);
+        Tire saved = tireRepository.save(tire);
+        eventPublisher.publishEvent(TireChangedEvent.of(saved.getId())); // commit 後更新目錄快照
+        return saved;
     }
 
     @Transactional
@@ -42,14 +129,26 @@ public class TireService {
         existing.setSize(updated.getSize());
         existing.setPrice(updated.getPrice());
         existing.setActive(updated.isActive());
-        return tireRepository.save(existing);
+        Tire saved = tireRepository.save(existing);
+        eventPublisher.publishEvent(TireChangedEvent.of(saved.getId()));
+        return saved;
     }
 
     @Transactional
     public Tire updateActiveStatus(Long id, boolean isActive) {
         Tire existing = getTireById(id);
         existing.setActive(isActive);
-        return tireRepository.save(existing);
+        Tire saved = tireRepository.save(existing);
+        eventPublisher.publishEvent(TireChangedEvent.of(saved.getId()));
+        return saved;
+    }
+
+    // 盤點：直接設定庫存（前台目錄與搜尋不含庫存，不用通知快取）
+    @Transactional
+    public Tire updateStock(Long id, int stock) {
+        getTireById(id); // 確認輪胎存在
+        inventoryService.setStock(id, stock);
+        return getTireById(id); // UPDATE 後 persistence context 已清空，這裡會讀到新的庫存
     }
 
     public Tire getTireById(Long tireId) {
@@ -57,6 +156,18 @@ public class TireService {
                 .orElseThrow(() -> new IllegalArgumentException("Tire not found"));
     }
 
+    // 條件式 GET 用：只查更新時間，比對 ETag 時不用載入整筆輪胎
+    public LocalDateTime getTireUpdatedAt(Long tireId) {
+        return tireRepository.findUpdatedAtById(tireId)
+                .orElseThrow(() -> new IllegalArgumentException("Tire not found"));
+    }
+
+    private static void checkRange(Integer min, Integer max, String name) {
+        if (min != null && max != null && min > max) {
+            throw new IllegalArgumentException(name + " range is empty");
+        }
+    }
+
     private String normalize(String value) {
         if (value == null) {
             return null;
@@ -64,4 +175,30 @@ public class TireService {
         String trimmed = value.trim();
         return trimmed.isEmpty() ? null : trimmed;
     }
+
+    // 規格查詢條件：null 表示不限；有 size 時以 size 解析出的規格為準
+    public record FitmentQuery(
+            String size,
+            BigDecimal rimDiameter,
+            Integer minWidth,
+            Integer maxWidth,
+            Integer minAspectRatio,
+            Integer maxAspectRatio,
+            Integer minLoadIndex,
+            Integer limit
+    ) {
+
+        FitmentQuery withSize(TireSize parsed) {
+            return new FitmentQuery(
+                    null,
+                    parsed.rimDiameter(),
+                    parsed.width(),
+                    parsed.width(),
+                    parsed.aspectRatio(),
+                    parsed.aspectRatio(),
+                    minLoadIndex != null ? minLoadIndex : parsed.loadIndex(),
+                    limit
+            );
+        }
+    }
 }
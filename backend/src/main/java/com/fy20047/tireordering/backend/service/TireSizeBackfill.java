@@ -0,0 +1,76 @@
+package com.fy20047.tireordering.backend.service;
+
+import com.fy20047.tireordering.backend.entity.Tire;
+import com.fy20047.tireordering.backend.event.TireChangedEvent;
+import com.fy20047.tireordering.backend.repository.TireBatchRepository;
+import java.util.ArrayList;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// 啟動後補齊舊資料的規格欄位（加欄位前就存在的輪胎，size 還沒解析過）
+// 依 id 往後分批處理，每批一個交易；解析不了的尺寸維持 null，下次啟動會再看一次（只讀 id 與 size，很便宜）
+// 之後新增 / 修改的輪胎由 Tire 的 @PrePersist / @PreUpdate 自動解析，不需要再跑
+// 補完發一次 TireChangedEvent：篩選統計等記憶體快取若已經先預熱，才會拿到補上的規格（兩者啟動順序不固定）
+@Component
+public class TireSizeBackfill {
+
+    private static final Logger log = LoggerFactory.getLogger(TireSizeBackfill.class);
+
+    private final TireBatchRepository tireBatchRepository;
+    private final TransactionTemplate transaction; // 不設 readOnly：要寫入
+    private final ApplicationEventPublisher eventPublisher;
+    private final int batchSize;
+
+    public TireSizeBackfill(
+            TireBatchRepository tireBatchRepository,
+            PlatformTransactionManager transactionManager,
+            ApplicationEventPublisher eventPublisher,
+            @Value("${tires.size-backfill.batch-size:500}") int batchSize
+    ) {
+        this.tireBatchRepository = tireBatchRepository;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.batchSize = batchSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        long afterId = 0;
+        List<Long> parsed = new ArrayList<>();
+        int unparsed = 0;
+        while (true) {
+            long from = afterId;
+            List<Tire> batch = transaction.execute(status -> {
+                List<Tire> tires = tireBatchRepository.findWithoutSize(from, batchSize);
+                tires.forEach(Tire::applySize);
+                tireBatchRepository.updateSizes(tires.stream().filter(tire -> tire.getWidth() != null).toList());
+                return tires;
+            });
+            for (Tire tire : batch) {
+                if (tire.getWidth() != null) {
+                    parsed.add(tire.getId());
+                } else {
+                    unparsed++;
+                }
+            }
+            if (batch.size() < batchSize) {
+                break;
+            }
+            afterId = batch.get(batch.size() - 1).getId();
+        }
+        if (!parsed.isEmpty() || unparsed > 0) {
+            log.info("Backfilled tire sizes: {} parsed, {} unrecognized", parsed.size(), unparsed);
+        }
+        if (!parsed.isEmpty()) {
+            eventPublisher.publishEvent(new TireChangedEvent(parsed));
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.fy20047.tireordering.backend.service;
+
+import com.fy20047.tireordering.backend.dto.ThreadDiagnosticsResponse;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+// Virtual thread 診斷：用 JFR 串流統計 virtual thread 數量，以及 carrier thread 被 pin 住的次數與位置
+// （在 synchronized 區塊或 native 呼叫裡阻塞時，virtual thread 無法讓出 carrier）
+// 只有 diagnostics.virtual-threads.enabled=true 才開始錄，平常不增加負擔
+@Component
+public class VirtualThreadDiagnostics implements DisposableBean {
+
+    private static final int MAX_LOCATIONS = 100;
+
+    private final boolean virtualThreadsEnabled;
+    private final RecordingStream recording;
+    private final LongAdder started = new LongAdder();
+    private final LongAdder ended = new LongAdder();
+    private final LongAdder pinned = new LongAdder();
+    private final Map<String, LongAdder> pinnedLocations = new ConcurrentHashMap<>();
+
+    public VirtualThreadDiagnostics(
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreadsEnabled,
+            @Value("${diagnostics.virtual-threads.enabled:false}") boolean recordingEnabled,
+            @Value("${diagnostics.virtual-threads.pinned-threshold:20ms}") Duration pinnedThreshold
+    ) {
+        this.virtualThreadsEnabled = virtualThreadsEnabled;
+        this.recording = recordingEnabled ? startRecording(pinnedThreshold) : null;
+    }
+
+    public ThreadDiagnosticsResponse snapshot() {
+        Map<String, Long> locations = new LinkedHashMap<>();
+        pinnedLocations.entrySet().stream()
+                .sorted((a, b) -> Long.compare(b.getValue().sum(), a.getValue().sum()))
+                .forEach(entry -> locations.put(entry.getKey(), entry.getValue().sum()));
+        long startedCount = started.sum();
+        long endedCount = ended.sum();
+        return new ThreadDiagnosticsResponse(
+                virtualThreadsEnabled,
+                recording != null,
+                startedCount,
+                endedCount,
+                Math.max(0, startedCount - endedCount),
+                pinned.sum(),
+                locations,
+                ManagementFactory.getThreadMXBean().getThreadCount(), // ThreadMXBean 只算 platform thread（含 carrier）
+                Integer.getInteger("jdk.virtualThreadScheduler.parallelism", Runtime.getRuntime().availableProcessors())
+        );
+    }
+
+    @Override
+    public void destroy() {
+        if (recording != null) {
+            recording.close();
+        }
+    }
+
+    private RecordingStream startRecording(Duration pinnedThreshold) {
+        RecordingStream stream = new RecordingStream();
+        stream.enable("jdk.VirtualThreadStart");
+        stream.enable("jdk.VirtualThreadEnd");
+        stream.enable("jdk.VirtualThreadPinned").withThreshold(pinnedThreshold).withStackTrace();
+        stream.onEvent("jdk.VirtualThreadStart", event -> started.increment());
+        stream.onEvent("jdk.VirtualThreadEnd", event -> ended.increment());
+        stream.onEvent("jdk.VirtualThreadPinned", this::onPinned);
+        stream.startAsync();
+        return stream;
+    }
+
+    // 依第一個非 JDK 的 frame 歸類（我們的程式或 driver），看是誰 pin 住 carrier
+    private void onPinned(RecordedEvent event) {
+        pinned.increment();
+        String location = pinnedLocation(event);
+        LongAdder counter = pinnedLocations.get(location);
+        if (counter == null && pinnedLocations.size() >= MAX_LOCATIONS) {
+            location = "(other)";
+        }
+        pinnedLocations.computeIfAbsent(location, key -> new LongAdder()).increment();
+    }
+
+    private static String pinnedLocation(RecordedEvent event) {
+        if (event.getStackTrace() == null) {
+            return "(unknown)";
+        }
+        List<RecordedFrame> frames = event.getStackTrace().getFrames();
+        for (RecordedFrame frame : frames) {
+            String type = frame.getMethod().getType().getName();
+            if (!type.startsWith("java.") && !type.startsWith("jdk.") && !type.startsWith("sun.")) {
+                return type + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+            }
+        }
+        return frames.isEmpty() ? "(unknown)" : frames.get(0).getMethod().getType().getName();
+    }
+}
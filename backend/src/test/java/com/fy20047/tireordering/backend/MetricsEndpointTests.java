@@ -0,0 +1,78 @@
+package com.fy20047.tireordering.backend;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fy20047.tireordering.backend.entity.Admin;
+import com.fy20047.tireordering.backend.entity.Tire;
+import com.fy20047.tireordering.backend.security.JwtService;
+import com.fy20047.tireordering.backend.service.TireService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+// 打過前台 / 後台 API 後，/actuator/prometheus 要有 endpoint、repository、交易、連線池與 JVM 的指標
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+class MetricsEndpointTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private TireService tireService;
+
+	@Autowired
+	private JwtService jwtService;
+
+	@Test
+	void prometheusScrapeContainsApplicationMetrics() throws Exception {
+		Tire tire = tireService.createTire(Tire.builder()
+				.brand("Bridgestone")
+				.series("ALENZA")
+				.size("225/60R18")
+				.price(3850)
+				.stock(12)
+				.build());
+		String token = jwtService.generateToken(Admin.builder().username("admin").build());
+
+		mockMvc.perform(get("/api/tires")).andExpect(status().isOk());
+		String order = """
+				{"tireId": %d, "quantity": 4, "customerName": "王小明", "phone": "0912345678",
+				 "installationOption": "INSTALL", "carModel": "RAV4"}
+				""".formatted(tire.getId());
+		mockMvc.perform(post("/api/orders").contentType(MediaType.APPLICATION_JSON).content(order))
+				.andExpect(status().isCreated());
+		mockMvc.perform(post("/api/orders/batch")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"orders\": [" + order + "," + order + "]}"))
+				.andExpect(status().isCreated());
+		mockMvc.perform(get("/api/admin/orders").header("Authorization", "Bearer " + token))
+				.andExpect(status().isOk());
+
+		String scrape = mockMvc.perform(get("/actuator/prometheus"))
+				.andExpect(status().isOk())
+				.andReturn()
+				.getResponse()
+				.getContentAsString();
+
+		assertThat(scrape)
+				.contains("http_server_requests_seconds_bucket{")
+				.contains("uri=\"/api/admin/orders\"")
+				.contains("spring_data_repository_invocations_seconds_bucket{")
+				.contains("repository=\"OrderRepository\"")
+				.contains("repository_invocations_seconds_bucket{")
+				.contains("class=\"OrderBatchRepository\"", "class=\"OrderService\"")
+				.contains("service_transactional_seconds_bucket{")
+				.contains("hikaricp_connections_active", "hikaricp_connections_idle",
+						"hikaricp_connections_pending", "hikaricp_connections_acquire_seconds_bucket")
+				.contains("jvm_gc_memory_allocated_bytes_total");
+	}
+}
@@ -0,0 +1,94 @@
+package com.fy20047.tireordering.backend.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.HashSet;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// 本機用三個內嵌 H2 模擬一主兩從：readOnly 交易輪流走 replica，落後太多或全部不能用時退回主庫，寫入永遠走主庫
+// replica 的延遲用一張 replica_lag 表模擬（正式環境是 SHOW REPLICA STATUS）
+@SpringBootTest(properties = {
+		"spring.datasource.url=" + ReadReplicaRoutingTests.PRIMARY_URL,
+		"datasource.read-replicas.enabled=true",
+		"datasource.read-replicas.replicas[0].url=" + ReadReplicaRoutingTests.REPLICA_A_URL,
+		"datasource.read-replicas.replicas[1].url=" + ReadReplicaRoutingTests.REPLICA_B_URL,
+		"datasource.read-replicas.max-lag=5s",
+		"datasource.read-replicas.lag-query=select lag_seconds from replica_lag",
+		"datasource.read-replicas.lag-column=lag_seconds",
+		"datasource.read-replicas.check-interval=1h"
+})
+class ReadReplicaRoutingTests {
+
+	static final String PRIMARY_URL = "jdbc:h2:mem:routing_primary;MODE=MariaDB;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+	static final String REPLICA_A_URL = "jdbc:h2:mem:routing_replica_a;MODE=MariaDB;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+	static final String REPLICA_B_URL = "jdbc:h2:mem:routing_replica_b;MODE=MariaDB;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private ReplicaRoutingDataSource replicaRoutingDataSource;
+
+	@BeforeEach
+	void replicasInSync() {
+		setLag(REPLICA_A_URL, 0);
+		setLag(REPLICA_B_URL, 0);
+		replicaRoutingDataSource.checkReplicas();
+	}
+
+	@Test
+	void readOnlyTransactionsRoundRobinAcrossReplicas() {
+		Set<String> served = new HashSet<>();
+		for (int i = 0; i < 4; i++) {
+			served.add(databaseIn(true));
+		}
+
+		assertThat(replicaRoutingDataSource.healthyReplicas()).isEqualTo(2);
+		assertThat(served).containsExactlyInAnyOrder("routing_replica_a", "routing_replica_b");
+	}
+
+	@Test
+	void writesAlwaysGoToPrimary() {
+		assertThat(databaseIn(false)).isEqualTo("routing_primary");
+	}
+
+	@Test
+	void laggingReplicaIsSkippedAndPrimaryServesWhenNoneAreUsable() {
+		setLag(REPLICA_A_URL, 30);
+		replicaRoutingDataSource.checkReplicas();
+
+		assertThat(databaseIn(true)).isEqualTo("routing_replica_b");
+		assertThat(databaseIn(true)).isEqualTo("routing_replica_b");
+
+		setLag(REPLICA_B_URL, null); // 複寫停了
+		replicaRoutingDataSource.checkReplicas();
+
+		assertThat(replicaRoutingDataSource.healthyReplicas()).isZero();
+		assertThat(databaseIn(true)).isEqualTo("routing_primary");
+	}
+
+	// 在 readOnly / 一般交易裡查目前連到哪個 DB（JdbcTemplate 會沿用 JPA 交易的連線）
+	private String databaseIn(boolean readOnly) {
+		TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+		transaction.setReadOnly(readOnly);
+		return transaction.execute(status -> jdbcTemplate.queryForObject("select database()", String.class)).toLowerCase();
+	}
+
+	private static void setLag(String url, Integer seconds) {
+		JdbcTemplate replica = new JdbcTemplate(new DriverManagerDataSource(url, "sa", ""));
+		replica.execute("create table if not exists replica_lag (lag_seconds int)");
+		replica.update("delete from replica_lag");
+		replica.update("insert into replica_lag (lag_seconds) values (?)", seconds);
+	}
+}
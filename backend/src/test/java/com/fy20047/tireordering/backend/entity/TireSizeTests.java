@@ -0,0 +1,48 @@
+package com.fy20047.tireordering.backend.entity;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.NullSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+// 尺寸文字解析：常見寫法都要解析出同樣的規格；解析不了的回傳 empty（不丟例外，規格欄位留 null）
+class TireSizeTests {
+
+	@Test
+	void parsesFullSize() {
+		assertThat(TireSize.parse("205/55R16 91V")).contains(
+				new TireSize(205, 55, "R", new BigDecimal("16.0"), 91, "V"));
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = {"205/55R16", "205/55 R16", "205 55R16", " 205/55r16 ", "P205/55R16", "205/55ZR16 XL"})
+	void parsesCommonSpellingsWithoutLoadIndex(String text) {
+		TireSize size = TireSize.parse(text).orElseThrow();
+
+		assertThat(size.width()).isEqualTo(205);
+		assertThat(size.aspectRatio()).isEqualTo(55);
+		assertThat(size.rimDiameter()).isEqualByComparingTo("16");
+		assertThat(size.loadIndex()).isNull();
+		assertThat(size.speedRating()).isNull();
+	}
+
+	@Test
+	void parsesCommercialAndHalfInchSizes() {
+		assertThat(TireSize.parse("LT215/75R15C 104/102T")).contains(
+				new TireSize(215, 75, "R", new BigDecimal("15.0"), 104, "T"));
+		assertThat(TireSize.parse("245/70R19.5 136/134M")).contains(
+				new TireSize(245, 70, "R", new BigDecimal("19.5"), 136, "M"));
+		assertThat(TireSize.parse("225/40ZR18 (92Y)")).contains(
+				new TireSize(225, 40, "ZR", new BigDecimal("18.0"), 92, "Y"));
+	}
+
+	@ParameterizedTest
+	@NullSource
+	@ValueSource(strings = {"", "   ", "205/55", "205/R16", "20/55R16", "205/5R16", "205-55-16", "R16 205/55", "16吋", "205/55X16"})
+	void malformedSizesAreEmpty(String text) {
+		assertThat(TireSize.parse(text)).isEmpty();
+	}
+}
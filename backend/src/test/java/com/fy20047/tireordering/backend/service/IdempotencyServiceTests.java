@@ -0,0 +1,140 @@
+package com.fy20047.tireordering.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fy20047.tireordering.backend.config.OrderIntakeProperties;
+import com.fy20047.tireordering.backend.entity.IdempotencyRecord;
+import com.fy20047.tireordering.backend.entity.Tire;
+import com.fy20047.tireordering.backend.enums.InstallationOption;
+import com.fy20047.tireordering.backend.enums.OrderIntakeMode;
+import com.fy20047.tireordering.backend.service.OrderService.CreateOrderCommand;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+// Idempotency-Key：同一個 key 同時送只成立一筆；換了內容回 422（記憶體清掉之後也一樣）；記憶體有上限
+// 記憶體上限設得很小，測試裡塞幾個別的 key 就會把前面的清掉，逼它走 DB 那層
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:idempotency;MODE=MariaDB;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000",
+		"orders.idempotency.memory-max-entries=4"
+})
+class IdempotencyServiceTests {
+
+	private static final int THREADS = 16;
+
+	@Autowired
+	private IdempotencyService idempotencyService;
+
+	@Autowired
+	private OrderService orderService;
+
+	@Autowired
+	private TireService tireService;
+
+	@Autowired
+	private TireCatalogCache catalogCache;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private NamedParameterJdbcTemplate jdbcTemplate;
+
+	@TempDir
+	private Path directory;
+
+	@Test
+	void concurrentRequestsWithSameKeyCreateOneOrder() throws Exception {
+		Tire tire = TestTires.create(tireService, "Idempotency", "ONCE", 3000, 1000);
+		CreateOrderCommand command = command(tire, 2);
+
+		ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<Long>> results = new ArrayList<>();
+		for (int i = 0; i < THREADS; i++) {
+			results.add(pool.submit(() -> {
+				start.await();
+				return idempotencyService.createOrder("same-key", command).getOrderId();
+			}));
+		}
+		start.countDown();
+		List<Long> orderIds = new ArrayList<>();
+		for (Future<Long> result : results) {
+			orderIds.add(result.get());
+		}
+		pool.shutdown();
+
+		assertThat(orderIds).containsOnly(orderIds.get(0));
+		assertThat(countOrders(tire)).isEqualTo(1);
+		assertThatThrownBy(() -> idempotencyService.createOrder("same-key", command(tire, 3)))
+				.isInstanceOf(IdempotencyKeyReusedException.class);
+	}
+
+	@Test
+	void differentPayloadIsRejectedAfterMemoryEviction() {
+		Tire tire = TestTires.create(tireService, "Idempotency", "ONCE", 3000, 1000);
+		IdempotencyRecord first = idempotencyService.createOrder("evicted-key", command(tire, 1));
+		fillMemory(tire, "direct");
+
+		assertThat(idempotencyService.memoryEntries()).isLessThanOrEqualTo(4);
+		assertThat(idempotencyService.createOrder("evicted-key", command(tire, 1)).getOrderId())
+				.isEqualTo(first.getOrderId());
+		assertThatThrownBy(() -> idempotencyService.createOrder("evicted-key", command(tire, 4)))
+				.isInstanceOf(IdempotencyKeyReusedException.class);
+		assertThat(countOrders(tire)).isEqualTo(1 + 8);
+	}
+
+	@Test
+	void journalKeyIsStoredDurablyWithItsFingerprint() throws Exception {
+		Tire tire = TestTires.create(tireService, "Idempotency", "ONCE", 3000, 1000);
+		OrderIntakeProperties properties = new OrderIntakeProperties(OrderIntakeMode.JOURNAL, directory.toString(),
+				1 << 20, 1000, 64, 3, Duration.ofHours(1), 3);
+		OrderJournal journal = new OrderJournal(properties);
+		OrderIntakeService intake = new OrderIntakeService(orderService, catalogCache, journal, objectMapper);
+		OrderJournalDrainer drainer = new OrderJournalDrainer(journal, orderService, objectMapper, properties);
+
+		JournaledOrder accepted = idempotencyService.acceptOrder("journal-key", command(tire, 1), intake);
+		drainer.drain();
+		fillMemory(tire, "journal");
+
+		// 記憶體已經清掉，靠 drainer 寫進 idempotency_keys 的紀錄：同內容拿到同一個編號，換內容回 422
+		assertThat(idempotencyService.acceptOrder("journal-key", command(tire, 1), intake).reference())
+				.isEqualTo(accepted.reference());
+		assertThatThrownBy(() -> idempotencyService.acceptOrder("journal-key", command(tire, 2), intake))
+				.isInstanceOf(IdempotencyKeyReusedException.class);
+		drainer.drain();
+		journal.destroy();
+
+		assertThat(countOrders(tire)).isEqualTo(1 + 8);
+	}
+
+	// 用別的 key 各下一筆，超過記憶體上限，前面的 key 會被清掉
+	private void fillMemory(Tire tire, String prefix) {
+		for (int i = 0; i < 8; i++) {
+			idempotencyService.createOrder(prefix + "-filler-" + i, command(tire, 1));
+		}
+	}
+
+	private long countOrders(Tire tire) {
+		return jdbcTemplate.queryForObject("select count(*) from tire_orders where tire_id = :tireId",
+				Map.of("tireId", tire.getId()), Long.class);
+	}
+
+	private static CreateOrderCommand command(Tire tire, int quantity) {
+		return new CreateOrderCommand(tire.getId(), quantity, "王小明", "0912345678", null,
+				InstallationOption.INSTALL, null, "Altis", null);
+	}
+}
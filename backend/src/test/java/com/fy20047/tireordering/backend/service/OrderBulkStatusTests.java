@@ -0,0 +1,185 @@
+package com.fy20047.tireordering.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.reset;
+
+import com.fy20047.tireordering.backend.dto.BulkUpdateOrderStatusResponse;
+import com.fy20047.tireordering.backend.dto.BulkUpdateOrderStatusResponse.Item;
+import com.fy20047.tireordering.backend.entity.Order;
+import com.fy20047.tireordering.backend.entity.Tire;
+import com.fy20047.tireordering.backend.enums.BulkStatusResult;
+import com.fy20047.tireordering.backend.enums.InstallationOption;
+import com.fy20047.tireordering.backend.enums.OrderStatus;
+import com.fy20047.tireordering.backend.repository.OrderBatchRepository;
+import com.fy20047.tireordering.backend.service.OrderService.CreateOrderCommand;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+// 批次改狀態：每個 id 的結果（UPDATED / UNCHANGED / NOT_ALLOWED / NOT_FOUND）、依條件分批的 hasMore、
+// 取消時同一個輪胎合併還庫存、UPDATE 筆數對不上時整批 rollback
+// 用自己的記憶體 DB，依條件改狀態不會改到其他測試的訂單
+@SpringBootTest(properties =
+		"spring.datasource.url=jdbc:h2:mem:bulkstatus;MODE=MariaDB;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000")
+class OrderBulkStatusTests {
+
+	@Autowired
+	private OrderService orderService;
+
+	@Autowired
+	private TireService tireService;
+
+	@MockitoSpyBean
+	private OrderBatchRepository orderBatchRepository;
+
+	@Autowired
+	private NamedParameterJdbcTemplate jdbcTemplate;
+
+	@AfterEach
+	void resetSpy() {
+		reset(orderBatchRepository);
+	}
+
+	@Test
+	void reportsAnOutcomeForEveryRequestedId() {
+		Tire tire = TestTires.create(tireService, "Bulk", "OUTCOMES", 3000, 100);
+		Order pending = orderService.createOrder(command(tire, 1));
+		Order confirmed = orderService.createOrder(command(tire, 1));
+		Order cancelled = orderService.createOrder(command(tire, 1));
+		orderService.updateOrderStatus(confirmed.getId(), OrderStatus.CONFIRMED);
+		orderService.updateOrderStatus(cancelled.getId(), OrderStatus.CANCELLED);
+		long missing = cancelled.getId() + 1000;
+
+		BulkUpdateOrderStatusResponse response = orderService.updateOrderStatuses(OrderStatus.CONFIRMED,
+				List.of(pending.getId(), confirmed.getId(), cancelled.getId(), missing, pending.getId()));
+
+		assertThat(response.updated()).isEqualTo(1);
+		assertThat(response.hasMore()).isFalse();
+		assertThat(response.results()).containsExactly(
+				new Item(pending.getId(), BulkStatusResult.UPDATED, OrderStatus.PENDING),
+				new Item(confirmed.getId(), BulkStatusResult.UNCHANGED, OrderStatus.CONFIRMED),
+				new Item(cancelled.getId(), BulkStatusResult.NOT_ALLOWED, OrderStatus.CANCELLED),
+				new Item(missing, BulkStatusResult.NOT_FOUND, null));
+		assertThat(status(pending)).isEqualTo(OrderStatus.CONFIRMED);
+		assertThat(status(cancelled)).isEqualTo(OrderStatus.CANCELLED);
+	}
+
+	@Test
+	void filterReportsHasMoreOnlyWhenOrdersAreLeft() {
+		Tire tire = TestTires.create(tireService, "Bulk", "PAGING", 3000, 0);
+		LocalDate full = LocalDate.of(2020, 1, 1);
+		LocalDate overflow = LocalDate.of(2020, 2, 1);
+		insertPending(tire, full, OrderService.MAX_BULK_STATUS_SIZE);
+		insertPending(tire, overflow, OrderService.MAX_BULK_STATUS_SIZE + 1);
+
+		// 剛好一批：改完就沒有剩
+		BulkUpdateOrderStatusResponse response = orderService.updateOrderStatuses(
+				OrderStatus.CONFIRMED, OrderStatus.PENDING, full, full);
+		assertThat(response.updated()).isEqualTo(OrderService.MAX_BULK_STATUS_SIZE);
+		assertThat(response.hasMore()).isFalse();
+
+		response = orderService.updateOrderStatuses(OrderStatus.CONFIRMED, OrderStatus.PENDING, overflow, overflow);
+		assertThat(response.updated()).isEqualTo(OrderService.MAX_BULK_STATUS_SIZE);
+		assertThat(response.hasMore()).isTrue();
+
+		response = orderService.updateOrderStatuses(OrderStatus.CONFIRMED, OrderStatus.PENDING, overflow, overflow);
+		assertThat(response.updated()).isEqualTo(1);
+		assertThat(response.hasMore()).isFalse();
+		assertThat(countPending(tire)).isZero();
+	}
+
+	@Test
+	void cancelReleasesMergedStockPerTire() {
+		Tire a = TestTires.create(tireService, "Bulk", "RELEASE-A", 3000, 50);
+		Tire b = TestTires.create(tireService, "Bulk", "RELEASE-B", 3000, 50);
+		List<Long> ids = List.of(
+				orderService.createOrder(command(a, 2)).getId(),
+				orderService.createOrder(command(a, 3)).getId(),
+				orderService.createOrder(command(b, 4)).getId());
+		Order kept = orderService.createOrder(command(a, 5));
+		assertThat(stock(a)).isEqualTo(40);
+		assertThat(stock(b)).isEqualTo(46);
+
+		BulkUpdateOrderStatusResponse response = orderService.updateOrderStatuses(OrderStatus.CANCELLED, ids);
+
+		assertThat(response.updated()).isEqualTo(3);
+		assertThat(stock(a)).isEqualTo(45);
+		assertThat(stock(b)).isEqualTo(50);
+		assertThat(status(kept)).isEqualTo(OrderStatus.PENDING);
+
+		// 已經取消的再取消一次：UNCHANGED，不會重複還庫存
+		orderService.updateOrderStatuses(OrderStatus.CANCELLED, ids);
+		assertThat(stock(a)).isEqualTo(45);
+		assertThat(stock(b)).isEqualTo(50);
+	}
+
+	@Test
+	void concurrentChangeRollsBackTheWholeBatch() {
+		Tire tire = TestTires.create(tireService, "Bulk", "CONCURRENT", 3000, 20);
+		Order first = orderService.createOrder(command(tire, 2));
+		Order second = orderService.createOrder(command(tire, 3));
+		// 模擬鎖住之後 second 被別的地方改成已完成：UPDATE 只改得到一筆
+		doAnswer(invocation -> {
+			jdbcTemplate.update("update tire_orders set status = 'COMPLETED' where id = :id", Map.of("id", second.getId()));
+			return invocation.callRealMethod();
+		}).when(orderBatchRepository).updateStatus(any(Collection.class), any(Collection.class), any(), any());
+
+		assertThatThrownBy(() -> orderService.updateOrderStatuses(OrderStatus.CANCELLED,
+				List.of(first.getId(), second.getId())))
+				.isInstanceOf(IllegalStateException.class)
+				.hasMessage("Orders were modified concurrently, please retry");
+
+		assertThat(status(first)).isEqualTo(OrderStatus.PENDING);
+		assertThat(status(second)).isEqualTo(OrderStatus.PENDING);
+		assertThat(stock(tire)).isEqualTo(15);
+	}
+
+	// 直接寫入指定日期的待處理訂單（不扣庫存），用來湊滿一批以上
+	private void insertPending(Tire tire, LocalDate date, int count) {
+		List<Order> orders = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			orders.add(Order.builder()
+					.tire(tire)
+					.quantity(1)
+					.unitPrice(tire.getPrice())
+					.customerName("王小明")
+					.phone("0912345678")
+					.installationOption(InstallationOption.INSTALL)
+					.carModel("Altis")
+					.createdAt(date.atTime(9, 0).plusSeconds(i))
+					.build());
+		}
+		orderBatchRepository.insertAll(orders);
+	}
+
+	private OrderStatus status(Order order) {
+		return OrderStatus.valueOf(jdbcTemplate.queryForObject("select status from tire_orders where id = :id",
+				Map.of("id", order.getId()), String.class));
+	}
+
+	private int stock(Tire tire) {
+		return jdbcTemplate.queryForObject("select stock from tires where id = :id",
+				Map.of("id", tire.getId()), Integer.class);
+	}
+
+	private long countPending(Tire tire) {
+		return jdbcTemplate.queryForObject("select count(*) from tire_orders where tire_id = :tireId and status = 'PENDING'",
+				Map.of("tireId", tire.getId()), Long.class);
+	}
+
+	private static CreateOrderCommand command(Tire tire, int quantity) {
+		return new CreateOrderCommand(tire.getId(), quantity, "王小明", "0912345678", null,
+				InstallationOption.INSTALL, null, "Altis", null);
+	}
+}
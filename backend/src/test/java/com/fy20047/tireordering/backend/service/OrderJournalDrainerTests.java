@@ -0,0 +1,144 @@
+package com.fy20047.tireordering.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fy20047.tireordering.backend.config.OrderIntakeProperties;
+import com.fy20047.tireordering.backend.entity.Tire;
+import com.fy20047.tireordering.backend.enums.InstallationOption;
+import com.fy20047.tireordering.backend.enums.OrderIntakeMode;
+import com.fy20047.tireordering.backend.service.OrderService.CreateOrderCommand;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+// journal 寫入 DB：當機重播每筆只寫一次；寫不進去的那一筆移到 dead-letter，其他照常寫入
+// journal 與 drainer 在測試裡自己建（應用程式本身用 direct 模式），DB 與 OrderService 用真的
+@SpringBootTest
+class OrderJournalDrainerTests {
+
+	@Autowired
+	private OrderService orderService;
+
+	@Autowired
+	private TireService tireService;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private NamedParameterJdbcTemplate jdbcTemplate;
+
+	@TempDir
+	private Path directory;
+
+	@Test
+	void replayAfterCrashWritesEachOrderOnce() throws Exception {
+		Tire tire = TestTires.create(tireService, "Journal", "REPLAY", 3000, 1000);
+		OrderIntakeProperties properties = properties(3);
+		List<String> references = new ArrayList<>();
+
+		OrderJournal journal = new OrderJournal(properties);
+		OrderJournal.Position start = journal.loadCheckpoint();
+		for (int i = 0; i < 10; i++) {
+			references.add(append(journal, tire, "王小明"));
+		}
+		new OrderJournalDrainer(journal, orderService, objectMapper, properties).drain();
+
+		// 當機情境：訂單已經 commit，但 checkpoint 沒存到（退回起點，10 筆都會重播）；之後又收了幾筆，最後一筆只寫了一半
+		journal.saveCheckpoint(start);
+		for (int i = 0; i < 4; i++) {
+			references.add(append(journal, tire, "王小明"));
+		}
+		journal.destroy();
+		appendTornFrame();
+
+		// 重啟：重新開 journal（截掉寫一半的尾巴），從 checkpoint 重播
+		OrderJournal restarted = new OrderJournal(properties);
+		OrderJournalDrainer drainer = new OrderJournalDrainer(restarted, orderService, objectMapper, properties);
+		drainer.drain();
+		drainer.drain(); // 追上之後再跑一次也不會重複寫
+		restarted.destroy();
+
+		assertThat(countByReference(references)).hasSize(references.size()).allSatisfy((reference, count) ->
+				assertThat(count).as(reference).isEqualTo(1L));
+		assertThat(restarted.read(restarted.loadCheckpoint(), 100).entries()).isEmpty();
+	}
+
+	@Test
+	void failingEntryIsDeadLetteredAndDrainingContinues() throws Exception {
+		Tire tire = TestTires.create(tireService, "Journal", "REPLAY", 3000, 1000);
+		OrderIntakeProperties properties = properties(2);
+		OrderJournal journal = new OrderJournal(properties);
+		String first = append(journal, tire, "王小明");
+		String poison = append(journal, tire, "X".repeat(500)); // 超過 customer_name 長度，每次寫入都會失敗
+		String last = append(journal, tire, "王小明");
+		OrderJournalDrainer drainer = new OrderJournalDrainer(journal, orderService, objectMapper, properties);
+
+		// 第一次單獨失敗：先當成暫時錯誤，checkpoint 不前進
+		assertThatThrownBy(drainer::drain).isInstanceOf(RuntimeException.class);
+		// 達到次數：移到 dead-letter，後面的訂單照常寫入
+		drainer.drain();
+		journal.destroy();
+
+		assertThat(countByReference(List.of(first, poison, last))).containsOnlyKeys(first, last);
+		assertThat(Files.readString(directory.resolve("dead-letter.ndjson"))).contains(poison).hasLineCount(1);
+		assertThat(journal.read(journal.loadCheckpoint(), 100).entries()).isEmpty();
+	}
+
+	private String append(OrderJournal journal, Tire tire, String customerName) throws Exception {
+		String reference = UUID.randomUUID().toString();
+		CreateOrderCommand command = new CreateOrderCommand(tire.getId(), 1, customerName, "0912345678", null,
+				InstallationOption.INSTALL, null, "Altis", null);
+		journal.append(objectMapper.writeValueAsBytes(new JournaledOrder(reference, LocalDateTime.now(), command)))
+				.get();
+		return reference;
+	}
+
+	// 在最新的段後面接一段長度對、內容不完整的資料，模擬寫到一半當機
+	private void appendTornFrame() throws IOException {
+		Path segment;
+		try (Stream<Path> files = Files.list(directory)) {
+			segment = files.filter(path -> path.getFileName().toString().endsWith(".journal"))
+					.sorted()
+					.reduce((a, b) -> b)
+					.orElseThrow();
+		}
+		try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+			channel.write(ByteBuffer.allocate(12).putInt(100).putInt(0).putInt(42).flip());
+		}
+	}
+
+	private Map<String, Long> countByReference(List<String> references) {
+		Map<String, Long> counts = new HashMap<>();
+		jdbcTemplate.query(
+				"select intake_ref, count(*) c from tire_orders where intake_ref in (:refs) group by intake_ref",
+				Map.of("refs", references),
+				rs -> {
+					counts.put(rs.getString("intake_ref"), rs.getLong("c"));
+				});
+		return counts;
+	}
+
+	private OrderIntakeProperties properties(int maxEntryAttempts) {
+		return new OrderIntakeProperties(OrderIntakeMode.JOURNAL, directory.toString(), 1 << 20, 1000, 64, 3,
+				Duration.ofHours(1), maxEntryAttempts);
+	}
+}
@@ -0,0 +1,132 @@
+package com.fy20047.tireordering.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fy20047.tireordering.backend.entity.Order;
+import com.fy20047.tireordering.backend.entity.Tire;
+import com.fy20047.tireordering.backend.enums.InstallationOption;
+import com.fy20047.tireordering.backend.enums.OrderStatus;
+import com.fy20047.tireordering.backend.service.OrderService.CreateOrderCommand;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+// 統計彙總：下單、逐筆改狀態、批次改狀態一路累加的結果，要跟 rebuild() 依訂單重算的一模一樣
+// rebuild() 只讀訂單：輪胎之後改價、舊訂單沒有單價，都不會改到訂單上的 unit_price
+// 單價只補加欄位前的舊訂單；價格另洽（下單時沒有單價）的訂單之後輪胎有了價格也不補
+// 用自己的記憶體 DB，彙總不會混到其他測試的訂單
+@SpringBootTest(properties =
+		"spring.datasource.url=jdbc:h2:mem:rollups;MODE=MariaDB;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000")
+class OrderRollupServiceTests {
+
+	private static final String SNAPSHOT_SQL = """
+			select order_date, status, tire_id, installation_option, order_count, units, revenue
+			from order_rollups
+			where order_count <> 0 or units <> 0 or revenue <> 0
+			order by order_date, status, tire_id, installation_option
+			""";
+
+	@Autowired
+	private OrderService orderService;
+
+	@Autowired
+	private OrderRollupService rollupService;
+
+	@Autowired
+	private OrderUnitPriceBackfill unitPriceBackfill;
+
+	@Autowired
+	private TireService tireService;
+
+	@Autowired
+	private NamedParameterJdbcTemplate jdbcTemplate;
+
+	@Test
+	void incrementalRollupsMatchRebuild() {
+		Tire a = TestTires.create(tireService, "Rollup", "ROLLUP-A", 3000, 100);
+		Tire b = TestTires.create(tireService, "Rollup", "ROLLUP-B", 4500, 100);
+
+		Order first = orderService.createOrder(command(a, 2, InstallationOption.INSTALL));
+		Order second = orderService.createOrder(command(b, 1, InstallationOption.PICKUP));
+		List<Long> batch = orderService.createOrders(List.of(
+				command(a, 1, InstallationOption.INSTALL),
+				command(b, 3, InstallationOption.DELIVERY),
+				command(a, 4, InstallationOption.PICKUP)
+		), Map.of()).stream().map(result -> result.order().getId()).toList();
+		orderService.writeJournaledOrders(List.of(
+				new JournaledOrder(UUID.randomUUID().toString(), LocalDateTime.now().minusDays(1),
+						command(a, 1, InstallationOption.INSTALL)),
+				new JournaledOrder(UUID.randomUUID().toString(), LocalDateTime.now().minusDays(1),
+						command(b, 500, InstallationOption.INSTALL)) // 庫存不足，以取消狀態成立
+		));
+
+		orderService.updateOrderStatus(first.getId(), OrderStatus.CONFIRMED);
+		orderService.updateOrderStatus(second.getId(), OrderStatus.CANCELLED);
+		orderService.updateOrderStatus(second.getId(), OrderStatus.PENDING);
+		orderService.updateOrderStatuses(OrderStatus.COMPLETED, List.of(first.getId(), batch.get(0), batch.get(1)));
+		orderService.updateOrderStatuses(OrderStatus.CANCELLED, OrderStatus.PENDING, null, null);
+		tireService.updateTire(a.getId(), Tire.builder()
+				.brand(a.getBrand()).series(a.getSeries()).size(a.getSize()).price(9999).build());
+
+		List<Map<String, Object>> incremental = snapshot();
+		Map<Long, Integer> unitPrices = unitPrices();
+		rollupService.rebuild();
+
+		assertThat(incremental).isNotEmpty();
+		assertThat(snapshot()).isEqualTo(incremental);
+		assertThat(unitPrices()).isEqualTo(unitPrices).doesNotContainValue(9999);
+	}
+
+	@Test
+	void backfillOnlyFillsOrdersFromBeforeTheColumnExisted() {
+		Tire tire = TestTires.create(tireService, "Rollup", "ROLLUP-LEGACY", 2800, 100);
+		Order legacy = orderService.createOrder(command(tire, 2, InstallationOption.INSTALL));
+		jdbcTemplate.update("update tire_orders set unit_price = null where id = :id", Map.of("id", legacy.getId()));
+
+		rollupService.rebuild();
+		assertThat(unitPrices()).containsEntry(legacy.getId(), null);
+
+		// 模擬加欄位後第一次啟動：還沒有紀錄，上限是當下最大的訂單 id
+		jdbcTemplate.update("delete from maintenance_tasks where name = :name", Map.of("name", OrderUnitPriceBackfill.TASK_NAME));
+		unitPriceBackfill.backfill();
+		assertThat(unitPrices()).containsEntry(legacy.getId(), 2800);
+		rollupService.rebuild(); // 上線順序：先補單價再重建彙總
+
+		// 價格另洽的輪胎下單沒有單價；之後有了價格，重新啟動也不會補，改狀態時彙總仍跟重建一致
+		Tire onRequest = TestTires.create(tireService, "Rollup", "ROLLUP-ON-REQUEST", null, 100);
+		Order quoted = orderService.createOrder(command(onRequest, 1, InstallationOption.PICKUP));
+		tireService.updateTire(onRequest.getId(), Tire.builder()
+				.brand(onRequest.getBrand()).series(onRequest.getSeries()).size(onRequest.getSize()).price(5000).build());
+		unitPriceBackfill.backfill();
+		assertThat(unitPrices()).containsEntry(quoted.getId(), null);
+
+		orderService.updateOrderStatus(quoted.getId(), OrderStatus.CONFIRMED);
+		orderService.updateOrderStatus(legacy.getId(), OrderStatus.CONFIRMED);
+		List<Map<String, Object>> incremental = snapshot();
+		rollupService.rebuild();
+		assertThat(snapshot()).isEqualTo(incremental);
+	}
+
+	private List<Map<String, Object>> snapshot() {
+		return jdbcTemplate.queryForList(SNAPSHOT_SQL, Map.of());
+	}
+
+	private Map<Long, Integer> unitPrices() {
+		Map<Long, Integer> prices = new HashMap<>();
+		jdbcTemplate.query("select id, unit_price from tire_orders", Map.of(), rs -> {
+			prices.put(rs.getLong("id"), rs.getObject("unit_price", Integer.class));
+		});
+		return prices;
+	}
+
+	private static CreateOrderCommand command(Tire tire, int quantity, InstallationOption option) {
+		return new CreateOrderCommand(tire.getId(), quantity, "王小明", "0912345678", null, option,
+				option == InstallationOption.DELIVERY ? "台北市信義區松高路 1 號" : null, "Altis", null);
+	}
+}
@@ -0,0 +1,169 @@
+package com.fy20047.tireordering.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.fy20047.tireordering.backend.entity.Order;
+import com.fy20047.tireordering.backend.entity.Tire;
+import com.fy20047.tireordering.backend.enums.InstallationOption;
+import com.fy20047.tireordering.backend.event.OrderChangedEvent;
+import com.fy20047.tireordering.backend.service.OrderService.BatchItemResult;
+import com.fy20047.tireordering.backend.service.OrderService.CreateOrderCommand;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.BooleanSupplier;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// outbox：訂單跟事件同一個交易寫入，背景交給 handler；失敗會重試，次數用完標成 FAILED
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:tire_shop_outbox;MODE=MariaDB;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000",
+		"orders.outbox.batch-size=10",
+		"orders.outbox.poll-interval=50ms",
+		"orders.outbox.max-attempts=3",
+		"orders.outbox.initial-backoff=20ms",
+		"orders.outbox.max-backoff=100ms"
+})
+class OutboxDispatcherTests {
+
+	@Autowired
+	private OrderService orderService;
+
+	@Autowired
+	private TireService tireService;
+
+	@Autowired
+	private RecordingHandler handler;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Test
+	void batchOfOrdersIsHandedToHandlerOnce() throws Exception {
+		Tire tire = TestTires.create(tireService, "Michelin", "PRIMACY 4", 3200, 100);
+		List<CreateOrderCommand> commands = new ArrayList<>();
+		for (int i = 0; i < 25; i++) {
+			commands.add(command(tire.getId(), 1));
+		}
+		List<Long> orderIds = orderService.createOrders(commands, Map.of()).stream()
+				.map(BatchItemResult::order)
+				.map(Order::getId)
+				.toList();
+
+		await(() -> handler.handledOrderIds().containsAll(orderIds));
+		await(() -> count("status = 'DONE' and order_id in (" + join(orderIds) + ")") == orderIds.size());
+
+		assertThat(handler.handledOrderIds().stream().filter(orderIds::contains)).hasSize(orderIds.size());
+	}
+
+	@Test
+	void failedEventsAreRetriedUntilMaxAttempts() throws Exception {
+		Tire tire = TestTires.create(tireService, "Michelin", "PRIMACY 4", 3200, 10);
+		// commit 前先登記要失敗的訂單，dispatcher 看得到事件時一定已經登記好
+		List<Long> ids = transactionTemplate.execute(status -> {
+			Long flakyId = orderService.createOrder(command(tire.getId(), 1)).getId();
+			Long poisonId = orderService.createOrder(command(tire.getId(), 1)).getId();
+			handler.failuresLeft.put(flakyId, 2);
+			handler.failuresLeft.put(poisonId, Integer.MAX_VALUE);
+			return List.of(flakyId, poisonId);
+		});
+		Long flaky = ids.get(0);
+		Long poison = ids.get(1);
+
+		await(() -> count("status = 'DONE' and order_id = " + flaky) == 1);
+		await(() -> count("status = 'FAILED' and order_id = " + poison) == 1);
+
+		assertThat(jdbcTemplate.queryForObject(
+				"select attempts from outbox_events where order_id = ?", Integer.class, flaky)).isEqualTo(3);
+		assertThat(jdbcTemplate.queryForObject(
+				"select attempts from outbox_events where order_id = ?", Integer.class, poison)).isEqualTo(3);
+		assertThat(jdbcTemplate.queryForObject(
+				"select last_error from outbox_events where order_id = ?", String.class, poison)).contains("boom");
+	}
+
+	@Test
+	void rolledBackOrderLeavesNoEvent() {
+		Tire tire = TestTires.create(tireService, "Michelin", "PRIMACY 4", 3200, 1);
+		long before = count("1 = 1");
+
+		assertThatThrownBy(() -> orderService.createOrder(command(tire.getId(), 2)))
+				.isInstanceOf(IllegalStateException.class);
+
+		assertThat(count("1 = 1")).isEqualTo(before);
+	}
+
+	private long count(String condition) {
+		return jdbcTemplate.queryForObject("select count(*) from outbox_events where " + condition, Long.class);
+	}
+
+	private static String join(List<Long> ids) {
+		return String.join(",", ids.stream().map(String::valueOf).toList());
+	}
+
+	private static void await(BooleanSupplier condition) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 10_000;
+		while (!condition.getAsBoolean()) {
+			assertThat(System.currentTimeMillis()).as("condition not met in time").isLessThan(deadline);
+			Thread.sleep(20);
+		}
+	}
+
+	private static CreateOrderCommand command(Long tireId, int quantity) {
+		return new CreateOrderCommand(tireId, quantity, "王小明", "0912345678", null,
+				InstallationOption.INSTALL, null, "Altis", null);
+	}
+
+	@TestConfiguration
+	static class HandlerConfig {
+
+		@Bean
+		RecordingHandler recordingHandler() {
+			return new RecordingHandler();
+		}
+	}
+
+	// 記錄收到的訂單；failuresLeft 裡的訂單先失敗指定次數
+	static class RecordingHandler implements OutboxHandler {
+
+		private final Queue<OutboxMessage> handled = new ConcurrentLinkedQueue<>();
+		private final Map<Long, Integer> failuresLeft = new ConcurrentHashMap<>();
+
+		@Override
+		public String name() {
+			return "recording";
+		}
+
+		@Override
+		public boolean supports(OrderChangedEvent.Type type) {
+			return type == OrderChangedEvent.Type.CREATED;
+		}
+
+		@Override
+		public void handle(OutboxMessage message) {
+			Integer left = failuresLeft.computeIfPresent(message.orderId(), (id, value) -> value - 1);
+			if (left != null && left >= 0) {
+				throw new IllegalStateException("boom");
+			}
+			handled.add(message);
+		}
+
+		Set<Long> handledOrderIds() {
+			Set<Long> ids = ConcurrentHashMap.newKeySet();
+			handled.forEach(message -> ids.add(message.orderId()));
+			return ids;
+		}
+	}
+}
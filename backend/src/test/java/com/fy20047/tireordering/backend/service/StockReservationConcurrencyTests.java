@@ -0,0 +1,84 @@
+package com.fy20047.tireordering.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fy20047.tireordering.backend.entity.Tire;
+import com.fy20047.tireordering.backend.enums.InstallationOption;
+import com.fy20047.tireordering.backend.repository.TireRepository;
+import com.fy20047.tireordering.backend.service.OrderService.CreateOrderCommand;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+// 很多人同時搶同一條輪胎：成立的訂單數量加起來不能超過庫存，DB 庫存也不能變負的
+@SpringBootTest
+class StockReservationConcurrencyTests {
+
+	private static final int INITIAL_STOCK = 100;
+	private static final int THREADS = 32;
+	private static final int ORDERS = 240;
+
+	@Autowired
+	private OrderService orderService;
+
+	@Autowired
+	private InventoryService inventoryService;
+
+	@Autowired
+	private TireService tireService;
+
+	@Autowired
+	private TireRepository tireRepository;
+
+	@Test
+	void concurrentOrdersNeverOversell() throws Exception {
+		Tire tire = tireService.createTire(Tire.builder()
+				.brand("Michelin")
+				.series("PRIMACY 4")
+				.size("205/55R16")
+				.price(3200)
+				.stock(INITIAL_STOCK)
+				.build());
+
+		ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<Integer>> results = new ArrayList<>();
+		for (int i = 0; i < ORDERS; i++) {
+			int quantity = i % 3 + 1;
+			results.add(pool.submit(() -> {
+				start.await();
+				try {
+					return orderService.createOrder(command(tire.getId(), quantity)).getQuantity();
+				} catch (IllegalStateException e) {
+					assertThat(e).hasMessage("Insufficient stock");
+					return 0;
+				}
+			}));
+		}
+		start.countDown();
+
+		int sold = 0;
+		for (Future<Integer> result : results) {
+			sold += result.get();
+		}
+		pool.shutdown();
+
+		// striped 模式下記憶體裡還有預扣的數量，先還回 DB 再對帳
+		inventoryService.destroy();
+		int remaining = tireRepository.findStockById(tire.getId()).orElseThrow();
+
+		assertThat(sold).isPositive().isLessThanOrEqualTo(INITIAL_STOCK);
+		assertThat(remaining).isNotNegative().isEqualTo(INITIAL_STOCK - sold);
+	}
+
+	private static CreateOrderCommand command(Long tireId, int quantity) {
+		return new CreateOrderCommand(tireId, quantity, "王小明", "0912345678", null,
+				InstallationOption.INSTALL, null, "Altis", null);
+	}
+}
@@ -0,0 +1,72 @@
+package com.fy20047.tireordering.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fy20047.tireordering.backend.entity.Tire;
+import com.fy20047.tireordering.backend.repository.TireRepository;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.locks.ReentrantLock;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// 同一組併發測試，改走 striped 模式（記憶體預扣 + DB 補貨）；用另一個記憶體 DB 避免跟其他測試 context 互相 drop 表
+@SpringBootTest(properties = {
+		"inventory.striped.enabled=true",
+		"inventory.striped.chunk-size=7",
+		"spring.datasource.url=jdbc:h2:mem:tire_shop_striped;MODE=MariaDB;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000"
+})
+class StripedStockReservationConcurrencyTests extends StockReservationConcurrencyTests {
+
+	@Autowired
+	private InventoryService inventoryService;
+
+	@Autowired
+	private TireService tireService;
+
+	@Autowired
+	private TireRepository tireRepository;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	// 補貨鎖被別人拿著時第一次改成在交易裡直接扣 DB（交易鎖住這一列）；同一個交易再扣同一條輪胎不能再去補貨（獨立交易會等自己的鎖）
+	@Test
+	void reservingSameTireTwiceInOneTransactionWhileContended() throws Exception {
+		Tire tire = tireService.createTire(Tire.builder()
+				.brand("Michelin")
+				.series("PILOT SPORT 5")
+				.size("225/45R17")
+				.price(4800)
+				.stock(100)
+				.build());
+		ReentrantLock refillLock = inventoryService.refillLock(tire.getId());
+		CountDownLatch locked = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		CompletableFuture<Void> holder = CompletableFuture.runAsync(() -> {
+			refillLock.lock();
+			try {
+				locked.countDown();
+				release.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			} finally {
+				refillLock.unlock();
+			}
+		});
+		locked.await();
+
+		new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+			assertThat(inventoryService.reserve(tire.getId(), 2)).isTrue();
+			release.countDown();
+			holder.join();
+			assertThat(inventoryService.reserve(tire.getId(), 3)).isTrue();
+		});
+
+		inventoryService.destroy();
+		assertThat(tireRepository.findStockById(tire.getId())).contains(95);
+	}
+}
@@ -0,0 +1,21 @@
+package com.fy20047.tireordering.backend.service;
+
+import com.fy20047.tireordering.backend.entity.Tire;
+
+// 測試用輪胎：尺寸固定 205/55R16，各測試只差在品牌、系列、價格與庫存
+final class TestTires {
+
+	private TestTires() {
+	}
+
+	// price 為 null 表示價格另洽
+	static Tire create(TireService tireService, String brand, String series, Integer price, int stock) {
+		return tireService.createTire(Tire.builder()
+				.brand(brand)
+				.series(series)
+				.size("205/55R16")
+				.price(price)
+				.stock(stock)
+				.build());
+	}
+}
@@ -0,0 +1,77 @@
+package com.fy20047.tireordering.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fy20047.tireordering.backend.dto.TireFacetsResponse;
+import com.fy20047.tireordering.backend.dto.TireFacetsResponse.FacetCount;
+import com.fy20047.tireordering.backend.entity.Tire;
+import com.fy20047.tireordering.backend.service.TireFacetService.Facet;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+// 篩選統計：啟動時尺寸補齊比預熱晚跑，補上的輪圈也要進統計；品牌 / 產地篩選不分大小寫、前後空白
+// 用自己的記憶體 DB，統計不會混到其他測試建立的輪胎
+@SpringBootTest(properties =
+		"spring.datasource.url=jdbc:h2:mem:facets;MODE=MariaDB;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000")
+class TireFacetServiceTests {
+
+	@Autowired
+	private TireFacetService facetService;
+
+	@Autowired
+	private TireSizeBackfill sizeBackfill;
+
+	@Autowired
+	private TireService tireService;
+
+	@Autowired
+	private NamedParameterJdbcTemplate jdbcTemplate;
+
+	@Test
+	void backfilledSizesReachFacetsThatWarmedUpFirst() {
+		Tire legacy = create("Legacy", "Taiwan", "235/45R19 95W");
+		// 加規格欄位之前的舊資料：尺寸還沒解析
+		jdbcTemplate.update("update tires set width = null, aspect_ratio = null, construction = null, "
+				+ "rim_diameter = null, load_index = null, speed_rating = null where id = :id", Map.of("id", legacy.getId()));
+		facetService.warmUp();
+		assertThat(facetService.counts(Facet.RIM, "19").total()).isZero();
+
+		sizeBackfill.backfill();
+
+		assertThat(facetService.counts(Facet.RIM, "19.0").total()).isEqualTo(1);
+		assertThat(values(facetService.counts(null, null), Facet.RIM)).contains(new FacetCount("19", 1));
+	}
+
+	@Test
+	void brandAndOriginFiltersIgnoreCaseAndSurroundingSpaces() {
+		create("Casefold", "Japan", "205/55R16 91V");
+		create("Casefold", "Japan", "215/55R17 94W");
+		create("Casefold", "Thailand", "215/55R17 94W");
+
+		TireFacetsResponse byBrand = facetService.counts(Facet.BRAND, " casefold ");
+		TireFacetsResponse byOrigin = facetService.counts(Facet.ORIGIN, "JAPAN");
+
+		assertThat(byBrand.total()).isEqualTo(3);
+		assertThat(values(byBrand, Facet.ORIGIN)).containsExactly(new FacetCount("Japan", 2), new FacetCount("Thailand", 1));
+		assertThat(values(byOrigin, Facet.BRAND)).contains(new FacetCount("Casefold", 2));
+		assertThat(facetService.counts(Facet.BRAND, "Casefold").total()).isEqualTo(3);
+	}
+
+	private static List<FacetCount> values(TireFacetsResponse response, Facet facet) {
+		return response.facets().get(facet.key());
+	}
+
+	private Tire create(String brand, String origin, String size) {
+		return tireService.createTire(Tire.builder()
+				.brand(brand)
+				.series("FACET")
+				.origin(origin)
+				.size(size)
+				.price(3000)
+				.build());
+	}
+}
@@ -0,0 +1,117 @@
+package com.fy20047.tireordering.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.fy20047.tireordering.backend.entity.Tire;
+import com.fy20047.tireordering.backend.service.TireService.FitmentQuery;
+import java.math.BigDecimal;
+import java.util.List;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+// 依規格找輪胎：範圍兩端都包含、只給一端、上下限相同、空範圍；解析不了的尺寸與下架的輪胎不會出現
+// 用自己的記憶體 DB，結果不會混到其他測試建立的輪胎
+@SpringBootTest(properties =
+		"spring.datasource.url=jdbc:h2:mem:fitment;MODE=MariaDB;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class TireFitmentTests {
+
+	private static final BigDecimal RIM_16 = new BigDecimal("16");
+
+	@Autowired
+	private TireService tireService;
+
+	@BeforeAll
+	void createTires() {
+		create("W195", "195/55R16 87H", true);
+		create("W205", "205/55R16 91V", true);
+		create("W205XL", "205/55R16 94V XL", true);
+		create("W205NOLOAD", "205/55R16", true);
+		create("W215", "215/55R16 93W", true);
+		create("W205AR60", "205/60R16 92H", true);
+		create("W205OFF", "205/55R16 91V", false);
+		create("W205R17", "205/55R17 91V", true);
+		create("UNPARSED", "205-55-16", true);
+	}
+
+	@Test
+	void sizeMatchesExactDimensionsAndAtLeastItsLoadIndex() {
+		assertThat(series(query("205/55 r16 91v"))).containsExactly("W205", "W205XL");
+		assertThat(series(query("205/55R16"))).containsExactly("W205", "W205NOLOAD", "W205XL");
+	}
+
+	@Test
+	void explicitMinLoadIndexOverridesTheSize() {
+		FitmentQuery query = new FitmentQuery("205/55R16 91V", null, null, null, null, null, 94, null);
+
+		assertThat(series(query)).containsExactly("W205XL");
+	}
+
+	@Test
+	void rangesIncludeBothEnds() {
+		assertThat(series(range(195, 215, 55, 55))).containsExactly("W195", "W205", "W205NOLOAD", "W205XL", "W215");
+		assertThat(series(range(196, 214, null, null))).containsExactly("W205", "W205NOLOAD", "W205XL", "W205AR60");
+		assertThat(series(range(205, 205, 60, null))).containsExactly("W205AR60");
+	}
+
+	@Test
+	void openEndedRanges() {
+		assertThat(series(range(210, null, null, null))).containsExactly("W215");
+		assertThat(series(range(null, 195, null, null))).containsExactly("W195");
+		assertThat(series(range(null, null, null, null))).hasSize(6).doesNotContain("W205OFF", "W205R17", "UNPARSED");
+	}
+
+	@Test
+	void invalidQueriesAreRejected() {
+		assertThatThrownBy(() -> tireService.findByFitment(range(215, 205, null, null)))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessage("width range is empty");
+		assertThatThrownBy(() -> tireService.findByFitment(range(null, null, 60, 55)))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessage("aspectRatio range is empty");
+		assertThatThrownBy(() -> tireService.findByFitment(query("205-55-16")))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessage("Unrecognized tire size");
+		assertThatThrownBy(() -> tireService.findByFitment(
+				new FitmentQuery(null, null, 195, 215, null, null, null, null)))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessage("rimDiameter or size is required");
+		assertThatThrownBy(() -> tireService.findByFitment(
+				new FitmentQuery(null, RIM_16, null, null, null, null, null, 0)))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessage("limit must be at least 1");
+	}
+
+	@Test
+	void limitKeepsTheOrder() {
+		FitmentQuery query = new FitmentQuery(null, RIM_16, null, null, null, null, null, 2);
+
+		assertThat(series(query)).containsExactly("W195", "W205");
+	}
+
+	private List<String> series(FitmentQuery query) {
+		return tireService.findByFitment(query).stream().map(Tire::getSeries).toList();
+	}
+
+	private static FitmentQuery query(String size) {
+		return new FitmentQuery(size, null, null, null, null, null, null, null);
+	}
+
+	private static FitmentQuery range(Integer minWidth, Integer maxWidth, Integer minAspectRatio, Integer maxAspectRatio) {
+		return new FitmentQuery(null, RIM_16, minWidth, maxWidth, minAspectRatio, maxAspectRatio, null, null);
+	}
+
+	private void create(String series, String size, boolean active) {
+		tireService.createTire(Tire.builder()
+				.brand("Fitment")
+				.series(series)
+				.size(size)
+				.price(3000)
+				.isActive(active)
+				.build());
+	}
+}
@@ -0,0 +1,109 @@
+package com.fy20047.tireordering.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fy20047.tireordering.backend.dto.TireImportResponse;
+import com.fy20047.tireordering.backend.dto.TireImportResponse.RowError;
+import com.fy20047.tireordering.backend.repository.TireBatchRepository;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+// CSV 匯入：回報新增 / 更新 / 略過 / 不合格的筆數；同一個檔案裡重複出現這次新增的輪胎（不分大小寫）回報為不合格，不會多一條輪胎
+// chunk 很小的版本確認重複的列跨 chunk（前一筆已經 commit）時一樣不合格
+@SpringBootTest
+class TireImportServiceTests {
+
+	private static final String HEADER = "brand,series,size,origin,price,isActive,stock\n";
+
+	@Autowired
+	private TireImportService tireImportService;
+
+	@Autowired
+	private TireBatchRepository tireBatchRepository;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private ApplicationEventPublisher eventPublisher;
+
+	@Autowired
+	private NamedParameterJdbcTemplate jdbcTemplate;
+
+	@Test
+	void reportsInsertedUpdatedAndRejectedRows() throws Exception {
+		TireImportResponse response = tireImportService.importCsv(csv(HEADER
+				+ "ImportA,P1,205/55R16,Japan,3000,true,10\n"
+				+ "ImportA,P2,215/60R16,,2800,,5\n"
+				+ "importa,P1 ,205/55R16,JAPAN,3200,,\n"
+				+ ",P3,205/55R16,,1000,,\n"
+				+ "ImportA,P4,205/55R16,,-5,,\n"
+				+ "ImportA,P5,205/55R16\n"
+				+ "\n"
+				+ "ImportA,P6,205/55R16,,,maybe,\n"));
+
+		assertThat(response.inserted()).isEqualTo(2);
+		assertThat(response.updated()).isZero();
+		assertThat(response.unchanged()).isZero();
+		assertThat(response.rejected()).isEqualTo(5);
+		assertThat(response.errors()).extracting(RowError::line).containsExactly(4, 5, 6, 7, 9);
+		assertThat(response.errors()).extracting(RowError::message).containsExactly(
+				"Duplicate of line 2",
+				"brand is required",
+				"price must be a non-negative integer",
+				"Expected 7 columns but got 3",
+				"isActive must be true or false");
+		assertThat(tires("ImportA")).containsOnly(Map.entry("P1", 3000), Map.entry("P2", 2800));
+
+		// 再匯入一次：價格一樣的略過，不一樣的更新，沒有新增
+		response = tireImportService.importCsv(csv(HEADER
+				+ "ImportA,P1,205/55R16,Japan,3000,,\n"
+				+ "ImportA,P2,215/60R16,,2900,,\n"));
+
+		assertThat(response.inserted()).isZero();
+		assertThat(response.updated()).isEqualTo(1);
+		assertThat(response.unchanged()).isEqualTo(1);
+		assertThat(response.rejected()).isZero();
+		assertThat(tires("ImportA")).containsOnly(Map.entry("P1", 3000), Map.entry("P2", 2900));
+	}
+
+	@Test
+	void duplicateOfANewTireIsRejectedAfterItsChunkWasCommitted() throws Exception {
+		TireImportService smallChunks = new TireImportService(tireBatchRepository, transactionManager, eventPublisher, 1);
+
+		TireImportResponse response = smallChunks.importCsv(csv(HEADER
+				+ "ImportB,Q1,205/55R16,,3000,,\n"
+				+ "ImportB,Q2,205/55R16,,3100,,\n"
+				+ "IMPORTB,q1,205/55r16,,3300,false,\n"
+				+ "ImportB,Q2,205/55R16,,3100,,\n"));
+
+		assertThat(response.inserted()).isEqualTo(2);
+		assertThat(response.updated()).isZero();
+		assertThat(response.unchanged()).isZero();
+		assertThat(response.rejected()).isEqualTo(2);
+		assertThat(response.errors()).extracting(RowError::message).containsExactly("Duplicate of line 2", "Duplicate of line 3");
+		assertThat(tires("ImportB")).containsOnly(Map.entry("Q1", 3000), Map.entry("Q2", 3100));
+	}
+
+	private Map<String, Integer> tires(String brand) {
+		Map<String, Integer> prices = new HashMap<>();
+		jdbcTemplate.query("select series, price from tires where lower(brand) = lower(:brand)",
+				Map.of("brand", brand),
+				rs -> {
+					prices.put(rs.getString("series"), rs.getInt("price"));
+				});
+		return prices;
+	}
+
+	private static ByteArrayInputStream csv(String content) {
+		return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+	}
+}
@@ -0,0 +1,111 @@
+package com.fy20047.tireordering.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fy20047.tireordering.backend.entity.Tire;
+import com.fy20047.tireordering.backend.repository.TireRepository;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+// trigram 索引的搜尋結果要跟原本的 like '%...%' 查詢一樣（含異動之後的增量更新）
+// 輸入的 % 與 _ 兩邊都當一般字元比對（索引還沒建好時退回 DB 查詢，結果不能因此改變）
+@SpringBootTest
+class TireSearchIndexTests {
+
+	// brand, series, size, active
+	private static final String[][] QUERIES = {
+			{"mich", null, null, null},
+			{"MICHELIN", null, null, null},
+			{"ich", "primacy", null, null},
+			{null, "4", null, null},
+			{null, null, "205/55", null},
+			{null, null, "r16", "true"},
+			{"ri", null, null, "false"},
+			{"stone", "alenza", "225", null},
+			{"zz", null, null, null},
+			{"no such brand", null, null, null},
+			{null, null, null, "true"},
+			{null, "_", null, null},
+			{null, "p_z", null, null},
+			{null, "%", null, null},
+			{null, "p%z", null, null},
+			{null, "100%", null, null},
+			{"!", null, null, null},
+			{"\\", null, null, null},
+	};
+
+	@Autowired
+	private TireSearchIndex searchIndex;
+
+	@Autowired
+	private TireRepository tireRepository;
+
+	@Autowired
+	private TireService tireService;
+
+	@Test
+	void indexMatchesLikeSearch() {
+		List<Tire> tires = new ArrayList<>();
+		tires.add(create("Michelin", "PRIMACY 4", "205/55R16", true));
+		tires.add(create("Michelin", "PILOT SPORT 5", "245/40R18", true));
+		tires.add(create("michelin", "Primacy SUV", "225/65R17", false));
+		tires.add(create("Bridgestone", "ALENZA H/L 33", "225/60R18", true));
+		tires.add(create("Bridgestone", "TURANZA T005", "205/55R16", false));
+		tires.add(create("Pirelli", "CINTURATO P7", "205/55 R16", true));
+		tires.add(create("Pirelli", "P_ZERO 100%", "245/35R19", true));
+		assertSameResults();
+		assertThat(searchIndex.search(null, "_", null, null, 0, null)).containsExactly(tires.get(6).getId());
+		assertThat(searchIndex.search(null, "%", null, null, 0, null)).containsExactly(tires.get(6).getId());
+		assertThat(searchIndex.search(null, "p%z", null, null, 0, null)).isEmpty();
+
+		// 增量更新：改名、下架、改尺寸之後仍然一致
+		Tire renamed = tires.get(0);
+		renamed.setSeries("PRIMACY 5");
+		renamed.setSize("215/55R17");
+		tireService.updateTire(renamed.getId(), renamed);
+		tireService.updateActiveStatus(tires.get(3).getId(), false);
+		tireService.updateActiveStatus(tires.get(2).getId(), true);
+		assertSameResults();
+	}
+
+	@Test
+	void pagingReturnsConsecutiveSlices() {
+		for (int i = 0; i < 7; i++) {
+			create("Pagingbrand", "SERIES " + i, "195/65R15", true);
+		}
+		List<Long> all = searchIndex.search("pagingbrand", null, null, null, 0, null);
+		assertThat(all).hasSize(7);
+		List<Long> pages = new ArrayList<>();
+		for (int offset = 0; offset < all.size(); offset += 3) {
+			pages.addAll(searchIndex.search("pagingbrand", null, null, null, offset, 3));
+		}
+		assertThat(pages).isEqualTo(all);
+	}
+
+	private void assertSameResults() {
+		assertThat(searchIndex.isReady()).isTrue();
+		for (String[] query : QUERIES) {
+			Boolean active = query[3] == null ? null : Boolean.valueOf(query[3]);
+			List<Long> expected = tireRepository.search(query[0], query[1], query[2], active).stream()
+					.map(Tire::getId)
+					.toList();
+			List<Long> actual = searchIndex.search(query[0], query[1], query[2], active, 0, null);
+			// DB 的排序受 collation 影響（大小寫），這裡只比對結果集合
+			assertThat(actual).as(String.join(",", String.valueOf(query[0]), String.valueOf(query[1]),
+					String.valueOf(query[2]), String.valueOf(query[3]))).containsExactlyInAnyOrderElementsOf(expected);
+		}
+	}
+
+	private Tire create(String brand, String series, String size, boolean active) {
+		return tireService.createTire(Tire.builder()
+				.brand(brand)
+				.series(series)
+				.size(size)
+				.price(3000)
+				.isActive(active)
+				.build());
+	}
+}
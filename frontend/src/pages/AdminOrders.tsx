@@ -1,4 +1,4 @@
-import { ChangeEvent, FormEvent, useEffect, useMemo, useState } from 'react';
+import { ChangeEvent, FormEvent, useEffect, useMemo, useRef, useState } from 'react';
 import { useNavigate } from 'react-router-dom';
 import styles from '../styles/AdminOrders.module.css';
 
@@ -58,9 +58,14 @@ const AdminOrders = () => {
   const [filters, setFilters] = useState<Filters>(defaultFilters);
   const [statusDrafts, setStatusDrafts] = useState<Record<number, OrderStatus>>({});
   const [loading, setLoading] = useState(false);
+  const [nextCursor, setNextCursor] = useState<string | null>(null);
+  const [loadingMore, setLoadingMore] = useState(false);
   const [savingId, setSavingId] = useState<number | null>(null);
   const [errorMessage, setErrorMessage] = useState('');
   const [successMessage, setSuccessMessage] = useState('');
+  // 目前列表套用的狀態篩選，與重新載入列表的方法（給即時串流用）
+  const appliedStatusRef = useRef<Filters['status']>(defaultFilters.status);
+  const reloadRef = useRef<() => void>(() => {});
 
   useEffect(() => {
     document.title = '訂單管理';
@@ -71,20 +76,132 @@ const AdminOrders = () => {
     void fetchOrders();
   }, [navigate, token]);
 
-  const fetchOrders = async (nextFilters?: Filters) => {
+  // 即時串流（SSE）：新訂單 / 狀態變更直接合併進列表，不用重新載入整份
+  // 用 fetch 讀串流（EventSource 不能帶 Authorization header），斷線 3 秒後帶 Last-Event-ID 重連
+  useEffect(() => {
     if (!apiBaseUrl || !token) {
       return;
     }
 
-    setLoading(true);
+    const controller = new AbortController();
+    let lastEventId: string | null = null;
+    let retryTimer: number | undefined;
+
+    const handleEvent = (block: string) => {
+      let eventName = 'message';
+      const dataLines: string[] = [];
+      block.split('\n').forEach((line) => {
+        if (line.startsWith('id:')) {
+          lastEventId = line.slice(3).trim();
+        } else if (line.startsWith('event:')) {
+          eventName = line.slice(6).trim();
+        } else if (line.startsWith('data:')) {
+          dataLines.push(line.slice(5));
+        }
+      });
+
+      if (eventName === 'reset') {
+        reloadRef.current();
+        return;
+      }
+      if (eventName !== 'order-created' && eventName !== 'order-status-changed') {
+        return;
+      }
+      mergeOrder(JSON.parse(dataLines.join('\n')) as AdminOrder, eventName === 'order-created');
+    };
+
+    const connect = async () => {
+      try {
+        const headers: Record<string, string> = { Authorization: `Bearer ${token}` };
+        if (lastEventId) {
+          headers['Last-Event-ID'] = lastEventId;
+        }
+        const response = await fetch(`${apiBaseUrl}/api/admin/orders/stream`, {
+          headers,
+          signal: controller.signal
+        });
+
+        if (response.status === 401 || response.status === 403) {
+          localStorage.removeItem('adminToken');
+          navigate('/admin/login');
+          return;
+        }
+
+        if (response.ok && response.body) {
+          const reader = response.body.pipeThrough(new TextDecoderStream()).getReader();
+          let buffer = '';
+          for (;;) {
+            const { value, done } = await reader.read();
+            if (done) {
+              break;
+            }
+            buffer += value;
+            let boundary = buffer.indexOf('\n\n');
+            while (boundary >= 0) {
+              handleEvent(buffer.slice(0, boundary));
+              buffer = buffer.slice(boundary + 2);
+              boundary = buffer.indexOf('\n\n');
+            }
+          }
+        }
+      } catch (error) {
+        // 斷線或離開頁面
+      }
+      if (!controller.signal.aborted) {
+        retryTimer = window.setTimeout(() => void connect(), 3000);
+      }
+    };
+
+    void connect();
+    return () => {
+      controller.abort();
+      window.clearTimeout(retryTimer);
+    };
+  }, [apiBaseUrl, navigate, token]);
+
+  // 把單筆訂單合併進列表：已在列表就換掉，新訂單放最前面；不符合目前狀態篩選的移除
+  const mergeOrder = (order: AdminOrder, isNew: boolean) => {
+    const status = appliedStatusRef.current;
+    const visible = status === 'all' || order.status === status;
+    setOrders((prev) => {
+      const exists = prev.some((item) => item.id === order.id);
+      if (!visible) {
+        return exists ? prev.filter((item) => item.id !== order.id) : prev;
+      }
+      if (exists) {
+        return prev.map((item) => (item.id === order.id ? order : item));
+      }
+      return isNew ? [order, ...prev] : prev;
+    });
+    setStatusDrafts((prev) => ({ ...prev, [order.id]: order.status }));
+  };
+
+  // cursor 有值時是「載入更多」：接在目前列表後面，而不是整份替換
+  const fetchOrders = async (nextFilters?: Filters, cursor?: string) => {
+    if (!apiBaseUrl || !token) {
+      return;
+    }
+
+    const append = Boolean(cursor);
+    if (append) {
+      setLoadingMore(true);
+    } else {
+      setLoading(true);
+    }
     setErrorMessage('');
     setSuccessMessage('');
 
     const appliedFilters = nextFilters ?? filters;
+    if (!append) {
+      appliedStatusRef.current = appliedFilters.status;
+    }
     const params = new URLSearchParams();
     if (appliedFilters.status !== 'all') {
       params.set('status', appliedFilters.status);
     }
+    if (cursor) {
+      params.set('cursor', cursor);
+    }
 
     const query = params.toString();
     const url = `${apiBaseUrl}/api/admin/orders${query ? `?${query}` : ''}`;
@@ -115,17 +232,30 @@ const AdminOrders = () => {
 
       const data = await response.json();
       const items = (data.items ?? []) as AdminOrder[];
-      setOrders(items);
+      setOrders((prev) => (append ? [...prev, ...items] : items));
+      setNextCursor(data.next ?? null);
 
       const draftMap: Record<number, OrderStatus> = {};
       items.forEach((order) => {
         draftMap[order.id] = order.status;
       });
-      setStatusDrafts(draftMap);
+      setStatusDrafts((prev) => (append ? { ...prev, ...draftMap } : draftMap));
     } catch (error) {
       setErrorMessage('載入訂單失敗，請稍後再試。');
     } finally {
-      setLoading(false);
+      if (append) {
+        setLoadingMore(false);
+      } else {
+        setLoading(false);
+      }
+    }
+  };
+
+  reloadRef.current = () => void fetchOrders(filters);
+
+  const handleLoadMore = () => {
+    if (nextCursor) {
+      void fetchOrders(filters, nextCursor);
     }
   };
 
@@ -191,7 +321,7 @@ const AdminOrders = () => {
       }
 
       setSuccessMessage('訂單狀態已更新。');
-      await fetchOrders(filters);
+      mergeOrder((await response.json()) as AdminOrder, false);
     } catch (error) {
       setErrorMessage('更新狀態失敗，請稍後再試。');
     } finally {
@@ -383,6 +513,13 @@ const AdminOrders = () => {
             </table>
           </div>
         )}
+        {!loading && nextCursor && (
+          <div className={styles.actionsRow}>
+            <button type="button" className={styles.secondaryButton} onClick={handleLoadMore} disabled={loadingMore}>
+              {loadingMore ? '載入中...' : '載入更多'}
+            </button>
+          </div>
+        )}
       </section>
     </div>
   );
@@ -10,6 +10,7 @@ type Tire = {
   size: string;
   price: number | null;
   isActive: boolean;
+  stock: number;
   createdAt?: string;
   updatedAt?: string;
 };
@@ -21,6 +22,7 @@ type TireFormState = {
   size: string;
   price: string;
   isActive: boolean;
+  stock: string;
 };
 
 type Filters = {
@@ -30,13 +32,22 @@ type Filters = {
   active: 'all' | 'true' | 'false';
 };
 
+type TireImportResult = {
+  inserted: number;
+  updated: number;
+  unchanged: number;
+  rejected: number;
+  errors: { line: number; message: string }[];
+};
+
 const defaultFormState: TireFormState = {
   brand: '',
   series: '',
   origin: '',
   size: '',
   price: '',
-  isActive: true
+  isActive: true,
+  stock: '0'
 };
 
 const AdminTires = () => {
@@ -57,6 +68,10 @@ const AdminTires = () => {
   const [saving, setSaving] = useState(false);
   const [errorMessage, setErrorMessage] = useState('');
   const [successMessage, setSuccessMessage] = useState('');
+  const [importFile, setImportFile] = useState<File | null>(null);
+  const [importing, setImporting] = useState(false);
+  const [importMessage, setImportMessage] = useState('');
+  const [importErrors, setImportErrors] = useState<TireImportResult['errors']>([]);
 
   useEffect(() => {
     document.title = '輪胎管理';
@@ -156,7 +171,8 @@ const AdminTires = () => {
       origin: tire.origin ?? '',
       size: tire.size,
       price: tire.price === null ? '' : String(tire.price),
-      isActive: tire.isActive
+      isActive: tire.isActive,
+      stock: String(tire.stock)
     });
     setSuccessMessage('');
     setErrorMessage('');
@@ -184,10 +200,12 @@ const AdminTires = () => {
       origin: form.origin.trim() || null,
       size: form.size.trim(),
       price: form.price.trim() === '' ? null : Number(form.price),
-      isActive: form.isActive
+      isActive: form.isActive,
+      stock: form.stock.trim() === '' ? 0 : Number(form.stock)
     };
 
     const isEditing = editingId !== null;
+    const original = isEditing ? tires.find((tire) => tire.id === editingId) : undefined;
     const url = isEditing
       ? `${apiBaseUrl}/api/admin/tires/${editingId}`
       : `${apiBaseUrl}/api/admin/tires`;
@@ -220,6 +238,23 @@ const AdminTires = () => {
         return;
       }
 
+      // 編輯時庫存走盤點 API（PUT 不改庫存）
+      if (isEditing && original && original.stock !== payload.stock) {
+        const stockResponse = await fetch(`${apiBaseUrl}/api/admin/tires/${editingId}/stock`, {
+          method: 'PATCH',
+          headers: {
+            'Content-Type': 'application/json',
+            Authorization: `Bearer ${token}`
+          },
+          body: JSON.stringify({ stock: payload.stock })
+        });
+        if (!stockResponse.ok) {
+          setErrorMessage(`庫存更新失敗（${stockResponse.status}）。`);
+          await fetchTires();
+          return;
+        }
+      }
+
       setSuccessMessage(isEditing ? '輪胎資料已更新。' : '輪胎資料已新增。');
       setForm(defaultFormState);
       setEditingId(null);
@@ -269,6 +304,56 @@ const AdminTires = () => {
     }
   };
 
+  // 供應商價目表匯入：檔案直接當 request body 送出（text/csv），後端邊讀邊寫
+  const handleImport = async (event: FormEvent<HTMLFormElement>) => {
+    event.preventDefault();
+    if (!apiBaseUrl || !token || !importFile) {
+      return;
+    }
+
+    setImporting(true);
+    setImportMessage('');
+    setImportErrors([]);
+    try {
+      const response = await fetch(`${apiBaseUrl}/api/admin/tires/import`, {
+        method: 'POST',
+        headers: {
+          'Content-Type': 'text/csv',
+          Authorization: `Bearer ${token}`
+        },
+        body: importFile
+      });
+
+      if (response.status === 401 || response.status === 403) {
+        localStorage.removeItem('adminToken');
+        navigate('/admin/login');
+        return;
+      }
+
+      const contentType = response.headers.get('content-type') || '';
+      if (!response.ok) {
+        if (contentType.includes('application/json')) {
+          const data = await response.json();
+          setImportMessage(data.message || `匯入失敗（${response.status}）。`);
+        } else {
+          setImportMessage(`匯入失敗（${response.status}）。`);
+        }
+        return;
+      }
+
+      const result = (await response.json()) as TireImportResult;
+      setImportMessage(
+        `新增 ${result.inserted} 筆、更新 ${result.updated} 筆、未變更 ${result.unchanged} 筆、不合格 ${result.rejected} 筆。`
+      );
+      setImportErrors(result.errors);
+      await fetchTires();
+    } catch (error) {
+      setImportMessage('匯入失敗，請稍後再試。');
+    } finally {
+      setImporting(false);
+    }
+  };
+
   const handleLogout = () => {
     localStorage.removeItem('adminToken');
     navigate('/admin/login');
@@ -357,6 +442,18 @@ const AdminTires = () => {
                 min="0"
               />
             </div>
+            <div className={styles.formGroup}>
+              <label className={styles.label} htmlFor="formStock">庫存</label>
+              <input
+                id="formStock"
+                name="stock"
+                type="number"
+                value={form.stock}
+                onChange={handleFormChange}
+                className={styles.input}
+                min="0"
+              />
+            </div>
             <div className={styles.formGroupCheckbox}>
               <label className={styles.checkboxLabel}>
                 <input
@@ -384,6 +481,39 @@ const AdminTires = () => {
         </form>
       </section>
 
+      <section className={styles.card}>
+        <h2 className={styles.sectionTitle}>匯入價目表（CSV）</h2>
+        <form className={styles.form} onSubmit={handleImport}>
+          <div className={styles.formRow}>
+            <div className={styles.formGroup}>
+              <label className={styles.label} htmlFor="importFile">
+                檔案（UTF-8，表頭需含 brand、series、size；可選 origin、price、isActive、stock）
+              </label>
+              <input
+                id="importFile"
+                type="file"
+                accept=".csv,text/csv"
+                onChange={(event) => setImportFile(event.target.files?.[0] ?? null)}
+                className={styles.input}
+              />
+            </div>
+          </div>
+          {importMessage && <p className={styles.successMessage}>{importMessage}</p>}
+          {importErrors.length > 0 && (
+            <ul className={styles.errorMessage}>
+              {importErrors.map((item) => (
+                <li key={item.line}>第 {item.line} 行：{item.message}</li>
+              ))}
+            </ul>
+          )}
+          <div className={styles.actionsRow}>
+            <button type="submit" className={styles.primaryButton} disabled={importing || !importFile}>
+              {importing ? '匯入中...' : '匯入'}
+            </button>
+          </div>
+        </form>
+      </section>
+
       <section className={styles.card}>
         <h2 className={styles.sectionTitle}>搜尋/篩選</h2>
         <form className={styles.filterForm} onSubmit={handleSearch}>
@@ -458,6 +588,7 @@ const AdminTires = () => {
                   <th>產地</th>
                   <th>尺寸</th>
                   <th>價格</th>
+                  <th>庫存</th>
                   <th>上架</th>
                   <th>更新時間</th>
                   <th>操作</th>
@@ -466,7 +597,7 @@ const AdminTires = () => {
               <tbody>
                 {tires.length === 0 ? (
                   <tr>
-                    <td colSpan={8} className={styles.emptyCell}>查無資料</td>
+                    <td colSpan={9} className={styles.emptyCell}>查無資料</td>
                   </tr>
                 ) : (
                   tires.map((tire) => (
@@ -476,6 +607,7 @@ const AdminTires = () => {
                       <td>{tire.origin || '—'}</td>
                       <td>{tire.size}</td>
                       <td>{formatPrice(tire.price)}</td>
+                      <td>{tire.stock}</td>
                       <td>
                         <span className={tire.isActive ? styles.activeBadge : styles.inactiveBadge}>
                           {tire.isActive ? '上架' : '下架'}
@@ -1,4 +1,4 @@
-﻿import { ChangeEvent, FormEvent, useEffect, useMemo, useState } from 'react';
+﻿import { ChangeEvent, FormEvent, useEffect, useMemo, useRef, useState } from 'react';
 import { useSearchParams } from 'react-router-dom';
 import styles from '../styles/TireOrder.module.css';
 
@@ -33,6 +33,8 @@ const OrderPage = () => {
   const sizeParam = (searchParams.get('size') ?? '').trim();
   const hasPrefill = Boolean(seriesParam || sizeParam);
   const apiBaseUrl = import.meta.env.VITE_API_BASE_URL as string | undefined;
+  // 同一份訂單內容重送時沿用同一個 Idempotency-Key，後端不會重複成立訂單
+  const idempotencyRef = useRef<{ body: string; key: string } | null>(null);
 
   const [tireOptions, setTireOptions] = useState<Tire[]>([]);
   const [selectedTireId, setSelectedTireId] = useState<number | null>(null);
@@ -266,19 +268,26 @@ const OrderPage = () => {
       notes: formData.notes.trim() || undefined
     };
 
+    const body = JSON.stringify(payload);
+    if (idempotencyRef.current?.body !== body) {
+      idempotencyRef.current = { body, key: crypto.randomUUID() };
+    }
+
     try {
       const response = await fetch(`${apiBaseUrl}/api/orders`, {
         method: 'POST',
         headers: {
-          'Content-Type': 'application/json'
+          'Content-Type': 'application/json',
+          'Idempotency-Key': idempotencyRef.current.key
         },
-        body: JSON.stringify(payload)
+        body
       });
 
       const result = await response.json().catch(() => ({}));
 
       if (response.ok) {
-        const returnedOrderId = result.orderId ?? result.id ?? '—';
+        idempotencyRef.current = null;
+        const returnedOrderId = result.orderId ?? result.id ?? result.reference ?? '—';
         setSubmitStatus('success');
         setSubmitMessage(`訂單已送出，您的單號為：${returnedOrderId}，客服將與您聯繫確認！`);
         setFormData((prev) => ({